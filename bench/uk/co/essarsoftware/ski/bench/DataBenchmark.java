@@ -0,0 +1,469 @@
+package uk.co.essarsoftware.ski.bench;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+
+import uk.co.essarsoftware.ski.data.BenchmarkAccess;
+import uk.co.essarsoftware.ski.data.BenchmarkAccess.Path;
+import uk.co.essarsoftware.ski.data.CSVParser;
+import uk.co.essarsoftware.ski.data.DataLoader;
+import uk.co.essarsoftware.ski.data.GSDParser;
+import uk.co.essarsoftware.ski.data.Processor;
+import uk.co.essarsoftware.ski.data.SkiDataProcessor;
+import uk.co.essarsoftware.ski.data.Track;
+import uk.co.essarsoftware.ski.geo.CoordConverter;
+import uk.co.essarsoftware.ski.geo.UTMCoordinate;
+import uk.co.essarsoftware.ski.geo.WGSCoordinate;
+import uk.co.essarsoftware.ski.ui.AltitudePlot;
+import uk.co.essarsoftware.ski.ui.TrackPlot;
+
+/**
+ * <p>Benchmarks of the data, coordinate conversion and plotting hot paths, run from the command line on a plain
+ * JVM.</p>
+ * <p>Each benchmark is run against synthetic sessions of each requested length and sample rate. After warm-up
+ * iterations, the mean throughput of the measured iterations is reported in operations per second, where an
+ * operation is one point or element, together with the bytes allocated per operation where the JVM can report
+ * them.</p>
+ * <p>Usage: <tt>DataBenchmark [-m minutes,...] [-r hz,...] [-w warmups] [-i iterations] [-b name]</tt></p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class DataBenchmark
+{
+	// Default session lengths, in minutes, and sample rates, in points per second
+	private static final int[] DEFAULT_MINUTES = {60, 480};
+	private static final int[] DEFAULT_RATES = {1, 5};
+	// Default number of warm-up and measured iterations
+	private static final int DEFAULT_WARMUPS = 3;
+	private static final int DEFAULT_ITERATIONS = 5;
+	// Seed of generated sessions
+	private static final long SEED = 20110222L;
+	
+	// Sink for benchmark results, so that work is not optimised away
+	static volatile long sink;
+	
+	// Session lengths and sample rates to run
+	private int[] minutes, rates;
+	// Number of warm-up and measured iterations
+	private int warmups, iterations;
+	// Benchmark name filter, or null to run all
+	private String filter;
+	
+	/**
+	 * Create a new benchmark run with the default parameters.
+	 */
+	DataBenchmark() {
+		minutes = DEFAULT_MINUTES;
+		rates = DEFAULT_RATES;
+		warmups = DEFAULT_WARMUPS;
+		iterations = DEFAULT_ITERATIONS;
+	}
+	
+	/**
+	 * Parse a comma separated list of positive integers.
+	 * @param list the list to parse.
+	 * @return the parsed values.
+	 */
+	static int[] parseList(String list) {
+		String[] parts = list.split(",");
+		int[] values = new int[parts.length];
+		for(int i = 0; i < parts.length; i ++) {
+			values[i] = Integer.parseInt(parts[i].trim());
+			if(values[i] < 1) {
+				throw new IllegalArgumentException("Values must be greater than zero (" + list + ")");
+			}
+		}
+		return values;
+	}
+	
+	/**
+	 * Create the benchmarks.
+	 * @return a list of all benchmarks.
+	 */
+	private static ArrayList<Benchmark> createBenchmarks() {
+		ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		
+		benchmarks.add(new Benchmark("GSDParser.readDatum") {
+			int run(Session s) throws IOException {
+				GSDParser p = new GSDParser(new ByteArrayInputStream(s.gsd), true);
+				int ct = 0;
+				while(p.readDatum() != null) {
+					ct ++;
+				}
+				return ct;
+			}
+		});
+		benchmarks.add(new Benchmark("CSVParser.readDatum") {
+			int run(Session s) throws IOException {
+				CSVParser p = new CSVParser(new ByteArrayInputStream(s.csv));
+				int ct = 0;
+				while(p.readDatum() != null) {
+					ct ++;
+				}
+				return ct;
+			}
+		});
+		benchmarks.add(new Benchmark("CoordConverter.WGS2UTM") {
+			int run(Session s) {
+				long sum = 0;
+				for(WGSCoordinate wgs : s.wgs) {
+					sum += CoordConverter.WGS2UTM(wgs).getX();
+				}
+				sink += sum;
+				return s.wgs.length;
+			}
+		});
+		benchmarks.add(new Benchmark("CoordConverter.UTM2WGS") {
+			int run(Session s) {
+				float sum = 0;
+				for(UTMCoordinate utm : s.utm) {
+					sum += CoordConverter.UTM2WGS(utm).getLatitude();
+				}
+				sink += (long) sum;
+				return s.utm.length;
+			}
+		});
+		benchmarks.add(new Benchmark("DatumInterpolator.interpolateList") {
+			private Path path;
+			
+			void prepare(Session s) {
+				path = s.points.copy();
+			}
+			
+			int run(Session s) {
+				return path.interpolate();
+			}
+		});
+		benchmarks.add(new Benchmark("ElemWindow.statistics") {
+			private Path path;
+			
+			void prepare(Session s) {
+				path = s.interpolatedPath();
+			}
+			
+			int run(Session s) {
+				sink += (long) path.readStatistics();
+				return path.size();
+			}
+		});
+		benchmarks.add(new Benchmark("SkiDataProcessor.processElement") {
+			private Path path;
+			private final Processor proc = new SkiDataProcessor();
+			
+			void prepare(Session s) {
+				path = s.interpolatedPath();
+			}
+			
+			int run(Session s) {
+				sink += path.process(proc).ordinal();
+				return path.size();
+			}
+		});
+		benchmarks.add(new Benchmark("Track.calcAggregates") {
+			int run(Session s) {
+				BenchmarkAccess.calcAggregates(s.track);
+				sink += s.track.getDeltaAltitude();
+				return s.track.size();
+			}
+		});
+		benchmarks.add(new Benchmark("AltitudePlot.buildData") {
+			int run(Session s) {
+				sink += new AltitudePlot(s.track).getData().size();
+				return s.track.size();
+			}
+		});
+		benchmarks.add(new Benchmark("TrackPlot.buildData") {
+			int run(Session s) {
+				sink += new TrackPlot(s.track).getData().size();
+				return s.track.size();
+			}
+		});
+		benchmarks.add(new LoaderBenchmark("DataLoader.batch", DataLoader.LOAD_MODE_BATCH));
+		benchmarks.add(new LoaderBenchmark("DataLoader.pipelined", DataLoader.LOAD_MODE_PIPELINED));
+		benchmarks.add(new LoaderBenchmark("DataLoader.streaming", DataLoader.LOAD_MODE_STREAMING));
+		
+		return benchmarks;
+	}
+	
+	/**
+	 * Run all benchmarks matching the filter against each session, writing results to standard output.
+	 * @throws Exception if a benchmark fails.
+	 */
+	void runAll() throws Exception {
+		ArrayList<Benchmark> benchmarks = createBenchmarks();
+		
+		System.out.println(String.format("%-34s %6s %4s %16s %12s %12s %10s", "Benchmark", "Mins", "Hz", "Ops/sec", "ns/op", "B/op", "MB/sec"));
+		for(int m : minutes) {
+			for(int hz : rates) {
+				Session s = new Session(m, hz, SEED);
+				for(Benchmark b : benchmarks) {
+					if(filter == null || b.name.contains(filter)) {
+						Result r = b.measure(s, warmups, iterations);
+						System.out.println(String.format("%-34s %6d %4d %,16.0f %,12.1f %12s %10s", b.name, m, hz, r.getOpsPerSecond(), r.getNanosPerOp(), (r.allocated < 0 ? "n/a" : String.format("%,.1f", r.getBytesPerOp())), (r.allocated < 0 ? "n/a" : String.format("%,.1f", r.getAllocationRate()))));
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Run the benchmarks.
+	 * @param args command line options.
+	 * @throws Exception if a benchmark fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		DataBenchmark db = new DataBenchmark();
+		for(int i = 0; i < args.length - 1; i += 2) {
+			if("-m".equals(args[i])) {
+				db.minutes = parseList(args[i + 1]);
+			} else if("-r".equals(args[i])) {
+				db.rates = parseList(args[i + 1]);
+			} else if("-w".equals(args[i])) {
+				db.warmups = Integer.parseInt(args[i + 1]);
+			} else if("-i".equals(args[i])) {
+				db.iterations = Math.max(1, Integer.parseInt(args[i + 1]));
+			} else if("-b".equals(args[i])) {
+				db.filter = args[i + 1];
+			} else {
+				System.err.println("Usage: DataBenchmark [-m minutes,...] [-r hz,...] [-w warmups] [-i iterations] [-b name]");
+				return;
+			}
+		}
+		db.runAll();
+	}
+	
+	/**
+	 * <p>A single benchmark, run repeatedly against a session.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	static abstract class Benchmark
+	{
+		// Benchmark name
+		final String name;
+		
+		/**
+		 * Create a new benchmark.
+		 * @param name the name of the benchmark.
+		 */
+		Benchmark(String name) {
+			this.name = name;
+		}
+		
+		/**
+		 * Get the bytes allocated by the last iteration.
+		 * @param threadBytes the bytes allocated by the current thread during the iteration, or -1 if not known.
+		 * @return the number of bytes allocated, or -1 if not known.
+		 */
+		long getAllocated(long threadBytes) {
+			return threadBytes;
+		}
+		
+		/**
+		 * Run warm-up iterations, then measured iterations, of the benchmark.
+		 * @param s the session to run against.
+		 * @param warmups the number of warm-up iterations.
+		 * @param iterations the number of measured iterations.
+		 * @return the combined <tt>Result</tt> of the measured iterations.
+		 * @throws Exception if the benchmark fails.
+		 */
+		Result measure(Session s, int warmups, int iterations) throws Exception {
+			for(int i = 0; i < warmups; i ++) {
+				prepare(s);
+				run(s);
+			}
+			System.gc();
+			
+			Result r = new Result();
+			for(int i = 0; i < iterations; i ++) {
+				prepare(s);
+				long a = BenchmarkAccess.threadAllocatedBytes();
+				long t = System.nanoTime();
+				r.ops += run(s);
+				r.time += System.nanoTime() - t;
+				long b = BenchmarkAccess.threadAllocatedBytes();
+				long allocated = getAllocated(a < 0 || b < 0 ? -1 : b - a);
+				r.allocated = (allocated < 0 || r.allocated < 0 ? -1 : r.allocated + allocated);
+			}
+			return r;
+		}
+		
+		/**
+		 * Prepare for an iteration. Not included in the measured time.
+		 * @param s the session to run against.
+		 */
+		void prepare(Session s) {
+		}
+		
+		/**
+		 * Run one iteration of the benchmark.
+		 * @param s the session to run against.
+		 * @return the number of operations performed.
+		 * @throws Exception if the benchmark fails.
+		 */
+		abstract int run(Session s) throws Exception;
+	}
+	
+	/**
+	 * <p>Benchmark loading a complete session from GSD data using a <tt>DataLoader</tt> in a given mode.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private static class LoaderBenchmark extends Benchmark
+	{
+		// Loader used in the last iteration
+		private DataLoader dl;
+		// Loading mode
+		private final int mode;
+		
+		/**
+		 * Create a new loader benchmark.
+		 * @param name the name of the benchmark.
+		 * @param mode the loading mode.
+		 */
+		LoaderBenchmark(String name, int mode) {
+			super(name);
+			this.mode = mode;
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.bench.DataBenchmark.Benchmark#getAllocated(long)
+		 */
+		@Override
+		long getAllocated(long threadBytes) {
+			// Loader records allocations in all of its threads, including pipeline stages
+			return dl.getStageMetrics().getAllocatedBytes();
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.bench.DataBenchmark.Benchmark#run(uk.co.essarsoftware.ski.bench.DataBenchmark.Session)
+		 */
+		@Override
+		int run(Session s) {
+			dl = new DataLoader(new GSDParser(new ByteArrayInputStream(s.gsd), true), new SkiDataProcessor());
+			dl.setLoadMode(mode);
+			dl.run();
+			if(dl.getState() != DataLoader.STATE_COMPLETE) {
+				throw new IllegalStateException(String.format("Load did not complete (state %d)", dl.getState()));
+			}
+			return dl.getData().size();
+		}
+	}
+	
+	/**
+	 * <p>Combined result of the measured iterations of a benchmark.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	static class Result
+	{
+		// Total operations, time in nanoseconds and bytes allocated, or -1 if allocation is not measured
+		long allocated, ops, time;
+		
+		/**
+		 * Get the allocation rate.
+		 * @return the number of megabytes allocated per second.
+		 */
+		double getAllocationRate() {
+			return (time == 0 ? 0.0 : allocated * 1e9 / time / (1024.0 * 1024.0));
+		}
+		
+		/**
+		 * Get the mean allocation per operation.
+		 * @return the number of bytes allocated per operation.
+		 */
+		double getBytesPerOp() {
+			return (ops == 0 ? 0.0 : (double) allocated / ops);
+		}
+		
+		/**
+		 * Get the mean time per operation.
+		 * @return the time in nanoseconds.
+		 */
+		double getNanosPerOp() {
+			return (ops == 0 ? 0.0 : (double) time / ops);
+		}
+		
+		/**
+		 * Get the throughput.
+		 * @return the number of operations per second.
+		 */
+		double getOpsPerSecond() {
+			return (time == 0 ? 0.0 : ops * 1e9 / time);
+		}
+	}
+	
+	/**
+	 * <p>Generated session, held as GSD and CSV data and as points.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	static class Session
+	{
+		// Session data in GSD and CSV format
+		final byte[] gsd, csv;
+		// Projected points, in order
+		final Path points;
+		// Complete track of interpolated elements
+		final Track track;
+		// Coordinates of each point
+		final UTMCoordinate[] utm;
+		final WGSCoordinate[] wgs;
+		
+		/**
+		 * Generate a new session.
+		 * @param minutes the length of the session in minutes.
+		 * @param hz the number of points per second.
+		 * @param seed the random seed.
+		 * @throws IOException if the generated data cannot be parsed.
+		 */
+		Session(int minutes, int hz, long seed) throws IOException {
+			SessionGenerator gen = new SessionGenerator(seed);
+			gen.setSampleRate(hz);
+			StringWriter g = new StringWriter();
+			StringWriter c = new StringWriter();
+			gen.generate(minutes, g, c);
+			gsd = g.toString().getBytes("US-ASCII");
+			csv = c.toString().getBytes("US-ASCII");
+			
+			// Parse points back from the GSD data, so they hold the same values as loaded points
+			points = Path.read(new GSDParser(new ByteArrayInputStream(gsd), true));
+			
+			wgs = points.getCoordinates();
+			utm = new UTMCoordinate[wgs.length];
+			for(int i = 0; i < wgs.length; i ++) {
+				utm[i] = CoordConverter.WGS2UTM(wgs[i]);
+			}
+			
+			// Build a track of all elements, without aggregate values
+			track = interpolatedPath().toTrack();
+		}
+		
+		/**
+		 * Get the session as a copied path of points, with gaps filled.
+		 * @return the path.
+		 */
+		Path interpolatedPath() {
+			Path path = points.copy();
+			path.interpolate();
+			return path;
+		}
+	}
+}
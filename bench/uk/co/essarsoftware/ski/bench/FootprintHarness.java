@@ -0,0 +1,337 @@
+package uk.co.essarsoftware.ski.bench;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import uk.co.essarsoftware.ski.data.BenchmarkAccess;
+import uk.co.essarsoftware.ski.data.BenchmarkAccess.Path;
+import uk.co.essarsoftware.ski.data.DataLoader;
+import uk.co.essarsoftware.ski.data.GSDParser;
+import uk.co.essarsoftware.ski.data.GapPolicy;
+import uk.co.essarsoftware.ski.data.SkiData;
+import uk.co.essarsoftware.ski.data.SkiDataProcessor;
+import uk.co.essarsoftware.ski.data.Track;
+import uk.co.essarsoftware.ski.data.TrackBlock;
+import uk.co.essarsoftware.ski.data.TrackElement;
+import uk.co.essarsoftware.ski.data.TrackElement.Mode;
+import uk.co.essarsoftware.ski.ui.AltitudePlot;
+import uk.co.essarsoftware.ski.ui.TrackPlot;
+import uk.co.essarsoftware.ski.xyplot.XYPlot;
+
+/**
+ * <p>Harness measuring the heap retained per point by each data structure, for generated sessions of increasing
+ * length.</p>
+ * <p>Each structure is built on top of the structures it references, and the retained heap measured after garbage
+ * collection before and after building it, so each figure is the cost of that structure alone. The loaded
+ * <tt>SkiData</tt> and the plot data sets are measured in the same way. Figures are only as accurate as the
+ * collector allows, so sessions should be long and the harness run with a heap large enough to hold them.</p>
+ * <p>Results can be written to a properties file, and compared with a previous report, failing with exit status 1
+ * if any structure in the longest session exceeds its previous size by more than the threshold.</p>
+ * <p>Usage: <tt>FootprintHarness [-m minutes,...] [-o report] [-baseline report] [-threshold percent]</tt></p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class FootprintHarness
+{
+	// Default session lengths, in minutes
+	private static final String DEFAULT_MINUTES = "60,450,2250";
+	// Default regression threshold, in percent
+	private static final double DEFAULT_THRESHOLD = 10.0;
+	// Length of session measured and discarded before the report, in minutes
+	private static final int WARMUP_MINUTES = 30;
+	// Seed of generated sessions
+	private static final long SEED = 20110222L;
+	
+	// Structures measured, in order
+	static final String DATUM = "Datum";
+	static final String ELEMENT = "TrackElement";
+	static final String TRACK = "Track";
+	static final String BLOCK = "TrackBlock";
+	static final String MODE_MAP = "TrackModeMap";
+	static final String SKI_DATA = "SkiData";
+	static final String SKI_DATA_VIEWS = "SkiData.views";
+	static final String ALTITUDE_PLOT = "XYDataSet.altitude";
+	static final String TRACK_PLOT = "XYDataSet.track";
+	
+	// Structures held while measuring, so they are retained
+	private static Object held;
+	
+	/**
+	 * Get the heap in use once garbage has been collected.
+	 * @return the number of bytes in use.
+	 * @throws InterruptedException if interrupted while waiting for collection.
+	 */
+	private static long usedHeap() throws InterruptedException {
+		Runtime rt = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		for(int i = 0; i < 5; i ++) {
+			System.gc();
+			Thread.sleep(20);
+			used = Math.min(used, rt.totalMemory() - rt.freeMemory());
+		}
+		return used;
+	}
+	
+	/**
+	 * Group classified elements into tracks, splitting them as <tt>SkiDataBuilder</tt> does.
+	 * @param elems the elements, in order.
+	 * @return the tracks.
+	 */
+	private static ArrayList<Track> buildTracks(TrackElement[] elems) {
+		ArrayList<Track> tracks = new ArrayList<Track>();
+		Track t = new Track();
+		for(TrackElement e : elems) {
+			if(t.size() > 0 && (e.getGap() == GapPolicy.GAP_SPLIT || e.getMode() != t.getFirst().getMode())) {
+				tracks.add(t);
+				t = new Track();
+			}
+			BenchmarkAccess.append(t, e);
+		}
+		if(t.size() > 0) {
+			tracks.add(t);
+		}
+		return tracks;
+	}
+	
+	/**
+	 * Group tracks into blocks, starting a new block at each lift or split, as <tt>SkiDataBuilder</tt> does.
+	 * @param tracks the tracks, in order.
+	 * @return the blocks.
+	 */
+	private static ArrayList<TrackBlock> buildBlocks(ArrayList<Track> tracks) {
+		ArrayList<TrackBlock> blocks = new ArrayList<TrackBlock>();
+		TrackBlock b = new TrackBlock();
+		for(Track t : tracks) {
+			TrackElement first = t.getFirst();
+			if(b.size() > 0 && (first.getMode() == Mode.LIFT || first.getGap() == GapPolicy.GAP_SPLIT)) {
+				blocks.add(b);
+				b = new TrackBlock();
+			}
+			b.add(t);
+		}
+		if(b.size() > 0) {
+			blocks.add(b);
+		}
+		return blocks;
+	}
+	
+	/**
+	 * Build a map of elements by mode for each block, in the same way as the mode map held by a <tt>TrackBlock</tt>.
+	 * @param tracks the tracks, in order.
+	 * @return the mode maps.
+	 */
+	private static ArrayList<HashMap<Mode, Track>> buildModeMaps(ArrayList<Track> tracks) {
+		ArrayList<HashMap<Mode, Track>> maps = new ArrayList<HashMap<Mode, Track>>();
+		HashMap<Mode, Track> map = new HashMap<Mode, Track>();
+		for(Track t : tracks) {
+			TrackElement first = t.getFirst();
+			if(! map.isEmpty() && (first.getMode() == Mode.LIFT || first.getGap() == GapPolicy.GAP_SPLIT)) {
+				maps.add(map);
+				map = new HashMap<Mode, Track>();
+			}
+			for(TrackElement e : t) {
+				Track m = map.get(e.getMode());
+				if(m == null) {
+					m = new Track();
+					map.put(e.getMode(), m);
+				}
+				BenchmarkAccess.append(m, e);
+			}
+		}
+		if(! map.isEmpty()) {
+			maps.add(map);
+		}
+		return maps;
+	}
+	
+	/**
+	 * Measure the heap retained per point by each structure for a session.
+	 * @param minutes the length of the session, in minutes.
+	 * @return a map of structure names to bytes per point.
+	 * @throws Exception if the session cannot be generated or loaded.
+	 */
+	static Map<String, Double> measure(int minutes) throws Exception {
+		LinkedHashMap<String, Double> result = new LinkedHashMap<String, Double>();
+		
+		StringWriter w = new StringWriter();
+		new SessionGenerator(SEED).generate(minutes, w, null);
+		byte[] gsd = w.toString().getBytes("US-ASCII");
+		w = null;
+		
+		// Points, parsed and linked into an interpolated path
+		long base = usedHeap();
+		Path first = Path.read(new GSDParser(new ByteArrayInputStream(gsd), true));
+		int points = first.interpolate();
+		// Keep each structure strongly reachable while it is measured, as a compiled method may drop dead locals
+		held = first;
+		long used = usedHeap();
+		result.put(DATUM, (double) (used - base) / points);
+		
+		// Classified elements, held in an array measured separately
+		TrackElement[] elems = new TrackElement[points];
+		base = usedHeap();
+		int n = first.classify(elems);
+		held = new Object[] {first, elems};
+		used = usedHeap();
+		result.put(ELEMENT, (double) (used - base) / n);
+		
+		// Tracks
+		base = used;
+		ArrayList<Track> tracks = buildTracks(elems);
+		held = new Object[] {first, elems, tracks};
+		used = usedHeap();
+		result.put(TRACK, (double) (used - base) / n);
+		
+		// Blocks, including their flattened tracks and mode maps
+		base = used;
+		ArrayList<TrackBlock> blocks = buildBlocks(tracks);
+		held = new Object[] {first, elems, tracks, blocks};
+		used = usedHeap();
+		result.put(BLOCK, (double) (used - base) / n);
+		
+		// Mode maps alone
+		base = used;
+		held = new Object[] {first, elems, tracks, blocks, buildModeMaps(tracks)};
+		used = usedHeap();
+		result.put(MODE_MAP, (double) (used - base) / n);
+		held = null;
+		blocks = null;
+		tracks = null;
+		elems = null;
+		first = null;
+		
+		// Complete data set, loaded from the source
+		base = usedHeap();
+		DataLoader dl = new DataLoader(new GSDParser(new ByteArrayInputStream(gsd), true), new SkiDataProcessor());
+		dl.setLoadMode(DataLoader.LOAD_MODE_BATCH);
+		SkiData data = dl.loadData();
+		dl = null;
+		held = data;
+		used = usedHeap();
+		result.put(SKI_DATA, (double) (used - base) / data.size());
+		
+		// Views of all tracks and blocks, built on first use
+		base = used;
+		Track all = data.getAllElements();
+		data.getBlockKeys();
+		held = new Object[] {data, all};
+		used = usedHeap();
+		result.put(SKI_DATA_VIEWS, (double) (used - base) / data.size());
+		
+		// Plot data sets
+		base = used;
+		XYPlot plot = new AltitudePlot(all);
+		held = new Object[] {data, all, plot};
+		used = usedHeap();
+		result.put(ALTITUDE_PLOT, (double) (used - base) / plot.getData().size());
+		plot = null;
+		
+		held = new Object[] {data, all};
+		base = usedHeap();
+		plot = new TrackPlot(all);
+		held = new Object[] {data, all, plot};
+		used = usedHeap();
+		result.put(TRACK_PLOT, (double) (used - base) / plot.getData().size());
+		held = null;
+		
+		return result;
+	}
+	
+	/**
+	 * Measure sessions of each length, writing a report and comparing with a baseline.
+	 * @param args command line options.
+	 * @throws Exception if a session cannot be measured or a report cannot be read or written.
+	 */
+	public static void main(String[] args) throws Exception {
+		String minutes = DEFAULT_MINUTES;
+		String out = null, baseline = null;
+		double threshold = DEFAULT_THRESHOLD;
+		for(int i = 0; i < args.length - 1; i += 2) {
+			if("-m".equals(args[i])) {
+				minutes = args[i + 1];
+			} else if("-o".equals(args[i])) {
+				out = args[i + 1];
+			} else if("-baseline".equals(args[i])) {
+				baseline = args[i + 1];
+			} else if("-threshold".equals(args[i])) {
+				threshold = Double.parseDouble(args[i + 1]);
+			} else {
+				System.err.println("Usage: FootprintHarness [-m minutes,...] [-o report] [-baseline report] [-threshold percent]");
+				return;
+			}
+		}
+		
+		// Measure a short session first, so classes and caches loaded on first use are not counted
+		measure(WARMUP_MINUTES);
+		
+		// Measure each session, recording bytes per point in a report
+		Properties report = new Properties();
+		Map<String, Double> last = null;
+		String lastMinutes = null;
+		System.out.println(String.format("%-20s %8s %12s", "Structure", "Minutes", "Bytes/point"));
+		for(String m : minutes.split(",")) {
+			m = m.trim();
+			last = measure(Integer.parseInt(m));
+			lastMinutes = m;
+			for(Map.Entry<String, Double> e : last.entrySet()) {
+				System.out.println(String.format("%-20s %8s %12.1f", e.getKey(), m, e.getValue()));
+				report.setProperty(e.getKey() + "." + m, String.format(Locale.ROOT, "%.1f", e.getValue()));
+			}
+		}
+		
+		if(out != null) {
+			OutputStream os = new FileOutputStream(out);
+			try {
+				report.store(os, "Heap retained per point, by structure and session length in minutes");
+			} finally {
+				os.close();
+			}
+		}
+		
+		if(baseline != null) {
+			// Compare the longest session with the baseline
+			Properties base = new Properties();
+			InputStream is = new FileInputStream(baseline);
+			try {
+				base.load(is);
+			} finally {
+				is.close();
+			}
+			int regressions = 0;
+			for(Map.Entry<String, Double> e : last.entrySet()) {
+				String value = base.getProperty(e.getKey() + "." + lastMinutes);
+				if(value != null) {
+					double limit = Double.parseDouble(value) * (1.0 + threshold / 100.0);
+					if(e.getValue() > limit) {
+						System.err.println(String.format("REGRESSION: %s %.1f bytes/point exceeds baseline %s by more than %.0f%%", e.getKey(), e.getValue(), value, threshold));
+						regressions ++;
+					}
+				}
+			}
+			if(regressions > 0) {
+				System.exit(1);
+			}
+		}
+	}
+}
@@ -0,0 +1,333 @@
+package uk.co.essarsoftware.ski.bench;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+
+import uk.co.essarsoftware.ski.bench.DataBenchmark.Benchmark;
+import uk.co.essarsoftware.ski.bench.DataBenchmark.Result;
+import uk.co.essarsoftware.ski.bench.DataBenchmark.Session;
+import uk.co.essarsoftware.ski.data.BenchmarkAccess;
+import uk.co.essarsoftware.ski.data.Track;
+import uk.co.essarsoftware.ski.ui.AltitudePlot;
+import uk.co.essarsoftware.ski.ui.AltitudeRenderer;
+import uk.co.essarsoftware.ski.ui.ModeRenderer;
+import uk.co.essarsoftware.ski.ui.TrackPlot;
+import uk.co.essarsoftware.ski.xyplot.XYColourMap;
+import uk.co.essarsoftware.ski.xyplot.XYDataSet;
+import uk.co.essarsoftware.ski.xyplot.XYDecimator;
+import uk.co.essarsoftware.ski.xyplot.XYImage;
+import uk.co.essarsoftware.ski.xyplot.XYLines;
+import uk.co.essarsoftware.ski.xyplot.XYPlot;
+import uk.co.essarsoftware.ski.xyplot.XYPlotExporter;
+
+/**
+ * <p>Benchmarks of building and drawing plots, run from the command line on a plain JVM.</p>
+ * <p>Each stage of drawing an altitude plot and a track plot is measured separately against synthetic sessions of
+ * each requested length: building the plot data set, reducing it to the width of the image, grouping the reduced
+ * points into line segments of each colour in image coordinates as the exporter does, rasterising the plot with <tt>XYPlotExporter</tt>, and encoding the image as a PNG
+ * file. A whole frame, from the track to the PNG file, is also measured. Stages after the first are measured on a
+ * plot already built, so each figure is the cost of that stage alone. The mean time and bytes allocated per frame
+ * are reported, where the JVM can report allocations.</p>
+ * <p>Usage: <tt>PlotBenchmark [-m minutes,...] [-r hz,...] [-s width,height] [-w warmups] [-i iterations] [-b name]</tt></p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class PlotBenchmark
+{
+	// Default session lengths, in minutes, and sample rates, in points per second
+	private static final int[] DEFAULT_MINUTES = {60, 240, 960};
+	private static final int[] DEFAULT_RATES = {1};
+	// Default image size, in pixels
+	private static final int[] DEFAULT_SIZE = {800, 480};
+	// Default number of warm-up and measured iterations
+	private static final int DEFAULT_WARMUPS = 3;
+	private static final int DEFAULT_ITERATIONS = 10;
+	// Seed of generated sessions
+	private static final long SEED = 20110222L;
+	
+	// Stream discarding encoded images
+	private static final OutputStream DISCARD = new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	};
+	
+	// Session lengths and sample rates to run
+	private int[] minutes, rates;
+	// Image size
+	private int width, height;
+	// Number of warm-up and measured iterations
+	private int warmups, iterations;
+	// Benchmark name filter, or null to run all
+	private String filter;
+	
+	/**
+	 * Create a new benchmark run with the default parameters.
+	 */
+	PlotBenchmark() {
+		minutes = DEFAULT_MINUTES;
+		rates = DEFAULT_RATES;
+		width = DEFAULT_SIZE[0];
+		height = DEFAULT_SIZE[1];
+		warmups = DEFAULT_WARMUPS;
+		iterations = DEFAULT_ITERATIONS;
+	}
+	
+	/**
+	 * Create the benchmarks of each stage of drawing a type of plot.
+	 * @param benchmarks the list to add the benchmarks to.
+	 * @param stages the plot to benchmark.
+	 */
+	private void addBenchmarks(ArrayList<Benchmark> benchmarks, final PlotStages stages) {
+		benchmarks.add(new Benchmark(stages.name + ".build") {
+			int run(Session s) {
+				DataBenchmark.sink += stages.createPlot(s.track).getData().size();
+				return 1;
+			}
+		});
+		benchmarks.add(new Benchmark(stages.name + ".decimate") {
+			int run(Session s) {
+				DataBenchmark.sink += stages.decimate(stages.plot.getData(), width).size();
+				return 1;
+			}
+		});
+		benchmarks.add(new Benchmark(stages.name + ".transform") {
+			int run(Session s) {
+				DataBenchmark.sink += new XYLines(stages.plot, 0, stages.reduced, stages.colours[0], stages.mapping).getSegmentCount();
+				return 1;
+			}
+		});
+		benchmarks.add(new Benchmark(stages.name + ".rasterize") {
+			int run(Session s) {
+				DataBenchmark.sink += stages.exporter.render(stages.plot, stages.colours).getPixel(0, 0);
+				return 1;
+			}
+		});
+		benchmarks.add(new Benchmark(stages.name + ".png") {
+			int run(Session s) throws IOException {
+				stages.image.writePNG(DISCARD);
+				return 1;
+			}
+		});
+		benchmarks.add(new Benchmark(stages.name + ".frame") {
+			int run(Session s) throws IOException {
+				stages.exporter.writePNG(stages.createPlot(s.track), stages.createColours(s.track), DISCARD);
+				return 1;
+			}
+		});
+	}
+	
+	/**
+	 * Run all benchmarks matching the filter against each session, writing results to standard output.
+	 * @throws Exception if a benchmark fails.
+	 */
+	void runAll() throws Exception {
+		System.out.println(String.format("%-24s %6s %4s %10s %12s %12s", "Benchmark", "Mins", "Hz", "Points", "ms/frame", "KB/frame"));
+		for(int m : minutes) {
+			for(int hz : rates) {
+				Session s = new Session(m, hz, SEED);
+				// Renderers read the aggregate values of the track, which the generated track does not hold
+				BenchmarkAccess.calcAggregates(s.track);
+				
+				ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+				addBenchmarks(benchmarks, new AltitudeStages(s.track));
+				addBenchmarks(benchmarks, new TrackStages(s.track));
+				for(Benchmark b : benchmarks) {
+					if(filter == null || b.name.contains(filter)) {
+						Result r = b.measure(s, warmups, iterations);
+						System.out.println(String.format("%-24s %6d %4d %10d %12.3f %12s", b.name, m, hz, s.track.size(), r.getNanosPerOp() / 1e6, (r.allocated < 0 ? "n/a" : String.format("%,.1f", r.getBytesPerOp() / 1024.0))));
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Run the benchmarks.
+	 * @param args command line options.
+	 * @throws Exception if a benchmark fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		PlotBenchmark pb = new PlotBenchmark();
+		for(int i = 0; i < args.length - 1; i += 2) {
+			if("-m".equals(args[i])) {
+				pb.minutes = DataBenchmark.parseList(args[i + 1]);
+			} else if("-r".equals(args[i])) {
+				pb.rates = DataBenchmark.parseList(args[i + 1]);
+			} else if("-s".equals(args[i])) {
+				int[] size = DataBenchmark.parseList(args[i + 1]);
+				if(size.length != 2) {
+					throw new IllegalArgumentException("Size must be width,height (" + args[i + 1] + ")");
+				}
+				pb.width = size[0];
+				pb.height = size[1];
+			} else if("-w".equals(args[i])) {
+				pb.warmups = Integer.parseInt(args[i + 1]);
+			} else if("-i".equals(args[i])) {
+				pb.iterations = Math.max(1, Integer.parseInt(args[i + 1]));
+			} else if("-b".equals(args[i])) {
+				pb.filter = args[i + 1];
+			} else {
+				System.err.println("Usage: PlotBenchmark [-m minutes,...] [-r hz,...] [-s width,height] [-w warmups] [-i iterations] [-b name]");
+				return;
+			}
+		}
+		pb.runAll();
+	}
+	
+	/**
+	 * <p>A type of plot, with the plot, reduced data, colours and image of a session built once, so each stage can be
+	 * measured on its own.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private abstract class PlotStages
+	{
+		// Name of the plot type
+		final String name;
+		// Exporter drawing each image
+		final XYPlotExporter exporter;
+		// Plot of the session, reduced data, colours, mapping to the image and drawn image
+		XYPlot plot;
+		XYDataSet reduced;
+		XYColourMap[] colours;
+		XYLines.Mapping mapping;
+		XYImage image;
+		
+		/**
+		 * Build the plot of a session, and each stage of drawing it once.
+		 * @param name the name of the plot type.
+		 * @param track the track of the session.
+		 */
+		PlotStages(String name, Track track) {
+			this.name = name;
+			exporter = new XYPlotExporter(width, height);
+			plot = createPlot(track);
+			reduced = decimate(plot.getData(), width);
+			colours = createColours(track);
+			mapping = exporter.getMapping(plot);
+			image = exporter.render(plot, colours);
+		}
+		
+		/**
+		 * Create the colour maps of each series of the plot.
+		 * @param track the track of the session.
+		 * @return the colour maps.
+		 */
+		abstract XYColourMap[] createColours(Track track);
+		
+		/**
+		 * Create the plot.
+		 * @param track the track of the session.
+		 * @return the plot.
+		 */
+		abstract XYPlot createPlot(Track track);
+		
+		/**
+		 * Reduce the plot data set as the plot reduces it.
+		 * @param data the data set.
+		 * @param pixels the number of pixels the x-axis is drawn across.
+		 * @return the reduced data set.
+		 */
+		abstract XYDataSet decimate(XYDataSet data, int pixels);
+	}
+	
+	/**
+	 * <p>Stages of drawing an altitude plot, coloured by altitude.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class AltitudeStages extends PlotStages
+	{
+		/**
+		 * Build the altitude plot of a session.
+		 * @param track the track of the session.
+		 */
+		AltitudeStages(Track track) {
+			super("AltitudePlot", track);
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.bench.PlotBenchmark.PlotStages#createColours(uk.co.essarsoftware.ski.data.Track)
+		 */
+		@Override
+		XYColourMap[] createColours(Track track) {
+			return new XYColourMap[] {new AltitudeRenderer(track)};
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.bench.PlotBenchmark.PlotStages#createPlot(uk.co.essarsoftware.ski.data.Track)
+		 */
+		@Override
+		XYPlot createPlot(Track track) {
+			return new AltitudePlot(track);
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.bench.PlotBenchmark.PlotStages#decimate(uk.co.essarsoftware.ski.xyplot.XYDataSet, int)
+		 */
+		@Override
+		XYDataSet decimate(XYDataSet data, int pixels) {
+			return XYDecimator.minMax(data, pixels);
+		}
+	}
+	
+	/**
+	 * <p>Stages of drawing a track plot, coloured by mode.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class TrackStages extends PlotStages
+	{
+		/**
+		 * Build the track plot of a session.
+		 * @param track the track of the session.
+		 */
+		TrackStages(Track track) {
+			super("TrackPlot", track);
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.bench.PlotBenchmark.PlotStages#createColours(uk.co.essarsoftware.ski.data.Track)
+		 */
+		@Override
+		XYColourMap[] createColours(Track track) {
+			return new XYColourMap[] {new ModeRenderer()};
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.bench.PlotBenchmark.PlotStages#createPlot(uk.co.essarsoftware.ski.data.Track)
+		 */
+		@Override
+		XYPlot createPlot(Track track) {
+			return new TrackPlot(track);
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.bench.PlotBenchmark.PlotStages#decimate(uk.co.essarsoftware.ski.xyplot.XYDataSet, int)
+		 */
+		@Override
+		XYDataSet decimate(XYDataSet data, int pixels) {
+			return XYDecimator.douglasPeucker(data, pixels);
+		}
+	}
+}
@@ -0,0 +1,362 @@
+package uk.co.essarsoftware.ski.bench;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import uk.co.essarsoftware.ski.data.CSVParser;
+import uk.co.essarsoftware.ski.data.DataLoader;
+import uk.co.essarsoftware.ski.data.DataParser;
+import uk.co.essarsoftware.ski.data.GSDParser;
+import uk.co.essarsoftware.ski.data.SkiData;
+import uk.co.essarsoftware.ski.data.SkiDataProcessor;
+
+/**
+ * <p>Benchmark of full ingest, reporting how throughput scales with the number of threads, the size of each file
+ * and the file format.</p>
+ * <p>For each format and session length, a set of files is generated on disk with <tt>SessionGenerator</tt>. The
+ * set is then loaded with each number of threads, each file by its own <tt>DataLoader</tt> as in
+ * <tt>SeasonIngest</tt>. Each run reports the points loaded per second, the median and 99th percentile time to
+ * load a file, and the peak heap in use while loading, as a line of CSV.</p>
+ * <p>Usage: <tt>ScalabilityBenchmark [-t threads,...] [-m minutes,...] [-f gsd,csv] [-n files] [-l batch|pipelined|streaming] [-w warmups] [-o file]</tt></p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class ScalabilityBenchmark
+{
+	// Default session lengths, in minutes
+	private static final int[] DEFAULT_MINUTES = {60, SessionGenerator.MINUTES_PER_DAY};
+	// Default number of files in each run
+	private static final int DEFAULT_FILES = 16;
+	// Default number of warm-up runs
+	private static final int DEFAULT_WARMUPS = 1;
+	// Interval between heap samples, in milliseconds
+	private static final long HEAP_SAMPLE_INTERVAL = 5;
+	// Seed of the first generated file
+	private static final long SEED = 20110222L;
+	
+	// Thread counts and session lengths to run
+	private int[] threads, minutes;
+	// Formats to run
+	private String[] formats;
+	// Number of files in each run, and warm-up runs before each set is measured
+	private int files, warmups;
+	// Load mode of each loader
+	private int loadMode;
+	
+	/**
+	 * Create a new benchmark run with the default parameters.
+	 */
+	ScalabilityBenchmark() {
+		threads = defaultThreads();
+		minutes = DEFAULT_MINUTES;
+		formats = new String[] {"gsd", "csv"};
+		files = DEFAULT_FILES;
+		warmups = DEFAULT_WARMUPS;
+		loadMode = DataLoader.LOAD_MODE_STREAMING;
+	}
+	
+	/**
+	 * Get the default thread counts, doubling from one up to the number of processors.
+	 * @return the thread counts.
+	 */
+	private static int[] defaultThreads() {
+		int cpus = Runtime.getRuntime().availableProcessors();
+		ArrayList<Integer> list = new ArrayList<Integer>();
+		for(int t = 1; t < cpus; t *= 2) {
+			list.add(t);
+		}
+		list.add(cpus);
+		int[] values = new int[list.size()];
+		for(int i = 0; i < values.length; i ++) {
+			values[i] = list.get(i);
+		}
+		return values;
+	}
+	
+	/**
+	 * Generate a set of files in a directory.
+	 * @param dir the directory to write to.
+	 * @param format the format of the files, either gsd or csv.
+	 * @param mins the length of each session, in minutes.
+	 * @return the files generated.
+	 * @throws IOException if a file cannot be written.
+	 */
+	private File[] generate(File dir, String format, int mins) throws IOException {
+		File[] set = new File[files];
+		for(int i = 0; i < files; i ++) {
+			set[i] = new File(dir, String.format("%s-%d-%d.%s", format, mins, i, format));
+			FileWriter fw = new FileWriter(set[i]);
+			try {
+				// Vary the seed so each file holds a different session
+				SessionGenerator gen = new SessionGenerator(SEED + i);
+				gen.generate(mins, ("gsd".equals(format) ? fw : null), ("csv".equals(format) ? fw : null));
+			} finally {
+				fw.close();
+			}
+		}
+		return set;
+	}
+	
+	/**
+	 * Get a percentile of a sorted set of values, using the nearest rank.
+	 * @param sorted the values, in ascending order.
+	 * @param p the percentile, from 0 to 100.
+	 * @return the value at the percentile.
+	 */
+	private static long percentile(long[] sorted, double p) {
+		int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+		return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+	}
+	
+	/**
+	 * Load a set of files with a number of threads, and measure the throughput, latency and heap.
+	 * @param set the files to load.
+	 * @param nThreads the number of threads to load with.
+	 * @return the result of the run.
+	 * @throws Exception if a file fails to load.
+	 */
+	Result run(File[] set, int nThreads) throws Exception {
+		System.gc();
+		HeapSampler sampler = new HeapSampler();
+		sampler.start();
+		
+		ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+		Result r = new Result();
+		try {
+			long start = System.nanoTime();
+			ArrayList<Future<long[]>> futures = new ArrayList<Future<long[]>>();
+			for(File f : set) {
+				futures.add(pool.submit(new FileLoad(f)));
+			}
+			r.latencies = new long[set.length];
+			for(int i = 0; i < set.length; i ++) {
+				long[] load = futures.get(i).get();
+				r.points += load[0];
+				r.latencies[i] = load[1];
+			}
+			r.elapsed = System.nanoTime() - start;
+		} finally {
+			pool.shutdownNow();
+			r.peakHeap = sampler.finish();
+		}
+		Arrays.sort(r.latencies);
+		return r;
+	}
+	
+	/**
+	 * Run each combination of format, session length and thread count, writing results as CSV.
+	 * @param out the stream to write results to.
+	 * @throws Exception if the files cannot be generated or loaded.
+	 */
+	void runAll(PrintStream out) throws Exception {
+		File dir = File.createTempFile("scalability", "");
+		if(! dir.delete() || ! dir.mkdir()) {
+			throw new IOException("Unable to create directory " + dir);
+		}
+		try {
+			out.println("format,minutes,threads,files,points,seconds,points_per_sec,p50_ms,p99_ms,peak_heap_mb");
+			for(String format : formats) {
+				for(int mins : minutes) {
+					File[] set = generate(dir, format, mins);
+					for(int i = 0; i < warmups; i ++) {
+						run(set, threads[threads.length - 1]);
+					}
+					for(int t : threads) {
+						Result r = run(set, t);
+						out.println(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.3f,%.0f,%.1f,%.1f,%.1f", format, mins, t, set.length, r.points, r.elapsed / 1e9, r.points / (r.elapsed / 1e9), percentile(r.latencies, 50) / 1e6, percentile(r.latencies, 99) / 1e6, r.peakHeap / 1048576.0));
+						out.flush();
+					}
+					for(File f : set) {
+						f.delete();
+					}
+				}
+			}
+		} finally {
+			dir.delete();
+		}
+	}
+	
+	/**
+	 * Run the benchmark.
+	 * @param args command line options.
+	 * @throws Exception if the benchmark fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		ScalabilityBenchmark sb = new ScalabilityBenchmark();
+		String out = null;
+		for(int i = 0; i < args.length - 1; i += 2) {
+			if("-t".equals(args[i])) {
+				sb.threads = DataBenchmark.parseList(args[i + 1]);
+			} else if("-m".equals(args[i])) {
+				sb.minutes = DataBenchmark.parseList(args[i + 1]);
+			} else if("-f".equals(args[i])) {
+				sb.formats = args[i + 1].toLowerCase().split(",");
+			} else if("-n".equals(args[i])) {
+				sb.files = Math.max(1, Integer.parseInt(args[i + 1]));
+			} else if("-l".equals(args[i])) {
+				String mode = args[i + 1].toLowerCase();
+				sb.loadMode = ("batch".equals(mode) ? DataLoader.LOAD_MODE_BATCH : ("pipelined".equals(mode) ? DataLoader.LOAD_MODE_PIPELINED : DataLoader.LOAD_MODE_STREAMING));
+			} else if("-w".equals(args[i])) {
+				sb.warmups = Integer.parseInt(args[i + 1]);
+			} else if("-o".equals(args[i])) {
+				out = args[i + 1];
+			} else {
+				System.err.println("Usage: ScalabilityBenchmark [-t threads,...] [-m minutes,...] [-f gsd,csv] [-n files] [-l batch|pipelined|streaming] [-w warmups] [-o file]");
+				return;
+			}
+		}
+		for(String format : sb.formats) {
+			if(! "gsd".equals(format) && ! "csv".equals(format)) {
+				throw new IllegalArgumentException("Unknown format: " + format);
+			}
+		}
+		
+		PrintStream ps = (out == null ? System.out : new PrintStream(out));
+		try {
+			sb.runAll(ps);
+		} finally {
+			if(ps != System.out) {
+				ps.close();
+			}
+		}
+	}
+	
+	/**
+	 * <p>Task that loads a single file, returning the number of points loaded and the time taken.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class FileLoad implements Callable<long[]>
+	{
+		// File to load
+		private final File file;
+		
+		/**
+		 * Create a new file load task.
+		 * @param file the file to load.
+		 */
+		FileLoad(File file) {
+			this.file = file;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		public long[] call() throws Exception {
+			long start = System.nanoTime();
+			InputStream is = new BufferedInputStream(new FileInputStream(file));
+			try {
+				DataParser parser = (file.getName().endsWith(".csv") ? new CSVParser(is) : new GSDParser(is, true));
+				DataLoader loader = new DataLoader(parser, new SkiDataProcessor());
+				loader.setLoadMode(loadMode);
+				loader.run();
+				if(loader.getError() != null) {
+					throw loader.getError();
+				}
+				SkiData data = loader.getData();
+				return new long[] {(data == null ? 0 : data.size()), System.nanoTime() - start};
+			} finally {
+				is.close();
+			}
+		}
+	}
+	
+	/**
+	 * <p>Thread sampling the heap in use, recording the highest value seen.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private static class HeapSampler extends Thread
+	{
+		// Highest heap in use, in bytes
+		private long peak;
+		// Indicating if sampling should stop
+		private volatile boolean stopped;
+		
+		/**
+		 * Create a new heap sampler.
+		 */
+		HeapSampler() {
+			super("HeapSampler");
+			setDaemon(true);
+		}
+		
+		/**
+		 * Stop sampling, taking a final sample.
+		 * @return the highest heap in use while sampling, in bytes.
+		 * @throws InterruptedException if interrupted while waiting for the sampler to stop.
+		 */
+		long finish() throws InterruptedException {
+			stopped = true;
+			join();
+			sample();
+			return peak;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Thread#run()
+		 */
+		@Override
+		public void run() {
+			while(! stopped) {
+				sample();
+				try {
+					Thread.sleep(HEAP_SAMPLE_INTERVAL);
+				} catch(InterruptedException ie) {
+					return;
+				}
+			}
+		}
+		
+		/**
+		 * Take a sample of the heap in use.
+		 */
+		private void sample() {
+			Runtime rt = Runtime.getRuntime();
+			peak = Math.max(peak, rt.totalMemory() - rt.freeMemory());
+		}
+	}
+	
+	/**
+	 * <p>Result of loading a set of files.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	static class Result
+	{
+		// Total time, in nanoseconds
+		long elapsed;
+		// Time to load each file, in nanoseconds, in ascending order
+		long[] latencies;
+		// Highest heap in use, in bytes
+		long peakHeap;
+		// Total points loaded
+		long points;
+	}
+}
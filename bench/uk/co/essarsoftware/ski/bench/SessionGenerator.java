@@ -0,0 +1,425 @@
+package uk.co.essarsoftware.ski.bench;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Calendar;
+import java.util.Random;
+
+import uk.co.essarsoftware.ski.geo.CoordConverter;
+import uk.co.essarsoftware.ski.geo.UTMCoordinate;
+import uk.co.essarsoftware.ski.geo.WGSCoordinate;
+
+/**
+ * <p>Generator of synthetic ski sessions in GSD and CSV format, for testing and benchmarking.</p>
+ * <p>Each day of the session is logged from 09:00 to 16:30, cycling between waiting at the bottom of a lift, riding
+ * the lift and skiing back down, with a lunch stop around midday. The generator also simulates loss of GPS signal,
+ * leaving gaps in the data, and duplicated records. Sessions longer than one day continue on the following days,
+ * so a whole season can be generated. Output depends only on the seed and settings, so the same session can be
+ * generated again.</p>
+ * <p>Both formats record time to the second, so at sample rates above 1Hz consecutive records share a time stamp.
+ * CSV output uses the column layout of the default <tt>CSVParser</tt> configuration.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class SessionGenerator
+{
+	/** Maximum sample rate, in points per second. */
+	public static final int MAX_SAMPLE_RATE = 10;
+	/** Number of minutes logged each day. */
+	public static final int MINUTES_PER_DAY = 450;
+	
+	// Time logging starts each day, in seconds after midnight
+	private static final int DAY_START = 9 * 60 * 60;
+	// Earliest time lunch starts, in seconds after midnight
+	private static final int LUNCH_START = 12 * 60 * 60;
+	// Resort location and altitude range, in metres
+	private static final double RESORT_LAT = 45.3, RESORT_LON = 6.6;
+	private static final int VALLEY = 1300, PEAK = 2900;
+	// Metres per degree of latitude
+	private static final double METRES_PER_DEGREE = 111320.0;
+	
+	// Activities
+	private static final int WAIT = 0, LIFT = 1, SKI = 2, PAUSE = 3, LUNCH = 4;
+	
+	// Probability of a signal dropout starting, per minute
+	private float dropoutRate;
+	// Probability of a record being duplicated
+	private float duplicateRate;
+	// Number of points per second
+	private int sampleRate;
+	// First day of the session
+	private final Calendar startDate;
+	
+	// Random number generator
+	private final Random rnd;
+	
+	// Current activity and number of samples until it ends
+	private int activity, remaining;
+	// Samples until signal returns
+	private int dropout;
+	// Indicating if lunch has been taken today
+	private boolean lunched;
+	// Position, altitude in metres, heading in radians and horizontal speed in metres per second
+	private double la, lo, alt, heading, speed;
+	// Altitude at the end of the current lift or run, and gradient of the current run
+	private double target, gradient;
+	
+	/**
+	 * Create a new generator using the default settings: 1Hz, one dropout every 30 minutes, one duplicate in 500
+	 * records, starting on 22 February 2011.
+	 * @param seed the random seed.
+	 */
+	public SessionGenerator(long seed) {
+		rnd = new Random(seed);
+		sampleRate = 1;
+		dropoutRate = 1.0f / 30.0f;
+		duplicateRate = 1.0f / 500.0f;
+		startDate = Calendar.getInstance();
+		startDate.clear();
+		startDate.set(2011, Calendar.FEBRUARY, 22);
+	}
+	
+	/**
+	 * Append an integer to a buffer, padded with leading zeros.
+	 * @param sb the buffer to append to.
+	 * @param value the value to append.
+	 * @param digits the minimum number of digits.
+	 */
+	private static void pad(StringBuilder sb, int value, int digits) {
+		for(int limit = 10; digits > 1; limit *= 10, digits --) {
+			if(value < limit) {
+				sb.append('0');
+			}
+		}
+		sb.append(value);
+	}
+	
+	/**
+	 * Write a record in each format.
+	 * @param gsd the GSD writer, or null.
+	 * @param csv the CSV writer, or null.
+	 * @param n the record number within the day.
+	 * @param day the day of the record.
+	 * @param sec the time of the record, in seconds after midnight.
+	 * @param ms the fraction of a second of the record, in milliseconds, written only at rates above one per second.
+	 * @param gsdRec buffer to build the GSD record in.
+	 * @param csvRec buffer to build the CSV record in.
+	 * @throws IOException if an error occurs writing the record.
+	 */
+	private void writeRecord(Writer gsd, Writer csv, int n, Calendar day, int sec, int ms, StringBuilder gsdRec, StringBuilder csvRec) throws IOException {
+		int hh = sec / 3600, mm = (sec / 60) % 60, ss = sec % 60;
+		int dd = day.get(Calendar.DAY_OF_MONTH), mo = day.get(Calendar.MONTH) + 1, yy = day.get(Calendar.YEAR);
+		float kph = (float) (speed * 3.6);
+		
+		if(gsd != null) {
+			// Degrees and minutes, with minutes to four decimal places
+			int latD = (int) la, lonD = (int) lo;
+			gsdRec.setLength(0);
+			gsdRec.append(n).append('=');
+			gsdRec.append(latD * 1000000 + (int) Math.round((la - latD) * 600000.0)).append(',');
+			gsdRec.append(lonD * 1000000 + (int) Math.round((lo - lonD) * 600000.0)).append(',');
+			gsdRec.append(hh * 10000 + mm * 100 + ss);
+			if(sampleRate > 1) {
+				gsdRec.append('.');
+				pad(gsdRec, ms, 3);
+			}
+			gsdRec.append(',');
+			gsdRec.append(dd * 10000 + mo * 100 + yy % 100).append(',');
+			gsdRec.append(Math.round(kph * 100.0f)).append(',');
+			gsdRec.append(Math.round(alt) * 10000).append("\r\n");
+			gsd.write(gsdRec.toString());
+		}
+		if(csv != null) {
+			UTMCoordinate utm = CoordConverter.WGS2UTM(new WGSCoordinate((float) la, (float) lo, WGSCoordinate.COORD_MODE_DEG));
+			csvRec.setLength(0);
+			csvRec.append(n).append(',');
+			pad(csvRec, dd, 2);
+			csvRec.append('-');
+			pad(csvRec, mo, 2);
+			csvRec.append('-').append(yy).append(',');
+			pad(csvRec, hh, 2);
+			csvRec.append(':');
+			pad(csvRec, mm, 2);
+			csvRec.append(':');
+			pad(csvRec, ss, 2);
+			if(sampleRate > 1) {
+				csvRec.append('.');
+				pad(csvRec, ms, 3);
+			}
+			csvRec.append(",,,,");
+			csvRec.append((float) la).append(',').append((float) lo).append(',');
+			csvRec.append(Math.round(alt)).append(',').append(Math.round(kph * 100.0f) / 100.0f).append(',');
+			csvRec.append(utm.getX()).append(',').append(utm.getY()).append('\n');
+			csv.write(csvRec.toString());
+		}
+	}
+	
+	/**
+	 * Start the next activity, following the current activity.
+	 * @param sec the current time, in seconds after midnight.
+	 */
+	private void nextActivity(int sec) {
+		switch(activity) {
+			case WAIT:
+				// Ride a lift in a new direction
+				activity = LIFT;
+				target = Math.min(PEAK, alt + 300 + rnd.nextInt(500));
+				speed = 4.0 + rnd.nextDouble();
+				heading = rnd.nextDouble() * 2.0 * Math.PI;
+				remaining = (int) ((target - alt) / (speed * 0.45)) * sampleRate + 1;
+				break;
+			case LIFT:
+			case PAUSE:
+				if(activity == LIFT) {
+					// Ski back down, ending at the bottom of a lift
+					target = Math.max(VALLEY, alt - 300 - rnd.nextInt(700));
+					gradient = 0.15 + rnd.nextDouble() * 0.2;
+					heading += Math.PI;
+				}
+				activity = SKI;
+				speed = 6.0 + rnd.nextDouble() * 6.0;
+				remaining = Integer.MAX_VALUE;
+				break;
+			default:
+				// End of a run, or of lunch
+				if(! lunched && sec >= LUNCH_START) {
+					// Stop for lunch
+					lunched = true;
+					activity = LUNCH;
+					speed = 0.0;
+					remaining = (45 + rnd.nextInt(30)) * 60 * sampleRate;
+					
+					// Indoors, so no signal for most of lunch
+					dropout = remaining - 60 * sampleRate;
+				} else {
+					// Queue for the next lift
+					activity = WAIT;
+					speed = 0.0;
+					remaining = (30 + rnd.nextInt(270)) * sampleRate;
+				}
+		}
+	}
+	
+	/**
+	 * Move forward by one sample.
+	 * @param sec the current time, in seconds after midnight.
+	 */
+	private void step(int sec) {
+		if(remaining -- <= 0) {
+			nextActivity(sec);
+		}
+		double dt = 1.0 / sampleRate;
+		switch(activity) {
+			case LIFT:
+				alt = Math.min(target, alt + speed * 0.45 * dt);
+				break;
+			case SKI:
+				// Vary speed and turn from side to side
+				speed = Math.max(3.0, Math.min(17.0, speed + (rnd.nextDouble() - 0.5) * dt * 2.0));
+				heading += Math.sin(sec * 0.4) * 0.05 * dt;
+				alt -= speed * gradient * dt;
+				if(alt <= target) {
+					// Reached the bottom of the run
+					alt = target;
+					remaining = 0;
+				} else if(rnd.nextDouble() < dt / 300.0) {
+					// Stop part way down
+					activity = PAUSE;
+					speed = 0.0;
+					remaining = (10 + rnd.nextInt(50)) * sampleRate;
+				}
+				break;
+			default:
+				// Stationary, with small GPS drift
+				speed = (rnd.nextDouble() < 0.1 ? rnd.nextDouble() * 0.3 : 0.0);
+		}
+		la += speed * dt * Math.cos(heading) / METRES_PER_DEGREE;
+		lo += speed * dt * Math.sin(heading) / (METRES_PER_DEGREE * Math.cos(Math.toRadians(la)));
+		
+		if(dropout > 0) {
+			dropout --;
+		} else if(rnd.nextDouble() < dropoutRate / (60.0 * sampleRate)) {
+			// Lose signal, usually for less than a minute
+			dropout = (rnd.nextInt(10) == 0 ? 90 + rnd.nextInt(300) : 2 + rnd.nextInt(45)) * sampleRate;
+		}
+	}
+	
+	/**
+	 * Generate a session, writing it in either or both formats.
+	 * @param minutes the number of minutes to log. Sessions longer than <tt>MINUTES_PER_DAY</tt> continue on the
+	 * following days.
+	 * @param gsd the writer to write GSD data to, or null.
+	 * @param csv the writer to write CSV data to, or null.
+	 * @return the number of records written.
+	 * @throws IOException if an error occurs writing the data.
+	 */
+	public int generate(int minutes, Writer gsd, Writer csv) throws IOException {
+		// Validate minutes input
+		if(minutes < 1) {
+			throw new IllegalArgumentException("Minutes must be greater than zero");
+		}
+		int days = (minutes + MINUTES_PER_DAY - 1) / MINUTES_PER_DAY;
+		
+		if(gsd != null) {
+			// Write headers, with a track point block for each day
+			gsd.write("[HEADER]\r\nGENERATOR=SessionGenerator\r\nSAMPLE_RATE=" + sampleRate + "\r\n\r\n[TP]\r\n");
+			for(int i = 1; i <= days; i ++) {
+				gsd.write(i + "=TP" + i + "\r\n");
+			}
+		}
+		if(csv != null) {
+			csv.write("# n,date,time,,,,lat,long,alt,speed,x,y\n");
+		}
+		
+		// Start at the bottom of a lift
+		la = RESORT_LAT;
+		lo = RESORT_LON;
+		alt = VALLEY;
+		
+		StringBuilder gsdRec = new StringBuilder(64);
+		StringBuilder csvRec = new StringBuilder(96);
+		Calendar day = (Calendar) startDate.clone();
+		int count = 0;
+		for(int d = 1; d <= days; d ++) {
+			if(gsd != null) {
+				gsd.write("\r\n[TP" + d + "]\r\n");
+			}
+			
+			// Start each day queueing for a lift, with signal
+			activity = SKI;
+			remaining = 0;
+			dropout = 0;
+			lunched = false;
+			int samples = Math.min(minutes - (d - 1) * MINUTES_PER_DAY, MINUTES_PER_DAY) * 60 * sampleRate;
+			int n = 0;
+			for(int i = 0; i < samples; i ++) {
+				int sec = DAY_START + i / sampleRate;
+				int ms = (i % sampleRate) * 1000 / sampleRate;
+				step(sec);
+				if(dropout == 0) {
+					writeRecord(gsd, csv, ++ n, day, sec, ms, gsdRec, csvRec);
+					count ++;
+					if(rnd.nextFloat() < duplicateRate) {
+						// Logger repeated the record
+						writeRecord(gsd, csv, ++ n, day, sec, ms, gsdRec, csvRec);
+						count ++;
+					}
+				}
+			}
+			day.add(Calendar.DAY_OF_MONTH, 1);
+			
+			// Overnight at the bottom of the resort
+			alt = VALLEY;
+		}
+		return count;
+	}
+	
+	/**
+	 * Set the probability of a record being duplicated.
+	 * @param duplicateRate the probability, from zero to one.
+	 */
+	public void setDuplicateRate(float duplicateRate) {
+		// Validate rate input
+		if(duplicateRate < 0.0f || duplicateRate > 1.0f) {
+			throw new IllegalArgumentException(String.format("Duplicate rate must be between zero and one (%f)", duplicateRate));
+		}
+		this.duplicateRate = duplicateRate;
+	}
+	
+	/**
+	 * Set the rate at which the GPS signal is lost. Most dropouts are short enough to be interpolated, but some
+	 * last for several minutes, and the signal is lost for most of lunch.
+	 * @param dropoutRate the probability of a dropout starting, per minute.
+	 */
+	public void setDropoutRate(float dropoutRate) {
+		// Validate rate input
+		if(dropoutRate < 0.0f) {
+			throw new IllegalArgumentException("Dropout rate cannot be less than zero");
+		}
+		this.dropoutRate = dropoutRate;
+	}
+	
+	/**
+	 * Set the number of points logged per second.
+	 * @param sampleRate the sample rate, from 1 to <tt>MAX_SAMPLE_RATE</tt>.
+	 */
+	public void setSampleRate(int sampleRate) {
+		// Validate rate input
+		if(sampleRate < 1 || sampleRate > MAX_SAMPLE_RATE) {
+			throw new IllegalArgumentException(String.format("Sample rate must be between 1 and %d (%d)", MAX_SAMPLE_RATE, sampleRate));
+		}
+		this.sampleRate = sampleRate;
+	}
+	
+	/**
+	 * Set the first day of the session.
+	 * @param year the year.
+	 * @param month the month, from 1 to 12.
+	 * @param dayOfMonth the day of the month.
+	 */
+	public void setStartDate(int year, int month, int dayOfMonth) {
+		startDate.clear();
+		startDate.set(year, month - 1, dayOfMonth);
+	}
+	
+	/**
+	 * Generate a session to files.
+	 * <p>Usage: <tt>SessionGenerator [-m minutes | -d days] [-r hz] [-s seed] [-gsd file] [-csv file]</tt></p>
+	 * @param args command line options.
+	 * @throws IOException if an error occurs writing the files.
+	 */
+	public static void main(String[] args) throws IOException {
+		int minutes = MINUTES_PER_DAY;
+		int hz = 1;
+		long seed = 0;
+		String gsdFile = null, csvFile = null;
+		for(int i = 0; i < args.length - 1; i += 2) {
+			if("-m".equals(args[i])) {
+				minutes = Integer.parseInt(args[i + 1]);
+			} else if("-d".equals(args[i])) {
+				minutes = Integer.parseInt(args[i + 1]) * MINUTES_PER_DAY;
+			} else if("-r".equals(args[i])) {
+				hz = Integer.parseInt(args[i + 1]);
+			} else if("-s".equals(args[i])) {
+				seed = Long.parseLong(args[i + 1]);
+			} else if("-gsd".equals(args[i])) {
+				gsdFile = args[i + 1];
+			} else if("-csv".equals(args[i])) {
+				csvFile = args[i + 1];
+			}
+		}
+		if(gsdFile == null && csvFile == null) {
+			System.err.println("Usage: SessionGenerator [-m minutes | -d days] [-r hz] [-s seed] [-gsd file] [-csv file]");
+			return;
+		}
+		
+		SessionGenerator gen = new SessionGenerator(seed);
+		gen.setSampleRate(hz);
+		Writer gsd = (gsdFile == null ? null : new BufferedWriter(new FileWriter(gsdFile), 65536));
+		Writer csv = (csvFile == null ? null : new BufferedWriter(new FileWriter(csvFile), 65536));
+		try {
+			int count = gen.generate(minutes, gsd, csv);
+			System.out.println(String.format("%,d records generated", count));
+		} finally {
+			if(gsd != null) {
+				gsd.close();
+			}
+			if(csv != null) {
+				csv.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.IOException;
+
+import uk.co.essarsoftware.ski.data.TrackElement.Mode;
+import uk.co.essarsoftware.ski.geo.WGSCoordinate;
+
+/**
+ * <p>Access for the benchmark harnesses to the parts of the data package they measure that are not public.</p>
+ * <p>This class is built from the benchmark source root with the harnesses, and is not part of the application, so
+ * the classes it reaches keep their package access.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public final class BenchmarkAccess
+{
+	/**
+	 * Not instantiated.
+	 */
+	private BenchmarkAccess() {
+	}
+	
+	/**
+	 * Add an element to the end of a track, updating the aggregate values of the track to include it.
+	 * @param track the track.
+	 * @param elem the element to add.
+	 */
+	public static void append(Track track, TrackElement elem) {
+		track.append(elem);
+	}
+	
+	/**
+	 * Calculate the aggregate values of a track built without them.
+	 * @param track the track.
+	 */
+	public static void calcAggregates(Track track) {
+		track.calcAggregates();
+	}
+	
+	/**
+	 * Get the number of bytes allocated by the current thread, where the JVM can report it.
+	 * @return the number of bytes allocated, or -1 if not known.
+	 */
+	public static long threadAllocatedBytes() {
+		return StageMetrics.threadAllocatedBytes();
+	}
+	
+	/**
+	 * <p>A linked path of points, as held by a <tt>DataLoader</tt> before the points are classified.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	public static final class Path
+	{
+		// First point of the path
+		private final Datum first;
+		// Number of points in the path
+		private int size;
+		
+		/**
+		 * Create a path from its first point.
+		 * @param first the first point.
+		 * @param size the number of points in the path.
+		 */
+		private Path(Datum first, int size) {
+			this.first = first;
+			this.size = size;
+		}
+		
+		/**
+		 * Read every point from a parser into a path, in the order they are read.
+		 * @param parser the parser to read from.
+		 * @return the path, or <tt>null</tt> if the parser holds no points.
+		 * @throws IOException if the points cannot be read.
+		 */
+		public static Path read(DataParser parser) throws IOException {
+			Datum first = parser.readDatum();
+			if(first == null) {
+				return null;
+			}
+			Datum prev = first;
+			int n = 1;
+			for(Datum d = parser.readDatum(); d != null; d = parser.readDatum()) {
+				prev.setNext(d);
+				prev = d;
+				n ++;
+			}
+			return new Path(first, n);
+		}
+		
+		/**
+		 * Classify each element of the path as a <tt>DataLoader</tt> does, without building tracks.
+		 * @param elems the array to hold the classified elements, which must hold every point of the path.
+		 * @return the number of elements classified.
+		 */
+		public int classify(TrackElement[] elems) {
+			ElementClassifier classifier = new ElementClassifier(new SkiDataProcessor(), new ElemWindow(first, DataLoader.WINDOW_SIZE), new SkiDataBuilder(null, false, new StageMetrics()), new StageMetrics());
+			int n = 0;
+			for(TrackElement e = classifier.classifyNext(); e != null; e = classifier.classifyNext()) {
+				elems[n ++] = e;
+			}
+			return n;
+		}
+		
+		/**
+		 * Copy the points of the path into a new path, so that it can be changed without changing this path.
+		 * @return the copied path.
+		 */
+		public Path copy() {
+			Datum copy = null, prev = null;
+			for(Datum src = first; src != null; src = src.getNext()) {
+				Datum d = new Datum(src.t, src.la, src.lo, src.x, src.y, src.a, src.s);
+				if(prev == null) {
+					copy = d;
+				} else {
+					prev.setNext(d);
+				}
+				prev = d;
+			}
+			return new Path(copy, size);
+		}
+		
+		/**
+		 * Get the GPS position of each point of the path.
+		 * @return the coordinates of each point, in order.
+		 */
+		public WGSCoordinate[] getCoordinates() {
+			WGSCoordinate[] wgs = new WGSCoordinate[size];
+			int i = 0;
+			for(Datum d = first; d != null; d = d.getNext()) {
+				wgs[i ++] = new WGSCoordinate(d.la, d.lo, WGSCoordinate.COORD_MODE_DEG);
+			}
+			return wgs;
+		}
+		
+		/**
+		 * Fill the gaps in the path using the default gap policy.
+		 * @return the new number of points in the path.
+		 */
+		public int interpolate() {
+			size = DatumInterpolator.interpolateList(first, false, GapPolicy.DEFAULT);
+			return size;
+		}
+		
+		/**
+		 * Classify each element of the path with a processor, as it moves through a window of elements.
+		 * @param proc the processor.
+		 * @return the mode of the last element.
+		 */
+		public Mode process(Processor proc) {
+			ElemWindow eWin = new ElemWindow(first, DataLoader.WINDOW_SIZE);
+			Mode mode = Mode.STOP;
+			while(eWin.hasNext()) {
+				mode = proc.processElement(mode, eWin.next(), eWin);
+			}
+			return mode;
+		}
+		
+		/**
+		 * Read every statistic of the window of elements around each element of the path.
+		 * @return the sum of all statistics read.
+		 */
+		public float readStatistics() {
+			ElemWindow eWin = new ElemWindow(first, DataLoader.WINDOW_SIZE);
+			float sum = 0.0f;
+			while(eWin.hasNext()) {
+				eWin.next();
+				sum += eWin.ascent() + eWin.ascending() + eWin.descending() + eWin.flat() + eWin.moving() + eWin.stopped();
+			}
+			return sum;
+		}
+		
+		/**
+		 * Get the number of points in the path.
+		 * @return the number of points.
+		 */
+		public int size() {
+			return size;
+		}
+		
+		/**
+		 * Build a track of every element of the path, without classifying the elements or calculating the aggregate
+		 * values of the track.
+		 * @return the track.
+		 */
+		public Track toTrack() {
+			Track track = new Track();
+			ElemWindow eWin = new ElemWindow(first, DataLoader.WINDOW_SIZE);
+			while(eWin.hasNext()) {
+				track.add(eWin.next());
+			}
+			return track;
+		}
+	}
+}
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 
+import uk.co.essarsoftware.ski.bench.SessionGenerator;
 import uk.co.essarsoftware.ski.data.TrackElement.Mode;
 
 
@@ -18,6 +19,17 @@ public class DatumTest
 		// Load input points
 		//File f = new File("../data/ski_20110222.csv");
 		File f = new File("../data/20110222.gsd");
+		if(! f.exists()) {
+			// Sample data not available, so generate a day of data in a temporary file in its place
+			f = File.createTempFile("20110222", ".gsd");
+			f.deleteOnExit();
+			FileWriter gw = new FileWriter(f);
+			try {
+				new SessionGenerator(20110222L).generate(SessionGenerator.MINUTES_PER_DAY, gw, null);
+			} finally {
+				gw.close();
+			}
+		}
 		//CSVDatumLoader ldr = new CSVDatumLoader(f);
 		//CSVParser p = new CSVParser(new FileInputStream(f));
 		GSDParser p = new GSDParser(new FileInputStream(f), true);
@@ -65,12 +77,11 @@ public class DatumTest
 				System.out.println(count + " element(s) loaded");
 			}
 
-			public void processedElement(int count, int max) {
-				if(count % 200 == 0) {
-					System.out.println("Element " + count + " of " + max + " processed");
-				}
+			public void progressUpdated(LoadMetrics metrics) {
+				System.out.println(metrics.getPercentComplete() + "% complete: " + metrics);
 			}
 		});
+		dl.getStageMetrics().setEnabled(true);
 		SkiData data = dl.loadData();
 		
 		/*
@@ -83,6 +94,7 @@ public class DatumTest
 		long fTime = System.currentTimeMillis();
 		
 		System.out.println(String.format("Loaded %d points in %d miliseconds.", data.size(), (fTime - sTime)));
+		System.out.println(dl.getStageMetrics());
 		
 		// Output data to file
 		try {
@@ -125,7 +137,7 @@ public class DatumTest
 			for(Track k : blockKeys) {
 				TrackBlock block = data.getBlock(k);
 				Date d = k.getFirst().getTimeAsDate();
-				int sz = block.getElements().size();
+				long sz = block.getElements().getDuration();
 				System.out.println(String.format("* [%tk:%tM] (%d tracks; %.1f%% ski-time; %d mins, %d secs)", d, d, block.size(), block.getRatio(Mode.SKI) * 100.0f, sz / 60, sz % 60));
 				for(Track t2 : block.values()) {
 					System.out.println("\t\t" + t2);
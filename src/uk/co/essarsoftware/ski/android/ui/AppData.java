@@ -1,5 +1,6 @@
 package uk.co.essarsoftware.ski.android.ui;
 
+import uk.co.essarsoftware.ski.data.LoadService;
 import uk.co.essarsoftware.ski.data.SkiData;
 import uk.co.essarsoftware.ski.data.Track;
 import uk.co.essarsoftware.ski.xyplot.XYPlot;
@@ -12,8 +13,11 @@ class AppData
 	Track track;
 	XYPlot plot;
 	
+	final LoadService loadService;
+	
 	public AppData() {
 		super();
+		loadService = new LoadService();
 	}
 	
 	static AppData getAppData() {
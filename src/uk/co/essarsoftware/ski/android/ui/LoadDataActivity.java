@@ -6,6 +6,7 @@ import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.Future;
 
 import uk.co.essarsoftware.ski.R;
 import uk.co.essarsoftware.ski.data.CSVParser;
@@ -13,7 +14,9 @@ import uk.co.essarsoftware.ski.data.DataLoader;
 import uk.co.essarsoftware.ski.data.DataLoaderListener;
 import uk.co.essarsoftware.ski.data.DataParser;
 import uk.co.essarsoftware.ski.data.GSDParser;
+import uk.co.essarsoftware.ski.data.LoadMetrics;
 import uk.co.essarsoftware.ski.data.Processor;
+import uk.co.essarsoftware.ski.data.SkiData;
 import uk.co.essarsoftware.ski.data.SkiDataProcessor;
 import uk.co.essarsoftware.ski.xyplot.XYDataSet;
 import uk.co.essarsoftware.ski.xyplot.XYDatum;
@@ -39,32 +42,53 @@ import android.widget.Toast;
  */
 public class LoadDataActivity extends SkiDataActivity implements DataLoaderListener
 {
-	private DataLoader ldr;
-	private InputStream rIs;
+	// Current loader, read by listeners on loader threads
+	private volatile DataLoader ldr;
+	private Future<SkiData> load;
 	private ProgressDialog dlg;
 	
 	private String srcPath = "/mnt/sdcard/skidata/";
 	
 	/**
-	 * Load data from a data source.
+	 * Cancel the current load, if any, without waiting for it to stop. Events from a cancelled load are ignored.
 	 */
-	private void loadData(DataParser dp, boolean all) throws IOException {
+	private void cancelLoad() {
+		if(load != null) {
+			load.cancel(true);
+			load = null;
+		}
+		ldr = null;
+	}
+	
+	/**
+	 * Load data from a data source, superseding any load already in progress.
+	 */
+	private void loadData(InputStream is, DataParser dp, boolean all) {
 		Processor p = new SkiDataProcessor();
+		
+		// Stop any previous load
+		cancelLoad();
+		if(dlg != null) {
+			dlg.dismiss();
+			dlg = null;
+		}
     	
     	// Initiate data loader
-    	ldr = new DataLoader(dp, p, 0, (all ? -1 : 3600), this);
+		LoadListener l = new LoadListener(is);
+    	ldr = new DataLoader(dp, p, 0, (all ? -1 : 3600), l);
+    	l.loader = ldr;
     	
     	// Display progress dialog
     	dlg = ProgressDialog.show(this, "", "Loading data...", true, true, new DialogInterface.OnCancelListener() {
-			//FIXME
     		public void onCancel(DialogInterface dialog) {
     			Log.d(getLocalClassName(), "User pressed cancel");
-				ldr.cancel();
+				cancelLoad();
+				dlg = null;
 			}
 		});
     	
     	//TODO More advanced progress bar?
-    	ldr.loadDataInBackground();
+    	load = getSkiAppData().loadService.submit(ldr);
 	}
 	
 	private void loadCSVData(boolean all) {
@@ -79,13 +103,13 @@ public class LoadDataActivity extends SkiDataActivity implements DataLoaderListe
 			
 			// Open file from SD card
         	File root = new File(getExternalFilesDir(null), srcPath);
-        	rIs = new FileInputStream(new File(root, filename));
+        	InputStream is = new FileInputStream(new File(root, filename));
         	
         	// Create data parser and element processor
-        	DataParser dp = new CSVParser(rIs);
+        	DataParser dp = new CSVParser(is);
         	Log.d(getLocalClassName(), "CSV parser created");
         	
-        	loadData(dp, all);
+        	loadData(is, dp, all);
         } catch(IOException ioe) {
         	Log.e(getLocalClassName(), "Unable to read data from file from " + filename, ioe);
         	Toast.makeText(this, "Error: " + ioe.getMessage(), Toast.LENGTH_LONG).show();
@@ -98,8 +122,6 @@ public class LoadDataActivity extends SkiDataActivity implements DataLoaderListe
 	        for(float i = 0; i < 100; i ++) {
 	        	testdata.add(new XYDatum(i, (99 - i)));
 	        }
-	        
-	        rIs = null;
         }
 	}
 	
@@ -116,14 +138,14 @@ public class LoadDataActivity extends SkiDataActivity implements DataLoaderListe
 			// Open file from SD card
         	File root = new File(getExternalFilesDir(null), srcPath);
         	File f = new File(root, filename);
-        	rIs = new FileInputStream(f);
+        	InputStream is = new FileInputStream(f);
         	Log.d(getLocalClassName(), "GSD data source: " + f.getAbsolutePath());
         	
         	// Create data parser and element processor
-        	DataParser dp = new GSDParser(rIs, true);
+        	DataParser dp = new GSDParser(is, true);
         	Log.d(getLocalClassName(), "GSD parser created");
         	
-        	loadData(dp, all);
+        	loadData(is, dp, all);
         } catch(IOException ioe) {
         	Log.e(getLocalClassName(), "Unable to read data from file from " + filename, ioe);
         	Toast.makeText(this, "Error: " + ioe.getMessage(), Toast.LENGTH_LONG).show();
@@ -136,8 +158,6 @@ public class LoadDataActivity extends SkiDataActivity implements DataLoaderListe
 	        for(float i = 0; i < 100; i ++) {
 	        	testdata.add(new XYDatum(i, (99 - i)));
 	        }
-	        
-	        rIs = null;
         }
 	}
 	
@@ -202,6 +222,17 @@ public class LoadDataActivity extends SkiDataActivity implements DataLoaderListe
         Log.i(getLocalClassName(), "LoadDataActivity created");
     }
     
+    /* (non-Javadoc)
+     * @see android.app.Activity#onDestroy()
+     */
+    @Override
+    protected void onDestroy() {
+    	// Stop any load still in progress
+    	cancelLoad();
+    	
+    	super.onDestroy();
+    }
+    
 	/* (non-Javadoc)
 	 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#aborted()
 	 */
@@ -212,27 +243,18 @@ public class LoadDataActivity extends SkiDataActivity implements DataLoaderListe
 			dlg = null;
 		}
 		
-		// Close input stream
-        if(rIs != null) {
-	        try {
-	        	rIs.close();
-	        	Log.d(getLocalClassName(), "Input stream closed");
-	        } catch(IOException ioe) {
-	        	Log.w(getLocalClassName(), String.format("Error when closing input stream"));
-	        }
-	        rIs = null;
-        }
-        
 		Log.w(getLocalClassName(), "Data load cancelled by user");
-		//FIXME Toast.makeText(this, "Data load aborted.", Toast.LENGTH_SHORT).show();
+		Toast.makeText(this, "Data load aborted.", Toast.LENGTH_SHORT).show();
 	}
 
 	/* (non-Javadoc)
 	 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#completed(int)
 	 */
 	public void completed(int elementCount) {
+		SkiData data = ldr.getData();
+		
 		//Store data in singleton object
-        AppData.getAppData().data = ldr.getData();
+        AppData.getAppData().data = data;
 
         // Log loaded data size
         int points = (AppData.getAppData().data == null ? 0 : AppData.getAppData().data.size());
@@ -244,9 +266,9 @@ public class LoadDataActivity extends SkiDataActivity implements DataLoaderListe
         	dlg = null;
         }
         
-        if(ldr.getData().size() == 0) {
+        if(data == null || data.size() == 0) {
         	// No data loaded
-        	//FIXME Toast.makeText(this, "No data loaded.", Toast.LENGTH_SHORT).show();
+        	Toast.makeText(this, "No data loaded.", Toast.LENGTH_SHORT).show();
         	return;
         }
         // Open summary screen
@@ -270,50 +292,148 @@ public class LoadDataActivity extends SkiDataActivity implements DataLoaderListe
 			dlg = null;
 		}
 		
-		// Close input stream
-        if(rIs != null) {
-	        try {
-	        	rIs.close();
-	        	Log.d(getLocalClassName(), "Input stream closed");
-	        } catch(IOException ioe) {
-	        	Log.w(getLocalClassName(), String.format("Error when closing input stream"));
-	        }
-	        rIs = null;
-        }
-        
 		Log.e(getLocalClassName(), "Error during data load: " + e.getMessage() + ".");
-		//FIXME Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_LONG).show();
+		Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_LONG).show();
 	}
 
 	/* (non-Javadoc)
 	 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#loadingComplete(int)
 	 */
 	public void loadingComplete(int count) {
-		// Close input stream
-        if(rIs != null) {
-	        try {
-	        	rIs.close();
-	        	Log.d(getLocalClassName(), "Input stream closed");
-	        } catch(IOException ioe) {
-	        	Log.w(getLocalClassName(), String.format("Error when closing input stream"));
-	        }
-	        rIs = null;
-        }
-        
 		Log.i(getLocalClassName(), "Data loading completed, " + count + " records loaded");
 	}
 
 	/* (non-Javadoc)
-	 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#processedElement(int, int)
+	 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#progressUpdated(uk.co.essarsoftware.ski.data.LoadMetrics)
 	 */
-	public void processedElement(int count, int max) {
-		// Update progress dialog (if not indeterminable)
-		if(dlg != null) {
-			int v = (int) (((float) count / (float) max) * 100.0f);
-			dlg.setProgress(v);
+	public void progressUpdated(LoadMetrics metrics) {
+		// Update progress dialog with the percentage and time remaining, if known
+		int pct = metrics.getPercentComplete();
+		if(dlg != null && pct >= 0) {
+			String phase = (metrics.isLoadingComplete() ? "Processing" : "Loading");
+			long eta = metrics.getEstimatedTimeRemaining();
+			dlg.setMessage(eta < 0 ? String.format("%s data... %d%%", phase, pct) : String.format("%s data... %d%% (%ds left)", phase, pct, (eta + 999) / 1000));
 		}
-		if(count % 2000 == 0) {
-			Log.i(getLocalClassName(), count + "/" + max + " records processed.");
+		Log.i(getLocalClassName(), metrics.toString());
+	}
+	
+	/**
+	 * <p>Listener for a single load. Closes the input stream once loading has finished, and passes events to the
+	 * activity while the load is still current; events that update the UI are passed on the UI thread. Events
+	 * from a load that has been cancelled or superseded are ignored.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class LoadListener implements DataLoaderListener
+	{
+		// Input stream the load reads from
+		private InputStream is;
+		// Loader this listener belongs to
+		private DataLoader loader;
+		
+		/**
+		 * Create a new listener for a load.
+		 * @param is the input stream the load reads from.
+		 */
+		LoadListener(InputStream is) {
+			this.is = is;
+		}
+		
+		/**
+		 * Close the input stream, if still open.
+		 */
+		private synchronized void closeStream() {
+	        if(is != null) {
+		        try {
+		        	is.close();
+		        	Log.d(getLocalClassName(), "Input stream closed");
+		        } catch(IOException ioe) {
+		        	Log.w(getLocalClassName(), String.format("Error when closing input stream"));
+		        }
+		        is = null;
+	        }
+		}
+		
+		/**
+		 * Check if this listener belongs to the current load.
+		 * @return true if the load is current, false if it has been cancelled or superseded.
+		 */
+		private boolean isCurrent() {
+			return loader == ldr;
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#aborted()
+		 */
+		public void aborted() {
+			closeStream();
+			runOnUiThread(new Runnable() {
+				public void run() {
+					if(isCurrent()) {
+						LoadDataActivity.this.aborted();
+					}
+				}
+			});
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#completed(int)
+		 */
+		public void completed(final int elementCount) {
+			runOnUiThread(new Runnable() {
+				public void run() {
+					if(isCurrent()) {
+						LoadDataActivity.this.completed(elementCount);
+					}
+				}
+			});
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#emptyData()
+		 */
+		public void emptyData() {
+			if(isCurrent()) {
+				LoadDataActivity.this.emptyData();
+			}
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#error(java.lang.Exception)
+		 */
+		public void error(final Exception e) {
+			closeStream();
+			runOnUiThread(new Runnable() {
+				public void run() {
+					if(isCurrent()) {
+						LoadDataActivity.this.error(e);
+					}
+				}
+			});
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#loadingComplete(int)
+		 */
+		public void loadingComplete(int count) {
+			closeStream();
+			if(isCurrent()) {
+				LoadDataActivity.this.loadingComplete(count);
+			}
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#progressUpdated(uk.co.essarsoftware.ski.data.LoadMetrics)
+		 */
+		public void progressUpdated(final LoadMetrics metrics) {
+			runOnUiThread(new Runnable() {
+				public void run() {
+					if(isCurrent()) {
+						LoadDataActivity.this.progressUpdated(metrics);
+					}
+				}
+			});
 		}
 	}
 }
\ No newline at end of file
@@ -102,7 +102,7 @@ public class TrackListActivity extends SkiDataActivity
     		// Get child element
     		Track t = (Track) getChild(groupPosition, childPosition);
     		// Return start time as ID
-    		return (t == null ? 0 : t.getStartTime());
+    		return (t == null ? 0 : t.getFirst().getTimeMillis());
     	}
 
     	public View getChildView(int groupPosition, int childPosition, boolean isLastChild, View convertView, ViewGroup parent) {
@@ -113,12 +113,12 @@ public class TrackListActivity extends SkiDataActivity
     				case SKI:
     					tv.setPadding(75, 5, 5, 5);
     					tv.setTextColor(0xFFFF0000);
-    					tv.setText(String.format("SKI (%,dm; %.1f kph; %d mins, %d secs)", Math.round(t.getDistance()), t.getAverageSpeed(), t.size() / 60, t.size() % 60));
+    					tv.setText(String.format("SKI (%,dm; %.1f kph; %d mins, %d secs)", Math.round(t.getDistance()), t.getAverageSpeed(), t.getDuration() / 60, t.getDuration() % 60));
     					break;
     				case STOP:
     					tv.setPadding(60, 5, 5, 5);
     					tv.setTextColor(0xFFFFFFFF);
-    					tv.setText(String.format("STOP (%d mins, %d secs)", t.size() / 60, t.size() % 60));
+    					tv.setText(String.format("STOP (%d mins, %d secs)", t.getDuration() / 60, t.getDuration() % 60));
     			}
     		}
     		return tv;
@@ -143,7 +143,7 @@ public class TrackListActivity extends SkiDataActivity
     		// Get group element
     		Track t = (Track) getGroup(groupPosition);
     		// Return start time as ID
-    		return (t == null ? 0 : t.getStartTime());
+    		return (t == null ? 0 : t.getFirst().getTimeMillis());
     	}
 
     	public View getGroupView(int groupPosition, boolean isExpanded, View convertView, ViewGroup parent) {
@@ -155,15 +155,15 @@ public class TrackListActivity extends SkiDataActivity
     			switch(t.getFirst().getMode()) {
     				case LIFT:
     					tv.setTextColor(0xFF0000FF);
-    					tv.setText(String.format("[%tk:%tM] LIFT (%+dm; %d mins, %d secs)", d, d, t.getDeltaAltitude(), t.size() / 60, t.size() % 60));
+    					tv.setText(String.format("[%tk:%tM] LIFT (%+dm; %d mins, %d secs)", d, d, t.getDeltaAltitude(), t.getDuration() / 60, t.getDuration() % 60));
     					break;
     				case SKI:
     					tv.setTextColor(0xFFFF0000);
-    					tv.setText(String.format("[%tk:%tM] SKI (%,dm; %.1f kph; %d mins, %d secs)", d, d, Math.round(t.getDistance()), t.getAverageSpeed(), t.size() / 60, t.size() % 60));
+    					tv.setText(String.format("[%tk:%tM] SKI (%,dm; %.1f kph; %d mins, %d secs)", d, d, Math.round(t.getDistance()), t.getAverageSpeed(), t.getDuration() / 60, t.getDuration() % 60));
     					break;
     				case STOP:
     					tv.setTextColor(0xFFFFFFFF);
-    					tv.setText(String.format("[%tk:%tM] STOP (%d mins, %d secs)", d, d, t.size() / 60, t.size() % 60));
+    					tv.setText(String.format("[%tk:%tM] STOP (%d mins, %d secs)", d, d, t.getDuration() / 60, t.getDuration() % 60));
     					break;
     			}
     		}
@@ -2,6 +2,9 @@ package uk.co.essarsoftware.ski.android.ui;
 
 import uk.co.essarsoftware.ski.R;
 import uk.co.essarsoftware.ski.data.Track;
+import uk.co.essarsoftware.ski.ui.AltitudeRenderer;
+import uk.co.essarsoftware.ski.ui.ModeRenderer;
+import uk.co.essarsoftware.ski.ui.SpeedRenderer;
 import uk.co.essarsoftware.ski.xyplot.XYPlot;
 import android.os.Bundle;
 import android.util.Log;
@@ -20,14 +23,47 @@ public class XYPlotActivity extends SkiDataActivity
 {
 	private XYPlotView view;
 	
+	// Renderers, kept so the colours each has found are reused when it is selected again
+	private AltitudeRenderer altitudeRenderer;
+	private ModeRenderer modeRenderer;
+	private SpeedRenderer speedRenderer;
+	// Track the renderers were created for
+	private Track rendererTrack;
+	
+	/**
+	 * Discard the renderers if they were created for a different track.
+	 * @param t the track being plotted.
+	 */
+	private void checkRenderers(Track t) {
+		if(rendererTrack != t) {
+			altitudeRenderer = null;
+			speedRenderer = null;
+			rendererTrack = t;
+		}
+	}
+	
+	/**
+	 * Get the <tt>ModeRenderer</tt>, creating it when first used.
+	 * @return the renderer.
+	 */
+	private ModeRenderer getModeRenderer() {
+		if(modeRenderer == null) {
+			modeRenderer = new ModeRenderer();
+		}
+		return modeRenderer;
+	}
+	
 	/**
 	 * Redraw the plot using an <tt>AltitudeRenderer</tt> to highlight changes in altitude.
 	 */
 	private void highlightAltitude() {
 		Track t = getSkiAppData().track;
 		if(t != null && view != null) {
-			AltitudeRenderer ar = new AltitudeRenderer(t);
-			view.setRenderer(ar, true);
+			checkRenderers(t);
+			if(altitudeRenderer == null) {
+				altitudeRenderer = new AltitudeRenderer(t);
+			}
+			view.setRenderer(altitudeRenderer, true);
 		}
 	}
 	
@@ -36,8 +72,7 @@ public class XYPlotActivity extends SkiDataActivity
 	 */
 	private void highlightMode() {
 		if(view != null) {
-			ModeRenderer mr = new ModeRenderer();
-			view.setRenderer(mr, true);
+			view.setRenderer(getModeRenderer(), true);
 		}
 	}
 	
@@ -47,8 +82,11 @@ public class XYPlotActivity extends SkiDataActivity
 	private void highlightSpeed() {
 		Track t = getSkiAppData().track;
 		if(t != null && view != null) {
-			SpeedRenderer sr = new SpeedRenderer(t);
-			view.setRenderer(sr, true);
+			checkRenderers(t);
+			if(speedRenderer == null) {
+				speedRenderer = new SpeedRenderer(t);
+			}
+			view.setRenderer(speedRenderer, true);
 		}
 	}
 	
@@ -66,7 +104,7 @@ public class XYPlotActivity extends SkiDataActivity
         if(plot != null) {
         	// Create view object if not already set
         	if(view == null) {
-        		view = new XYPlotView(this, plot, new ModeRenderer());
+        		view = new XYPlotView(this, plot, getModeRenderer());
         	}
 	        // Add view object
 	        setContentView(view);
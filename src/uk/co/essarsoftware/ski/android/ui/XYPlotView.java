@@ -1,18 +1,37 @@
 package uk.co.essarsoftware.ski.android.ui;
 
-import uk.co.essarsoftware.ski.ui.XYTrackElement;
-import uk.co.essarsoftware.ski.xyplot.XYDatum;
+import uk.co.essarsoftware.ski.ui.Renderer;
+import uk.co.essarsoftware.ski.xyplot.XYAxis;
+import uk.co.essarsoftware.ski.xyplot.XYDataSet;
+import uk.co.essarsoftware.ski.xyplot.XYLines;
 import uk.co.essarsoftware.ski.xyplot.XYPlot;
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Paint.Align;
 import android.graphics.RectF;
-import android.util.Log;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
 import android.view.View;
 
 /**
  * <p>Android View containing an <tt>XYPlot</tt> histogram.</p>
+ * <p>Points are translated against the plot axes and coloured by the renderer once, when the data or renderer
+ * changes, and held as a buffer of line segments for each colour of the renderer's palette. Each frame then draws each colour with a single
+ * call, using <tt>Paint</tt> objects created with the view. The renderer finds the colour of every point of the
+ * data once, so rebuilding the segments only looks the colours up. The data is first reduced to the detail that can be
+ * seen at the width of the view, so the cost of drawing depends on the size of the screen rather than the length of
+ * the session.</p>
+ * <p>Each series of the plot has its own renderer and its own buffers of line segments, built and drawn in the same
+ * way, so several series can be compared in one view.</p>
+ * <p>The plot can be zoomed with a pinch and panned with a drag, and a double tap shows the whole plot again. Only
+ * the points within the visible part of the plot are drawn, found by the plot from data structures built once.</p>
+ * <p>The background, axis lines and axis names are drawn into a bitmap, which is only drawn again when the size of
+ * the view or the axes change, as they stay in the same place on screen as the plot is zoomed and panned. Axis labels
+ * are formatted once for each tick when the bitmap is drawn, and each frame only draws the ticks and labels that
+ * are visible at their current position.</p>
  *
  * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
  * @version 1.0 (17 Dec 2011)
@@ -20,7 +39,6 @@ import android.view.View;
  * Input - set of points to plot, either as single points or as lines. Renderer to determine colours (lines/points?)
  *
  * Should automatically apply transformations to allow raw data values to be used throughout.
- * Set a zoom factor and central point.
  * 
  * Next things to do:
  * Draw axis, with values
@@ -30,48 +48,281 @@ import android.view.View;
  */
 public class XYPlotView extends View
 {
+	// Largest zoom factor
+	private static final float MAX_ZOOM = 1000.0f;
+	
 	// Rendering settings
 	private int plotAreaBg = 0x33808080; // Mid-gray with 33% transparency
-
+	
 	private float padding = 2.0f;
-	private Renderer vr;
+	// Renderer of each series
+	private final Renderer[] renderers;
 	private XYPlot plot;
 	
+	// Paints, reused for each frame
+	private final Paint areaPaint, axisPaint, labelPaint, linePaint;
+	// Plot area, reused for each frame
+	private final RectF plotArea;
+	
+	// Line segments of each series for each colour, in translated plot coordinates
+	private final XYLines[] lines;
+	// Data set and size the line segments of each series were built from
+	private final XYDataSet[] linesData;
+	private final int[] linesSize;
+	
+	// Background, axis lines and axis names, drawn once for each size and pair of axes
+	private Bitmap layer;
+	// Axes and scale flag the layer was drawn for
+	private XYAxis layerXAxis, layerYAxis;
+	private boolean layerScaleShown;
+	// Tick values of each axis and their labels, formatted when the layer is drawn
+	private float[] xTicks, yTicks;
+	private String[] xLabels, yLabels;
+	
+	// Zoom factor, and centre of the visible part of the plot in translated plot coordinates
+	private float zoom = 1.0f;
+	private float centreX = Float.NaN, centreY = Float.NaN;
+	// Visible part of the plot and scale of the last frame, to convert gestures to plot coordinates
+	private float frameLeft, frameTop, frameScaleX = 1.0f, frameScaleY = 1.0f;
+	// Detectors of pinch, drag and double tap gestures
+	private final GestureDetector gestureDetector;
+	private final ScaleGestureDetector scaleDetector;
+	
 	/**
 	 * Create the View from plot data, within the specified context.
 	 * @param context an Android <tt>Context</tt> containing this view.
 	 * @param plot the <tt>XYPlot</tt> data to draw.
+	 * @param vr the <tt>Renderer</tt> of the first series of the plot.
 	 */
 	public XYPlotView(Context context, XYPlot plot, Renderer vr) {
 		super(context);
 		this.plot = plot;
-		this.vr = vr;
+		
+		int series = plot.getSeriesCount();
+		renderers = new Renderer[series];
+		renderers[0] = vr;
+		lines = new XYLines[series];
+		linesData = new XYDataSet[series];
+		linesSize = new int[series];
+		
+		areaPaint = new Paint();
+		axisPaint = new Paint();
+		// White! = A:11111111 R:11111111 G:11111111 B:11111111
+		axisPaint.setColor(0xFFFFFFFF);
+		labelPaint = new Paint();
+		labelPaint.setColor(0xFFFFFFFF);
+		labelPaint.setTextSize(10.0f);
+		labelPaint.setAntiAlias(true);
+		linePaint = new Paint();
+		plotArea = new RectF();
+		
+		PlotGestureListener listener = new PlotGestureListener();
+		gestureDetector = new GestureDetector(context, listener);
+		scaleDetector = new ScaleGestureDetector(context, listener);
+	}
+	
+	/**
+	 * Build the line segments for each colour from the data of a series, translating each point against the plot axes
+	 * and colouring each segment with the colour the renderer of the series found for its end point.
+	 * @param series the position of the series in the plot.
+	 * @param data the series data, reduced to the width of the view.
+	 */
+	private void buildLines(int series, XYDataSet data) {
+		lines[series] = new XYLines(plot, series, data, renderers[series], null);
+		linesData[series] = data;
+		linesSize[series] = data.size();
+	}
+	
+	/**
+	 * Draw the background, axis lines and axis names into the cached layer, creating the layer if the size of the
+	 * view has changed, and format the label of each tick of the axes. These stay in the same place on screen
+	 * whichever part of the plot is visible, so the layer is drawn once for each size and pair of axes.
+	 * @param plX the lowest visible x-coordinate.
+	 * @param plY the lowest visible y-coordinate.
+	 * @param plWidth the width of the visible part of the plot.
+	 * @param plHeight the height of the visible part of the plot.
+	 * @param scaleX the scale of the x-axis.
+	 * @param scaleY the scale of the y-axis.
+	 * @param transX the translation of the x-axis, once scaled.
+	 * @param transY the translation of the y-axis, once scaled.
+	 */
+	private void buildLayer(float plX, float plY, float plWidth, float plHeight, float scaleX, float scaleY, float transX, float transY) {
+		if(layer == null || layer.getWidth() != getWidth() || layer.getHeight() != getHeight()) {
+			if(layer != null) {
+				layer.recycle();
+			}
+			layer = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
+		} else {
+			layer.eraseColor(0);
+		}
+		layerXAxis = plot.getXAxis();
+		layerYAxis = plot.getYAxis();
+		layerScaleShown = plot.isScaleShown();
+		
+		Canvas canvas = new Canvas(layer);
+		canvas.scale(scaleX, -scaleY);
+		canvas.translate(transX, transY);
+		
+		// Draw plot area background
+		areaPaint.setColor(plotAreaBg);
+		plotArea.set(plX, plY, plX + plWidth, plY + plHeight);
+		canvas.drawRect(plotArea, areaPaint);
+		
+		if(plot.isScaleShown()) {
+			// Format the label of each tick once
+			xTicks = plot.getXAxis().getTickValues();
+			xLabels = new String[xTicks.length];
+			for(int i = 0; i < xTicks.length; i ++) {
+				xLabels[i] = plot.getXAxis().getLabel(xTicks[i]);
+			}
+			yTicks = plot.getYAxis().getTickValues();
+			yLabels = new String[yTicks.length];
+			for(int i = 0; i < yTicks.length; i ++) {
+				yLabels[i] = plot.getYAxis().getLabel(yTicks[i]);
+			}
+			
+			// Draw axes
+			float xAxisY = plY - (1.0f / scaleY);
+			float yAxisX = plX - (1.0f / scaleY);
+			canvas.drawLine(plX, xAxisY, plX + plWidth, xAxisY, axisPaint);
+			canvas.drawLine(yAxisX, plY, yAxisX, plY + plHeight, axisPaint);
+			
+			
+			/* * * * * * * * * *
+			 * Axis Text
+			 */
+			
+			// Remove scaling to draw text - must be done manually
+			canvas.scale(1.0f / scaleX, -1.0f / scaleY);
+			Paint p = labelPaint;
+			
+			// X-axis name
+			{
+				float x = (plX + plWidth) * scaleX;
+				float y = (xAxisY * -scaleY) + 30.0f;
+				p.setTextAlign(Align.RIGHT);
+				canvas.drawText(plot.getXAxis().getAxisName(), x, y, p);
+			}
+			
+			// Y-axis name
+			{
+				float x = (yAxisX * scaleX) - 25.0f;
+				float y = (plY + (plHeight / 2.0f)) * -scaleY;
+				p.setTextAlign(Align.CENTER);
+				canvas.rotate(90.0f, x, y);
+				canvas.drawText(plot.getYAxis().getAxisName(), x, y, p);
+				canvas.rotate(-90.0f, x, y);
+			}
+		}
+	}
+	
+	/**
+	 * Draw the ticks of the axes within the visible part of the plot, with the labels formatted when the layer was
+	 * drawn, at their position in this frame. Drawn in view coordinates.
+	 * @param canvas the canvas of the view.
+	 * @param plX the lowest visible x-coordinate.
+	 * @param plY the lowest visible y-coordinate.
+	 * @param plWidth the width of the visible part of the plot.
+	 * @param plHeight the height of the visible part of the plot.
+	 * @param scaleX the scale of the x-axis.
+	 * @param scaleY the scale of the y-axis.
+	 * @param transX the translation of the x-axis, once scaled.
+	 * @param transY the translation of the y-axis, once scaled.
+	 */
+	private void drawTicks(Canvas canvas, float plX, float plY, float plWidth, float plHeight, float scaleX, float scaleY, float transX, float transY) {
+		Paint p = labelPaint;
+		
+		// X-axis ticks and values, below the x-axis
+		float xAxisY = -(plY - (1.0f / scaleY) + transY) * scaleY;
+		for(int i = 0; i < xTicks.length; i ++) {
+			float f = xTicks[i];
+			if(f < plX || f > plX + plWidth) {
+				continue;
+			}
+			float x = (f + transX) * scaleX;
+			canvas.drawLine(x, xAxisY, x, xAxisY + 10.0f, axisPaint);
+			if(i == 0) {
+				p.setTextAlign(Align.LEFT);
+			} else if(i == xTicks.length - 1) {
+				p.setTextAlign(Align.RIGHT);
+			} else {
+				p.setTextAlign(Align.CENTER);
+			}
+			canvas.drawText(xLabels[i], x, xAxisY + 20.0f, p);
+		}
+		
+		// Y-axis ticks and values, left of the y-axis
+		float yAxisX = (plX - (1.0f / scaleY) + transX) * scaleX;
+		float top = p.getFontMetrics().top;
+		p.setTextAlign(Align.RIGHT);
+		for(int i = 0; i < yTicks.length; i ++) {
+			float f = yTicks[i];
+			if(f < plY || f > plY + plHeight) {
+				continue;
+			}
+			float y = -(f + transY) * scaleY;
+			canvas.drawLine(yAxisX, y, yAxisX - 10.0f, y, axisPaint);
+			canvas.drawText(yLabels[i], yAxisX - 12.0f, (i > 0 ? y - top : y), p);
+		}
 	}
 	
 	/**
-	 * Set the renderer used to draw this plot.
+	 * Show the whole plot, removing any zoom or pan.
+	 */
+	void resetZoom() {
+		zoom = 1.0f;
+		centreX = Float.NaN;
+		centreY = Float.NaN;
+		invalidate();
+	}
+	
+	/**
+	 * Set the renderer used to draw the first series of this plot.
 	 * @param vr the new <tt>Renderer</tt> implementation.
 	 * @param redraw whether an immediate redraw should be triggered.
 	 */
 	void setRenderer(Renderer vr, boolean redraw) {
-		this.vr = vr;
+		setRenderer(0, vr, redraw);
+	}
+	
+	/**
+	 * Set the renderer used to draw a series of this plot. Each renderer keeps the colours of one series, so a
+	 * renderer should not be shared between series.
+	 * @param series the position of the series in the plot.
+	 * @param vr the new <tt>Renderer</tt> implementation, or <tt>null</tt> to draw the series in a single colour.
+	 * @param redraw whether an immediate redraw should be triggered.
+	 */
+	void setRenderer(int series, Renderer vr, boolean redraw) {
+		renderers[series] = vr;
+		// Colours have changed, so rebuild segments on next draw
+		lines[series] = null;
 		if(redraw) {
 			invalidate();
 		}
 	}
 	
+	/* (non-Javadoc)
+	 * @see android.view.View#onDetachedFromWindow()
+	 */
+	@Override
+	protected void onDetachedFromWindow() {
+		super.onDetachedFromWindow();
+		// Release the layer bitmap, it will be drawn again if the view is reattached
+		if(layer != null) {
+			layer.recycle();
+			layer = null;
+		}
+	}
+	
 	/* (non-Javadoc)
 	 * @see android.view.View#onDraw(android.graphics.Canvas)
 	 */
 	@Override
 	public void onDraw(Canvas canvas) {
-		// Set up paint object
-		Paint p = new Paint();
-		
 		//
 		float axisPaddingX = (plot.isScaleShown() ? 50.0f : 0.0f);
 		float axisPaddingY = (plot.isScaleShown() ? 50.0f : 0.0f);
-
+		
 		/* * * * * * * * * *
 		 * SCALING
 		 */
@@ -86,159 +337,90 @@ public class XYPlotView extends View
 		float plWidth = plot.getXAxis().getLength();
 		float plHeight = plot.getYAxis().getLength();
 		
+		// Find the visible part of the plot, kept within the axes; only the x-axis is zoomed unless proportional
+		float vwWidth = plWidth / zoom;
+		float vwHeight = (plot.isProportional() ? plHeight / zoom : plHeight);
+		centreX = Math.max(plX + vwWidth / 2.0f, Math.min(plX + plWidth - vwWidth / 2.0f, (Float.isNaN(centreX) ? plX + plWidth / 2.0f : centreX)));
+		centreY = Math.max(plY + vwHeight / 2.0f, Math.min(plY + plHeight - vwHeight / 2.0f, (Float.isNaN(centreY) ? plY + plHeight / 2.0f : centreY)));
+		plX = centreX - vwWidth / 2.0f;
+		plY = centreY - vwHeight / 2.0f;
+		plWidth = vwWidth;
+		plHeight = vwHeight;
+		
 		// Adjust scaling to fit plot to draw area
 		float scaleX = dwWidth / plWidth;
 		float scaleY = dwHeight / plHeight;
-
+		
 		// Adjust scaling if proportional flag is set
 		if(plot.isProportional()) {
 			scaleX = Math.min(scaleX, scaleY);
 			scaleY = Math.min(scaleX, scaleY);
 		}
-		Log.d("XYPlot", String.format("Plot area set to %.2fx%.2f", plWidth, plHeight));
-		Log.d("XYPlot", String.format("Drawing area set to %.2fx%.2f", dwWidth, dwHeight));
-		Log.d("XYPlot", String.format("Scaling plot by %.2fx%.2f", scaleX, scaleY));
-		
-		// Use negative Y-scale factor to invert y-axis
-		canvas.scale(scaleX, -scaleY);
 		
 		// Move plot area - reset origin to bottom left of view area
 		float transX = -1.0f * (plX - ((padding + axisPaddingX) / scaleX));
-		//float transX = ((padding + axisPaddingX) / scaleX);
 		float transY = -1.0f * (plY + plHeight + ((2 * padding) / scaleY));
-		//float transY = -1.0f * ((dwHeight + padding) / scaleY); 
-		Log.d("XYPlot", String.format("Translating plot to (%.2f,%.2f)", transX, transY));
-		canvas.translate(transX, transY);
-
+		
+		// Keep the position and scale of this frame for gestures
+		frameLeft = -transX;
+		frameTop = -transY;
+		frameScaleX = scaleX;
+		frameScaleY = scaleY;
+		
 		
 		/* * * * * * * * * *
 		 * DRAWING
 		 */
 		
-		// Draw plot area background
-		p.setColor(plotAreaBg);
-		RectF plotArea = new RectF(plX, plY, plX + plWidth, plY + plHeight);
-		canvas.drawRect(plotArea, p);
-		
+		// Redraw the background and axes if the size of the view or the axes have changed
+		if(getWidth() <= 0 || getHeight() <= 0) {
+			return;
+		}
+		if(layer == null || layer.getWidth() != getWidth() || layer.getHeight() != getHeight() || layerXAxis != plot.getXAxis() || layerYAxis != plot.getYAxis() || layerScaleShown != plot.isScaleShown()) {
+			buildLayer(plX, plY, plWidth, plHeight, scaleX, scaleY, transX, transY);
+		}
+		canvas.drawBitmap(layer, 0.0f, 0.0f, null);
 		if(plot.isScaleShown()) {
-			// White! = A:11111111 R:11111111 G:11111111 B:11111111
-			p.setColor(0xFFFFFFFF);
-			p.setTextSize(10.0f);
-			
-			// Draw x axis
-			float xAxisY = plY - (1.0f / scaleY);
-			
-			canvas.drawLine(plX, xAxisY, plX + plWidth, xAxisY, p);
-			for(float f : plot.getXAxis().getTickValues()) {
-				canvas.drawLine(f, xAxisY, f, xAxisY - (10.0f / scaleY), p);
-			}
-			
-			// Draw y axis
-			float yAxisX = plX - (1.0f / scaleY);
-			
-			canvas.drawLine(yAxisX, plY, yAxisX, plY + plHeight, p);
-			for(float f : plot.getYAxis().getTickValues()) {
-				canvas.drawLine(yAxisX, f, yAxisX - (10.0f / scaleX), f, p);
-			}
-			
-			
-			/* * * * * * * * * *
-			 * Axis Text
-			 */
-
-			// Remove scaling to draw text - must be done manually
-			canvas.scale(1.0f / scaleX, -1.0f / scaleY);
-			// Set anti-aliasing on
-			p.setAntiAlias(true);
-				
-			// X-axis values
-			for(int i = 0; i < plot.getXAxis().getTickValues().length; i ++) {
-				float f = plot.getXAxis().getTickValues()[i];
-				float x = f * scaleX;
-				float y = (xAxisY * -scaleY) + 20.0f;
-				if(i == 0) {
-					p.setTextAlign(Align.LEFT);
-				} else if(i == plot.getXAxis().getTickValues().length - 1) {
-					p.setTextAlign(Align.RIGHT);
-				} else {
-					p.setTextAlign(Align.CENTER);
-				}
-				canvas.drawText(plot.getXAxis().getLabel(f), x, y, p);
-			}
-			// X-axis name
-			{
-				float x = plot.getXAxis().getMaxValue() * scaleX;
-				float y = (xAxisY * -scaleY) + 30.0f;
-				p.setTextAlign(Align.RIGHT);
-				canvas.drawText(plot.getXAxis().getAxisName(), x, y, p);
-			}
-				
-			// Y-axis values
-			for(int i = 0; i < plot.getYAxis().getTickValues().length; i ++) {
-				p.setTextAlign(Align.RIGHT);
-				float f = plot.getYAxis().getTickValues()[i];
-				float x = (yAxisX * scaleX) - 12.0f;
-				float y = f * -scaleY;
-				if(i > 0) {
-					y -= p.getFontMetrics().top;
-				}
-				canvas.drawText(plot.getYAxis().getLabel(f), x, y, p);
-			}
-			// Y-axis name
-			{
-				float x = (yAxisX * scaleX) - 25.0f;
-				float y = (plot.getYAxis().getMinValue() + (plot.getYAxis().getLength() / 2.0f)) * -scaleY;
-				p.setTextAlign(Align.CENTER);
-				canvas.rotate(90.0f, x, y);
-				canvas.drawText(plot.getYAxis().getAxisName(), x, y, p);
-				canvas.rotate(-90.0f, x, y);
-			}
-				
-			// Reset scaling
-			canvas.scale(scaleX, -scaleY);
-			// Remove anti-aliasing
-			p.setAntiAlias(false);
+			drawTicks(canvas, plX, plY, plWidth, plHeight, scaleX, scaleY, transX, transY);
 		}
 		
-		XYDatum ld = null;
-
-		// Draw each datum within the data set as a line on the canvas
-		for(XYDatum d : plot.getData()) {
-			if(ld == null) {
-				ld = d;
-			} else {
-				// Render point if renderer is set
-				if(vr != null) {
-					// Cast datum
-					XYTrackElement xyte = (XYTrackElement) d;
-					// Set line colour
-					float v = vr.getValue(xyte.getE());
-					p.set(vr.paintValue(v, p));
-				}
-				// Translate point
-				XYDatum td = plot.translatePoint(d);
-				if(! plotArea.contains(td.getX(), td.getY())) {
-					Log.w("XYPlot", String.format("Drawing point (%.2f,%.2f) outside of plot area", td.getX(), td.getY()));
-				}
-				canvas.drawLine(ld.getX(), ld.getY(), td.getX(), td.getY(), p);
-
-				ld = td;
+		// Use negative Y-scale factor to invert y-axis, and move the origin to the bottom left of the view area
+		canvas.scale(scaleX, -scaleY);
+		canvas.translate(transX, transY);
+		plotArea.set(plX, plY, plX + plWidth, plY + plHeight);
+		
+		// Rebuild the line segments of each series if its visible data, or the width it is reduced for, has changed
+		// since they were built
+		int pixels = Math.round(plWidth * scaleX);
+		for(int s = 0; s < lines.length; s ++) {
+			XYDataSet data = plot.getSeries(s, plX, plX + plWidth, plY, plY + plHeight, pixels);
+			if(lines[s] == null || linesData[s] != data || linesSize[s] != data.size()) {
+				buildLines(s, data);
 			}
 		}
-			
-		// Draw each datum within the data set as a point on the canvas
-		/*for(XYDatum d : plot.getData()) {
-			// Set pixel colour
-			//p.set(vr.paintValue(d.getV(), p));
-			p.setColor(0xFF00FF00);
-			//p.setStrokeWidth(3.0f);
-			// Translate point
-			XYDatum td = plot.translatePoint(d);
-			if(! plotArea.contains(td.getX(), td.getY())) {
-				Log.w("XYPlot", String.format("Drawing point (%.2f,%.2f) outside of plot area", td.getX(), td.getY()));
+		
+		// Draw the segments of each colour of each series with a single call, clipped to the visible part of the plot
+		canvas.save();
+		canvas.clipRect(plotArea);
+		for(int s = 0; s < lines.length; s ++) {
+			for(int i = 0; i < lines[s].getGroupCount(); i ++) {
+				linePaint.setColor(lines[s].getColour(i));
+				canvas.drawLines(lines[s].getSegments(i), linePaint);
 			}
-			canvas.drawPoint(td.getX(), td.getY(), p);
-		}*/
+		}
+		canvas.restore();
+	}
+	
+	/* (non-Javadoc)
+	 * @see android.view.View#onTouchEvent(android.view.MotionEvent)
+	 */
+	@Override
+	public boolean onTouchEvent(MotionEvent event) {
+		scaleDetector.onTouchEvent(event);
+		if(! scaleDetector.isInProgress()) {
+			gestureDetector.onTouchEvent(event);
+		}
+		return true;
 	}
 	
 	/* (non-Javadoc)
@@ -249,4 +431,74 @@ public class XYPlotView extends View
 		// Default : fill parent?
 		super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 	}
+	
+	/**
+	 * <p>Listener zooming the plot with a pinch, panning it with a drag and showing the whole plot on a double tap.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class PlotGestureListener extends GestureDetector.SimpleOnGestureListener implements ScaleGestureDetector.OnScaleGestureListener
+	{
+		/* (non-Javadoc)
+		 * @see android.view.GestureDetector.SimpleOnGestureListener#onDoubleTap(android.view.MotionEvent)
+		 */
+		@Override
+		public boolean onDoubleTap(MotionEvent e) {
+			resetZoom();
+			return true;
+		}
+		
+		/* (non-Javadoc)
+		 * @see android.view.GestureDetector.SimpleOnGestureListener#onDown(android.view.MotionEvent)
+		 */
+		@Override
+		public boolean onDown(MotionEvent e) {
+			return true;
+		}
+		
+		/* (non-Javadoc)
+		 * @see android.view.ScaleGestureDetector.OnScaleGestureListener#onScale(android.view.ScaleGestureDetector)
+		 */
+		public boolean onScale(ScaleGestureDetector detector) {
+			float z = Math.max(1.0f, Math.min(MAX_ZOOM, zoom * detector.getScaleFactor()));
+			float factor = z / zoom;
+			
+			// Keep the point under the focus of the pinch in the same place
+			float fx = frameLeft + detector.getFocusX() / frameScaleX;
+			float fy = frameTop - detector.getFocusY() / frameScaleY;
+			centreX = fx + (centreX - fx) / factor;
+			if(plot.isProportional()) {
+				centreY = fy + (centreY - fy) / factor;
+			}
+			zoom = z;
+			invalidate();
+			return true;
+		}
+		
+		/* (non-Javadoc)
+		 * @see android.view.ScaleGestureDetector.OnScaleGestureListener#onScaleBegin(android.view.ScaleGestureDetector)
+		 */
+		public boolean onScaleBegin(ScaleGestureDetector detector) {
+			return true;
+		}
+		
+		/* (non-Javadoc)
+		 * @see android.view.ScaleGestureDetector.OnScaleGestureListener#onScaleEnd(android.view.ScaleGestureDetector)
+		 */
+		public void onScaleEnd(ScaleGestureDetector detector) {
+		}
+		
+		/* (non-Javadoc)
+		 * @see android.view.GestureDetector.SimpleOnGestureListener#onScroll(android.view.MotionEvent, android.view.MotionEvent, float, float)
+		 */
+		@Override
+		public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+			// Move the visible part of the plot against the drag; the y-axis is inverted on screen
+			centreX += distanceX / frameScaleX;
+			centreY -= distanceY / frameScaleY;
+			invalidate();
+			return true;
+		}
+	}
 }
@@ -22,10 +22,6 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
 
-import uk.co.essarsoftware.ski.geo.CoordConverter;
-import uk.co.essarsoftware.ski.geo.UTMCoordinate;
-import uk.co.essarsoftware.ski.geo.WGSCoordinate;
-
 
 /**
  * <p>Class that processes from CSV data.</p>
@@ -33,10 +29,12 @@ import uk.co.essarsoftware.ski.geo.WGSCoordinate;
  * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
  * @version 1.0 (30 Nov 2011)
  */
-public class CSVParser implements DataParser
+public class CSVParser implements RecordParser
 {
 	// Reader object holding input data
 	private LineNumberReader in;
+	// Stream counting bytes read from the input
+	private final CountingInputStream src;
 	
 	/** Parser configuration */
 	CSVConfig config;
@@ -50,8 +48,9 @@ public class CSVParser implements DataParser
 		if(is == null) {
 			throw new IllegalArgumentException("Null input stream");
 		}
-		// Set up reader using 8K buffer
-		in = new LineNumberReader(new InputStreamReader(is), 8192);
+		// Set up reader using 8K buffer, counting bytes read
+		src = new CountingInputStream(is);
+		in = new LineNumberReader(new InputStreamReader(src), 8192);
 		
 		// Set up default configuration
 		config = new CSVConfig();
@@ -108,19 +107,20 @@ public class CSVParser implements DataParser
 	 * Parse a float value from a String array of data.
 	 * @param fieldName the name of the field to parse. This references the column names defined in the parser configuration.
 	 * @param parts an array of <tt>String</tt> values. 
+	 * @param lineNumber the line number of the record, reported if the value cannot be parsed.
 	 * @return the parsed float value.
 	 * @throws ParseException if a problem occurs parsing the value.
 	 */
-	private float parseFloatField(String fieldName, String[] parts) throws ParseException {
+	private float parseFloatField(String fieldName, String[] parts, int lineNumber) throws ParseException {
 		try {
 			if(config.colMap.containsKey(fieldName)) {
 				return Float.parseFloat(parts[config.colMap.get(fieldName)].trim());
 			}
 			return 0.0f;
 		} catch(ArrayIndexOutOfBoundsException aioobe) {
-			throw new ParseException("Invalid field index for " + fieldName, in.getLineNumber());
+			throw new ParseException("Invalid field index for " + fieldName, lineNumber);
 		} catch(NumberFormatException nfe) {
-			throw new ParseException("Invalid field value for " + fieldName, in.getLineNumber());
+			throw new ParseException("Invalid field value for " + fieldName, lineNumber);
 		}
 	}
 	
@@ -128,19 +128,20 @@ public class CSVParser implements DataParser
 	 * Parse an integer value from a String array of data.
 	 * @param fieldName the name of the field to parse. This references the column names defined in the parser configuration.
 	 * @param parts an array of <tt>String</tt> values. 
+	 * @param lineNumber the line number of the record, reported if the value cannot be parsed.
 	 * @return the parsed integer value.
 	 * @throws ParseException if a problem occurs parsing the value.
 	 */
-	private int parseIntField(String fieldName, String[] parts) throws ParseException {
+	private int parseIntField(String fieldName, String[] parts, int lineNumber) throws ParseException {
 		try {
 			if(config.colMap.containsKey(fieldName)) {
 				return Integer.parseInt(parts[config.colMap.get(fieldName)].trim());
 			}
 			return 0;
 		} catch(ArrayIndexOutOfBoundsException aioobe) {
-			throw new ParseException("Invalid field index for " + fieldName, in.getLineNumber());
+			throw new ParseException("Invalid field index for " + fieldName, lineNumber);
 		} catch(NumberFormatException nfe) {
-			throw new ParseException("Invalid field value for " + fieldName, in.getLineNumber());
+			throw new ParseException("Invalid field value for " + fieldName, lineNumber);
 		}
 	}
 	
@@ -148,27 +149,30 @@ public class CSVParser implements DataParser
 	 * Parse a String value from a String array of data.
 	 * @param fieldName the name of the field to parse. This references the column names defined in the parser configuration.
 	 * @param parts an array of <tt>String</tt> values. 
+	 * @param lineNumber the line number of the record, reported if the value cannot be parsed.
 	 * @return the parsed String value.
 	 * @throws ParseException if a problem occurs parsing the value.
 	 */
-	private String parseStringField(String fieldName, String[] parts) throws ParseException {
+	private String parseStringField(String fieldName, String[] parts, int lineNumber) throws ParseException {
 		try {
 			if(config.colMap.containsKey(fieldName)) {
 				return parts[config.colMap.get(fieldName)].trim();
 			}
 			return null;
 		} catch(ArrayIndexOutOfBoundsException aioobe) {
-			throw new ParseException("Invalid field index for " + fieldName, in.getLineNumber());
+			throw new ParseException("Invalid field index for " + fieldName, lineNumber);
 		}
 	}
 	
 	/**
-	 * Parse a GPS <tt>Datum</tt> object from a line of CSV data.
+	 * Parse a GPS <tt>Datum</tt> object from a line of CSV data. If the configuration does not contain X and Y
+	 * columns the returned point is unprojected.
 	 * @param line a <tt>String</tt> containing the CSV data.
+	 * @param lineNumber the line number the data was read from.
 	 * @return a GPS <tt>Datum</tt> object.
 	 * @throws ParseException if a problem occurs parsing the line.
 	 */
-	private Datum parseLine(String line) throws ParseException {
+	public Datum parseRecord(String line, int lineNumber) throws ParseException {
 		if(line == null) {
 			return null;
 		}
@@ -176,37 +180,65 @@ public class CSVParser implements DataParser
 		String[] parts = line.split(",");
 		
 		// Latitude & Longitude
-		float la = parseFloatField("lat", parts);
-		float lo = parseFloatField("long", parts);
+		float la = parseFloatField("lat", parts, lineNumber);
+		float lo = parseFloatField("long", parts, lineNumber);
 		
-		// X & Y
+		// X & Y, unless config missing X or Y elements and they need to be calculated from lat & long
 		int x = 0;
 		int y = 0;
-		if(!config.colMap.containsKey("x") || !config.colMap.containsKey("y")) {
-			// Config missing X or Y elements, so calculate from lat & long
-			UTMCoordinate utm = CoordConverter.WGS2UTM(new WGSCoordinate(la, lo, WGSCoordinate.COORD_MODE_DEG));
-			x = utm.getX();
-			y = utm.getY();
-		} else {
-			x = parseIntField("x", parts);
-			y = parseIntField("y", parts);
+		if(! requiresProjection()) {
+			x = parseIntField("x", parts, lineNumber);
+			y = parseIntField("y", parts, lineNumber);
 		}
 		
 		// Altitude & Speed
-		int a = parseIntField("alt", parts);
-		float s = parseFloatField("speed", parts);
+		int a = parseIntField("alt", parts, lineNumber);
+		float s = parseFloatField("speed", parts, lineNumber);
 		
 		// Date & Time
-		String d = parseStringField("date", parts);
-		String t = parseStringField("time", parts);
+		String d = parseStringField("date", parts, lineNumber);
+		String t = parseStringField("time", parts, lineNumber);
+		
+		// Fraction of a second, if recorded after the decimal point
+		int ms = 0;
+		int dot = (t == null ? -1 : t.indexOf('.'));
+		if(dot >= 0) {
+			try {
+				ms = Datum.parseMillis(t.substring(dot + 1));
+			} catch(NumberFormatException nfe) {
+				throw new ParseException("Invalid field value for time", lineNumber);
+			}
+			t = t.substring(0, dot);
+		}
 		
 		// Build date object
 		Date time = config.sdf.parse(d + " " + t);
 		
 		// Build Datum object
-		return new Datum(time, la, lo, x, y, a, s);
+		return new Datum(time.getTime() + ms, la, lo, x, y, a, s);
+	}
+	
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.DataParser#getBytesRead()
+	 */
+	public long getBytesRead() {
+		return src.getCount();
 	}
 	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.RecordParser#getLineNumber()
+	 */
+	public int getLineNumber() {
+		return in.getLineNumber();
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.DataParser#getSourceLength()
+	 */
+	public long getSourceLength() {
+		return src.getLength();
+	}
 	
 	/* (non-Javadoc)
 	 * @see uk.co.essarsoftware.ski.data.DataParser#readDatum()
@@ -214,32 +246,58 @@ public class CSVParser implements DataParser
 	public Datum readDatum() throws IOException {
 		String line = null;
 		try {
-			line = readLine();
-			return parseLine(line);
+			line = readRecord();
+			Datum d = parseRecord(line, getLineNumber());
+			if(d != null && requiresProjection()) {
+				// Calculate X & Y
+				d.project();
+			}
+			return d;
 		} catch(ParseException pe) {
 			// Handle ParseException
-			try {
-				// Open bad file in append mode
-				FileWriter out = new FileWriter(config.badFile, true);
-				
-				// Output line number
-				out.write(pe.getErrorOffset() + ":");
-				// Output input line
-				out.write(line);
-				// Output error message
-				out.write("#" + pe.getMessage());
-				out.write('\n');
-				
-				out.close();
-			} catch(IOException ioe) {
-				// TODO Unable to write bad log
-				System.err.println(ioe.getMessage());
-			}
+			rejectRecord(line, pe);
 			// Try next item
 			return readDatum();
 		}
 	}
 	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.RecordParser#readRecord()
+	 */
+	public String readRecord() throws IOException {
+		return readLine();
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.RecordParser#rejectRecord(java.lang.String, java.text.ParseException)
+	 */
+	public void rejectRecord(String record, ParseException pe) {
+		try {
+			// Open bad file in append mode
+			FileWriter out = new FileWriter(config.badFile, true);
+			
+			// Output line number
+			out.write(pe.getErrorOffset() + ":");
+			// Output input line
+			out.write(record);
+			// Output error message
+			out.write("#" + pe.getMessage());
+			out.write('\n');
+			
+			out.close();
+		} catch(IOException ioe) {
+			// TODO Unable to write bad log
+			System.err.println(ioe.getMessage());
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.RecordParser#requiresProjection()
+	 */
+	public boolean requiresProjection() {
+		return (! config.colMap.containsKey("x") || ! config.colMap.containsKey("y"));
+	}
+	
 	/* (non-Javadoc)
 	 * @see uk.co.essarsoftware.ski.data.DataParser#skipLine()
 	 */
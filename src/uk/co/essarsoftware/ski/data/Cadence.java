@@ -0,0 +1,71 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+/**
+ * <p>Tracks the sample rate of a stream of points.</p>
+ * <p>The rate starts at one point per second and rises to the highest rate seen between consecutive points, rounded
+ * to a whole number of points per second and limited to <tt>MAX_RATE</tt>. The rate never falls, so gaps in the
+ * data do not reduce it. Duplicate points, with no time between them, are ignored.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+class Cadence
+{
+	/** Interval between points assumed until a shorter interval is seen, in milliseconds. */
+	static final long DEFAULT_INTERVAL = 1000L;
+	/** Highest sample rate recognised, in points per second. */
+	static final int MAX_RATE = 10;
+	
+	// Interval between points, in milliseconds
+	private long interval;
+	
+	/**
+	 * Create a new <tt>Cadence</tt> at the default rate of one point per second.
+	 */
+	Cadence() {
+		interval = DEFAULT_INTERVAL;
+	}
+	
+	/**
+	 * Get the interval between points.
+	 * @return the interval in milliseconds.
+	 */
+	long getInterval() {
+		return interval;
+	}
+	
+	/**
+	 * Get the sample rate.
+	 * @return the number of points each second.
+	 */
+	int getRate() {
+		return (int) (1000L / interval);
+	}
+	
+	/**
+	 * Update the rate with the time between two consecutive points.
+	 * @param timeDelta the time between the points, in milliseconds.
+	 * @return true if the rate has changed, false otherwise.
+	 */
+	boolean update(long timeDelta) {
+		if(timeDelta > 0 && timeDelta < interval) {
+			int rate = (int) Math.min(MAX_RATE, Math.round(1000.0 / timeDelta));
+			if(1000L / rate < interval) {
+				interval = 1000L / rate;
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,117 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>Input stream that counts the bytes read from an underlying stream.</p>
+ * <p>The count may be read from any thread while the stream is being read.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class CountingInputStream extends FilterInputStream
+{
+	// Number of bytes read
+	private volatile long count;
+	// Count at the marked position
+	private long mark;
+	// Length of the stream when created
+	private final long length;
+	
+	/**
+	 * Create a new <tt>CountingInputStream</tt>, recording the number of bytes available from the stream as its
+	 * expected length.
+	 * @param in the stream to read from.
+	 */
+	public CountingInputStream(InputStream in) {
+		super(in);
+		long available;
+		try {
+			available = in.available();
+		} catch(IOException ioe) {
+			available = 0;
+		}
+		this.length = (available > 0 ? available : -1);
+	}
+	
+	/**
+	 * Get the number of bytes read.
+	 * @return the number of bytes read or skipped from the stream.
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	/**
+	 * Get the expected length of the stream. Streams that do not report the bytes available, such as network
+	 * streams, have no expected length.
+	 * @return the number of bytes available when the stream was created, or -1 if not known.
+	 */
+	public long getLength() {
+		return length;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.io.FilterInputStream#mark(int)
+	 */
+	@Override
+	public synchronized void mark(int readlimit) {
+		super.mark(readlimit);
+		mark = count;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.io.FilterInputStream#read()
+	 */
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		if(b >= 0) {
+			count ++;
+		}
+		return b;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.io.FilterInputStream#read(byte[], int, int)
+	 */
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int n = super.read(b, off, len);
+		if(n > 0) {
+			count += n;
+		}
+		return n;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.io.FilterInputStream#reset()
+	 */
+	@Override
+	public synchronized void reset() throws IOException {
+		super.reset();
+		count = mark;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.io.FilterInputStream#skip(long)
+	 */
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = super.skip(n);
+		count += skipped;
+		return skipped;
+	}
+}
@@ -11,8 +11,15 @@ package uk.co.essarsoftware.ski.data;
  * 
  */
 import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
 
-import uk.co.essarsoftware.ski.data.TrackElement.Mode;
+import uk.co.essarsoftware.ski.data.StageMetrics.Stage;
 
 /**
  * <p>Class responsible for loading data from a parsable source, file or stream.</p>
@@ -33,15 +40,41 @@ public class DataLoader implements Runnable
 	/** Constant indicating process completed normally. */
 	public static final int STATE_COMPLETE = 0x08;
 	
-	// Current state
-	private int state;
-	// Data store
-	private SkiData data;
-
+	/** Constant indicating all data is loaded before any data is processed. */
+	public static final int LOAD_MODE_BATCH = 0x01;
+	/** Constant indicating data is loaded and processed concurrently, in a pipeline of stages. */
+	public static final int LOAD_MODE_PIPELINED = 0x02;
+	/** Constant indicating data is loaded and processed a point at a time, without holding the complete path. */
+	public static final int LOAD_MODE_STREAMING = 0x04;
+	
+	// Number of records passed between pipeline stages in each batch
+	private static final int BATCH_SIZE = 256;
+	// Number of batches that can be queued between pipeline stages
+	private static final int QUEUE_SIZE = 4;
+	// Longest time to wait for pipeline stages to stop, in milliseconds
+	private static final long STAGE_STOP_TIMEOUT = 2000L;
+	// Length of the look-ahead window, in seconds of data at the sample rate of the source
+	static final int WINDOW_SIZE = 20;
+	
+	// Current state, read from other threads
+	private volatile int state;
+	// Data builder, and completed data
+	private volatile SkiDataBuilder builder;
+	private volatile SkiData data;
+	// Exception that caused the process to fail
+	private volatile Exception error;
+	
 	// Indicating if thread is currently running
-	private transient boolean running;
+	private transient volatile boolean running;
 	// Dedicated thread
-	private transient Thread thd;
+	private transient volatile Thread thd;
+	// Thread running the pipeline, and pipeline stage threads
+	private transient volatile Thread owner;
+	private transient volatile Thread[] stages;
+	// Indicating if all records have been loaded by the pipeline
+	private transient volatile boolean loaded;
+	// Exception thrown by a pipeline stage
+	private transient volatile Exception stageError;
 	
 	// Parsable source data
 	private final DataParser parser;
@@ -49,8 +82,25 @@ public class DataLoader implements Runnable
 	private final int max, start;
 	// Loader Listener
 	private final DataLoaderListener l;
+	// Load progress and throughput
+	private final LoadMetrics metrics;
+	// Time spent in each stage
+	private volatile StageMetrics stats;
 	// Data processor
 	private final Processor proc;
+	// Publishers of classified elements and closed tracks
+	private final LoadPublisher<TrackElement> elementPublisher;
+	private final LoadPublisher<Track> trackPublisher;
+	// Gap handling policy
+	private GapPolicy gapPolicy;
+	// Loading mode
+	private int loadMode;
+	// Indicating if closed tracks are retained in the data store
+	private boolean retainData;
+	// Listener notified as tracks are closed
+	private TrackListener trackListener;
+	// Check run between batches of points, which may block to give way to other loads
+	private Runnable pause;
 	
 	
 	/**
@@ -63,6 +113,9 @@ public class DataLoader implements Runnable
 	}
 	
 	private void handleProcessingException(Exception e) {
+		// Record exception before publishing state
+		error = e;
+		
 		// Set loader state
 		state = STATE_ERROR;
 		
@@ -112,12 +165,22 @@ public class DataLoader implements Runnable
 		this.start = start;
 		this.max = max;
 		this.l = l;
+		this.gapPolicy = GapPolicy.DEFAULT;
+		this.retainData = true;
+		
+		metrics = new LoadMetrics(parser);
+		stats = new StageMetrics();
+		elementPublisher = new LoadPublisher<TrackElement>();
+		trackPublisher = new LoadPublisher<Track>();
+		
+		// Use a pipeline if the parser supports it and there is more than one processor to run it
+		this.loadMode = (parser instanceof RecordParser && Runtime.getRuntime().availableProcessors() > 1 ? LOAD_MODE_PIPELINED : LOAD_MODE_BATCH);
 	}
-
+	
 	/**
-	 * Cancel the running loader process.
+	 * Cancel the running loader process. If the process has not yet started, it will not load any data.
 	 */
-	public void cancel() {
+	public synchronized void cancel() {
 		// Set loader state
 		state = STATE_CANCELLED;
 		
@@ -128,6 +191,42 @@ public class DataLoader implements Runnable
 		if(thd != null) {
 			thd.interrupt();
 		}
+		
+		// Mark pipeline threads as interrupted
+		Thread o = owner;
+		if(o != null) {
+			o.interrupt();
+		}
+		Thread[] s = stages;
+		if(s != null) {
+			for(Thread stage : s) {
+				stage.interrupt();
+			}
+		}
+		
+		// Stop waiting for subscribers
+		elementPublisher.stop();
+		trackPublisher.stop();
+	}
+	
+	/**
+	 * End publishing elements and tracks, notifying subscribers of the outcome of the load.
+	 */
+	private void endPublishing() {
+		switch(state) {
+			case STATE_COMPLETE:
+				elementPublisher.complete();
+				trackPublisher.complete();
+				break;
+			case STATE_ERROR:
+				elementPublisher.fail(error);
+				trackPublisher.fail(error);
+				break;
+			default:
+				CancellationException ce = new CancellationException("Load cancelled");
+				elementPublisher.fail(ce);
+				trackPublisher.fail(ce);
+		}
 	}
 	
 	/**
@@ -136,15 +235,85 @@ public class DataLoader implements Runnable
 	 * @return a <tt>SkiData</tt> object containing the loaded data, or null if no data has been fully loaded.
 	 */
 	public SkiData getData() {
+		// State is set to complete only once data is fully processed, so data is safely published
 		if(state == STATE_COMPLETE) {
-			synchronized(data) {
-				return data;
-			}
+			return data;
 		}
 		// Not yet loaded data
 		return null;
 	}
 	
+	/**
+	 * Get a publisher of elements as they are classified. Elements are sent on the loading thread, which waits
+	 * while any subscriber has no outstanding requests. Subscribers added before loading starts receive every
+	 * element, followed by <tt>onComplete</tt> if the load completes or <tt>onError</tt> if it fails or is
+	 * cancelled.
+	 * @return a <tt>Publisher</tt> of <tt>TrackElement</tt>s.
+	 */
+	public Publisher<TrackElement> getElementPublisher() {
+		return elementPublisher;
+	}
+	
+	/**
+	 * Get the exception that caused the loader process to fail.
+	 * @return the <tt>Exception</tt> thrown, or null if the process has not failed.
+	 */
+	public Exception getError() {
+		return error;
+	}
+	
+	/**
+	 * Get the loading mode.
+	 * @return constant indicating the loading mode.
+	 */
+	public int getLoadMode() {
+		return loadMode;
+	}
+	
+	/**
+	 * Get the listener notified as tracks are closed.
+	 * @return the current <tt>TrackListener</tt>, or null if none is set.
+	 */
+	public TrackListener getTrackListener() {
+		return trackListener;
+	}
+	
+	/**
+	 * Get the progress and throughput of the load. May be called from any thread.
+	 * @return the <tt>LoadMetrics</tt> of this loader.
+	 */
+	public LoadMetrics getMetrics() {
+		return metrics;
+	}
+	
+	/**
+	 * Get the registry recording the time spent in each stage of the load. Stages are only timed once the registry
+	 * is enabled. May be called from any thread.
+	 * @return the <tt>StageMetrics</tt> used by this loader.
+	 */
+	public StageMetrics getStageMetrics() {
+		return stats;
+	}
+	
+	/**
+	 * Get a snapshot of the data processed so far, holding the tracks and blocks closed when it was taken. May be
+	 * called from any thread while the loader is running, without blocking the loader.
+	 * @return an immutable <tt>SkiData</tt> snapshot, or null if processing has not started.
+	 */
+	public SkiData getSnapshot() {
+		SkiDataBuilder b = builder;
+		return (b == null ? null : b.getSnapshot());
+	}
+	
+	/**
+	 * Get a publisher of tracks as they are closed, with aggregate values calculated. Tracks are sent in the same
+	 * way as elements from <tt>getElementPublisher</tt>.
+	 * @return a <tt>Publisher</tt> of <tt>Track</tt>s.
+	 */
+	public Publisher<Track> getTrackPublisher() {
+		return trackPublisher;
+	}
+	
 	/**
 	 * Get the current loader state.
 	 * @return integer indicating the current state.
@@ -153,6 +322,22 @@ public class DataLoader implements Runnable
 		return state;
 	}
 	
+	/**
+	 * Get the policy used to handle gaps in the recorded data.
+	 * @return the current <tt>GapPolicy</tt>.
+	 */
+	public GapPolicy getGapPolicy() {
+		return gapPolicy;
+	}
+	
+	/**
+	 * Check if closed tracks are retained in the loaded data.
+	 * @return true if tracks are retained, false if they are only passed to the track listener.
+	 */
+	public boolean isRetainData() {
+		return retainData;
+	}
+	
 	/**
 	 * Start the loading process in a new thread and return.
 	 */
@@ -176,16 +361,491 @@ public class DataLoader implements Runnable
 		return getData();
 	}
 	
+	/**
+	 * Set the policy used to handle gaps in the recorded data. Must be set before loading starts.
+	 * @param gapPolicy the new <tt>GapPolicy</tt>.
+	 */
+	public void setGapPolicy(GapPolicy gapPolicy) {
+		// Validate policy input
+		if(gapPolicy == null) {
+			throw new IllegalArgumentException("Gap policy cannot be null");
+		}
+		this.gapPolicy = gapPolicy;
+	}
+	
+	/**
+	 * Set whether closed tracks are retained in the loaded data. If tracks are not retained, they are only passed to
+	 * the track listener as they are closed, and the loaded data holds no tracks; combined with streaming mode,
+	 * data is processed in memory that does not grow with the length of the log. Must be set before loading starts.
+	 * @param retainData whether to retain closed tracks.
+	 * @see #LOAD_MODE_STREAMING
+	 */
+	public void setRetainData(boolean retainData) {
+		this.retainData = retainData;
+	}
+	
+	/**
+	 * Set the minimum time between progress reports to the listener. Progress is also reported whenever the
+	 * percentage complete changes.
+	 * @param interval the interval in milliseconds.
+	 */
+	public void setProgressInterval(long interval) {
+		// Validate interval input
+		if(interval < 0) {
+			throw new IllegalArgumentException("Interval cannot be less than zero");
+		}
+		metrics.setReportInterval(interval);
+	}
+	
+	/**
+	 * Set the registry recording the time spent in each stage of the load. A registry can be shared by several
+	 * loaders to collect totals across loads. Must be set before loading starts.
+	 * @param stats the new <tt>StageMetrics</tt>.
+	 */
+	public void setStageMetrics(StageMetrics stats) {
+		// Validate registry input
+		if(stats == null) {
+			throw new IllegalArgumentException("Stage metrics cannot be null");
+		}
+		this.stats = stats;
+	}
+	
+	/**
+	 * Set the listener notified as tracks and blocks are closed. Must be set before loading starts.
+	 * @param trackListener the new <tt>TrackListener</tt>, or null to remove the listener.
+	 */
+	public void setTrackListener(TrackListener trackListener) {
+		this.trackListener = trackListener;
+	}
+	
+	/**
+	 * Mark the loading process as complete, if processing finished normally, and notify the listener.
+	 */
+	private void complete() {
+		// Time to stop if not in PROCESSING state
+		if(state != STATE_PROCESSING) {
+			return;
+		}
+		
+		// Publish the final snapshot before setting state, so it is visible to threads that see the state
+		data = builder.getSnapshot();
+		
+		// Set loader state
+		state = STATE_COMPLETE;
+		
+		// Notify listener, with final progress
+		metrics.processingComplete();
+		if(l != null) {
+			l.progressUpdated(metrics);
+			l.completed(data.size());
+		}
+	}
+	
+	/**
+	 * Set the loading mode. Must be set before loading starts.
+	 * @param loadMode constant indicating the loading mode.
+	 * @throws IllegalArgumentException if the mode is not valid, or the parser does not support the mode.
+	 * @see #LOAD_MODE_BATCH
+	 * @see #LOAD_MODE_PIPELINED
+	 * @see #LOAD_MODE_STREAMING
+	 */
+	public void setLoadMode(int loadMode) {
+		// Validate mode input
+		if(loadMode != LOAD_MODE_BATCH && loadMode != LOAD_MODE_PIPELINED && loadMode != LOAD_MODE_STREAMING) {
+			throw new IllegalArgumentException(String.format("Invalid load mode (%d)", loadMode));
+		}
+		if(loadMode == LOAD_MODE_PIPELINED && ! (parser instanceof RecordParser)) {
+			throw new IllegalArgumentException("Parser does not support pipelined loading");
+		}
+		this.loadMode = loadMode;
+	}
+	
+	/**
+	 * Set a check run between batches of points in streaming mode, which may block to let other loads run first.
+	 * Must be set before loading starts.
+	 * @param pause the check to run, or null to load without pausing.
+	 * @see #LOAD_MODE_STREAMING
+	 */
+	void setPause(Runnable pause) {
+		this.pause = pause;
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Runnable#run()
 	 */
 	public void run() {
-		// Set initial state
-		state = STATE_LOADING;
+		synchronized(this) {
+			// Start unless already cancelled
+			if(state != STATE_CANCELLED) {
+				// Set initial state
+				state = STATE_LOADING;
+				
+				// Set running flag
+				running = true;
+			}
+		}
+		if(! running) {
+			// Cancelled before starting
+			if(l != null) {
+				l.aborted();
+			}
+			endPublishing();
+			return;
+		}
 		
-		// Set running flag
-		running = true;
-
+		metrics.startLoading();
+		long mark = stats.allocationMark();
+		try {
+			switch(loadMode) {
+				case LOAD_MODE_PIPELINED:
+					runPipelined();
+					break;
+				case LOAD_MODE_STREAMING:
+					runStreaming();
+					break;
+				default:
+					runBatch();
+			}
+		} finally {
+			stats.allocatedSince(mark);
+			endPublishing();
+		}
+	}
+	
+	/**
+	 * Load and process data in a pipeline of stages, each running in its own thread and passing batches of
+	 * records to the next stage. Elements are classified in the current thread as soon as points are available.
+	 */
+	private void runPipelined() {
+		RecordParser rp = (RecordParser) parser;
+		
+		// Create queues between stages
+		BlockingQueue<List<RawRecord>> records = new ArrayBlockingQueue<List<RawRecord>>(QUEUE_SIZE);
+		BlockingQueue<List<Datum>> parsed = new ArrayBlockingQueue<List<Datum>>(QUEUE_SIZE);
+		BlockingQueue<List<Datum>> projected = (rp.requiresProjection() ? new ArrayBlockingQueue<List<Datum>>(QUEUE_SIZE) : parsed);
+		BlockingQueue<List<Datum>> interpolated = new ArrayBlockingQueue<List<Datum>>(QUEUE_SIZE);
+		
+		// Create stages
+		ArrayList<Thread> stageList = new ArrayList<Thread>();
+		ReadStage reader = new ReadStage(rp, records);
+		stageList.add(reader);
+		stageList.add(new ParseStage(rp, reader, records, parsed));
+		if(projected != parsed) {
+			stageList.add(new ProjectStage(parsed, projected));
+		}
+		stageList.add(new InterpolateStage(projected, interpolated));
+		
+		// Create SkiData constructs
+		builder = new SkiDataBuilder(new PublishingTrackListener(), retainData, stats);
+		loaded = false;
+		stageError = null;
+		
+		// Start stages
+		Thread[] stages = stageList.toArray(new Thread[stageList.size()]);
+		this.owner = Thread.currentThread();
+		this.stages = stages;
+		for(Thread stage : stages) {
+			stage.start();
+		}
+		
+		// Create window of elements, filled as points become available
+		metrics.startProcessing();
+		ElemWindow eWin = new ElemWindow(WINDOW_SIZE);
+		ElementClassifier classifier = new ElementClassifier(proc, eWin, builder, stats);
+		
+		try {
+			// Take batches of points until end of data is reached
+			List<Datum> batch = interpolated.take();
+			while(running && ! batch.isEmpty()) {
+				for(Datum d : batch) {
+					offer(eWin, d);
+					classifyAvailable(classifier);
+				}
+				batch = interpolated.take();
+			}
+			if(running) {
+				// Process the remaining elements in the window
+				eWin.close();
+				classifyAvailable(classifier);
+			}
+			if(state == STATE_CANCELLED) {
+				// Notify listener
+				if(l != null) {
+					l.aborted();
+				}
+			}
+		} catch(InterruptedException ie) {
+			if(stageError != null) {
+				// Interrupted by a failed stage
+				handleProcessingException(stageError);
+			} else if(state == STATE_CANCELLED) {
+				// Notify listener
+				if(l != null) {
+					l.aborted();
+				}
+			}
+		} catch(RuntimeException re) {
+			handleProcessingException(re);
+		} finally {
+			// Stop any stages still running, and wait for them to stop so none is still adding to the data
+			for(Thread stage : stages) {
+				stage.interrupt();
+			}
+			joinStages(stages);
+			// Clear interrupted flag, which may have been set by a failed stage
+			Thread.interrupted();
+			
+			// Close off open data sets
+			builder.closeAll();
+			
+			owner = null;
+			stages = null;
+		}
+		
+		// A stage may have failed after the last batch was taken, without interrupting a wait for the next
+		if(stageError != null && state != STATE_ERROR) {
+			handleProcessingException(stageError);
+		}
+		
+		// Complete processing
+		complete();
+	}
+	
+	/**
+	 * Wait for pipeline stages to stop, for no longer than <tt>STAGE_STOP_TIMEOUT</tt> in total. Waiting continues if
+	 * the current thread is interrupted, as a cancelled load must still wait for its stages.
+	 * @param stages the stage threads, which should already have been interrupted.
+	 */
+	private static void joinStages(Thread[] stages) {
+		long deadline = System.currentTimeMillis() + STAGE_STOP_TIMEOUT;
+		for(Thread stage : stages) {
+			long wait = deadline - System.currentTimeMillis();
+			while(stage.isAlive() && wait > 0) {
+				try {
+					stage.join(wait);
+				} catch(InterruptedException ie) {
+					// Keep waiting until the deadline
+				}
+				wait = deadline - System.currentTimeMillis();
+			}
+		}
+	}
+	
+	/**
+	 * Classify all elements available in the window, reporting progress to the listener when due.
+	 * @param classifier the classifier to process elements with.
+	 */
+	private void classifyAvailable(ElementClassifier classifier) {
+		TrackElement elem;
+		while(running && (elem = classifier.classifyNext()) != null) {
+			// Send element to subscribers
+			elementPublisher.publish(elem);
+			
+			// Update listener
+			metrics.elementProcessed();
+			reportProgress();
+		}
+	}
+	
+	/**
+	 * Add a point to the element window, timing the creation of its element.
+	 * @param eWin the window to add the point to.
+	 * @param d the point to add.
+	 */
+	private void offer(ElemWindow eWin, Datum d) {
+		long t = stats.start();
+		eWin.offer(d);
+		stats.stop(Stage.WINDOW, t);
+	}
+	
+	/**
+	 * Read, parse and project the next point from the parser, timing each step. Records that cannot be parsed are
+	 * rejected and the next record read. Parsers that cannot perform the steps separately are timed as reads.
+	 * @return the next projected <tt>Datum</tt>, or null if the end of the data has been reached.
+	 * @throws IOException if an error occurs reading from the parser.
+	 */
+	private Datum readPoint() throws IOException {
+		if(! (parser instanceof RecordParser)) {
+			long t = stats.start();
+			Datum d = parser.readDatum();
+			stats.stop(Stage.READ, t);
+			return d;
+		}
+		RecordParser rp = (RecordParser) parser;
+		while(true) {
+			long t = stats.start();
+			String record = rp.readRecord();
+			stats.stop(Stage.READ, t);
+			if(record == null) {
+				// Reached end of source
+				return null;
+			}
+			try {
+				t = stats.start();
+				Datum d = rp.parseRecord(record, rp.getLineNumber());
+				stats.stop(Stage.PARSE, t);
+				if(d != null && rp.requiresProjection()) {
+					t = stats.start();
+					d.project();
+					stats.stop(Stage.PROJECT, t);
+				}
+				return d;
+			} catch(ParseException pe) {
+				// Handle ParseException and try next record
+				stats.recordRejected();
+				rp.rejectRecord(record, pe);
+			}
+		}
+	}
+	
+	/**
+	 * Report progress to the listener, if a report is due.
+	 */
+	private void reportProgress() {
+		if(l != null && metrics.isReportDue()) {
+			l.progressUpdated(metrics);
+		}
+	}
+	
+	/**
+	 * Stop the pipeline after an exception is thrown in one of its stages.
+	 * @param e the <tt>Exception</tt> thrown.
+	 */
+	private synchronized void stageFailed(Exception e) {
+		if(stageError == null && running) {
+			stageError = e;
+			
+			// Set running flag
+			running = false;
+			
+			// Interrupt all threads in the pipeline
+			Thread o = owner;
+			if(o != null) {
+				o.interrupt();
+			}
+			Thread[] s = stages;
+			if(s != null) {
+				for(Thread stage : s) {
+					stage.interrupt();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Load and process data a point at a time in the current thread. Each point is interpolated and classified as
+	 * soon as it is read, and unlinked from the path once it has been passed to the element window, so only the
+	 * points in the window are held in memory.
+	 */
+	private void runStreaming() {
+		// Initialise counter
+		int len = 0;
+		
+		// Create SkiData constructs
+		builder = new SkiDataBuilder(new PublishingTrackListener(), retainData, stats);
+		
+		// Create window of elements, filled as points are read
+		metrics.startProcessing();
+		ElemWindow eWin = new ElemWindow(WINDOW_SIZE);
+		ElementClassifier classifier = new ElementClassifier(proc, eWin, builder, stats);
+		
+		try {
+			// Skip rows
+			for(int i = 0; i < start; i ++) {
+				parser.skipLine();
+			}
+			
+			// Loop through data
+			Cadence cadence = new Cadence();
+			Datum prev = null;
+			Datum d = readPoint();
+			while(running && d != null) {
+				// Increment counter
+				len ++;
+				metrics.pointLoaded();
+				
+				if(prev != null) {
+					// Link to previous point and add any interpolated points to the window
+					long t = stats.start();
+					int added = DatumInterpolator.interpolate(prev, d, gapPolicy, cadence);
+					stats.stop(Stage.INTERPOLATE, t);
+					if(added < 0) {
+						// Point is earlier than the previous point, so reject it and read the next
+						stats.recordRejected();
+						d = (max < 0 || max > len ? readPoint() : null);
+						continue;
+					}
+					metrics.pointsInterpolated(added);
+					Datum i = prev.getNext();
+					while(i != d) {
+						Datum next = i.getNext();
+						offer(eWin, i);
+						classifyAvailable(classifier);
+						i = next;
+					}
+				}
+				
+				// Add point to the window
+				offer(eWin, d);
+				classifyAvailable(classifier);
+				
+				// Set previous element to this element
+				prev = d;
+				
+				// Give way to other loads between batches
+				if(pause != null && len % BATCH_SIZE == 0) {
+					pause.run();
+				}
+				
+				// Read next point
+				d = (max < 0 || max > len ? readPoint() : null);
+			}
+			
+			if(running) {
+				if(len == 0) {
+					// Notify listener
+					if(l != null) {
+						l.emptyData();
+					}
+				}
+				
+				// Notify listener
+				metrics.loadingComplete();
+				if(l != null) {
+					l.loadingComplete(len);
+				}
+				
+				// Set loader state
+				state = STATE_PROCESSING;
+				
+				// Process the remaining elements in the window
+				eWin.close();
+				classifyAvailable(classifier);
+			}
+			if(state == STATE_CANCELLED) {
+				// Notify listener
+				if(l != null) {
+					l.aborted();
+				}
+			}
+		} catch(IOException ioe) {
+			// Unrecoverable IOException during data load
+			handleProcessingException(ioe);
+		} catch(RuntimeException re) {
+			handleProcessingException(re);
+		} finally {
+			// Close off open data sets
+			builder.closeAll();
+		}
+		
+		// Complete processing
+		complete();
+	}
+	
+	/**
+	 * Load all data from the parser into a linked path, then interpolate and process the complete path.
+	 */
+	private void runBatch() {
 		// Initialise counter 
 		int len = 0;
 		
@@ -204,18 +864,27 @@ public class DataLoader implements Runnable
 			// Loop through data
 			do {
 				// Read next point
-				Datum d = parser.readDatum();
+				Datum d = readPoint();
+				
+				// Increment counter
+				len ++;
+				if(d != null) {
+					metrics.pointLoaded();
+					reportProgress();
+				}
+				
 				if(first == null) {
 					// Record first point
 					first = d;
+				} else if(d != null && d.t < prev.t) {
+					// Point is earlier than the previous point, so reject it and read the next
+					stats.recordRejected();
+					continue;
 				} else {
 					// Add point to chain
 					prev.setNext(d);
 				}
 				
-				// Increment counter
-				len ++;
-				
 				// Set previous element to this element
 				prev = d;
 			} while(running && prev != null && (max < 0 || max > len));
@@ -242,12 +911,13 @@ public class DataLoader implements Runnable
 				l.emptyData();
 			}
 		}
-
+		
 		// Notify listener
+		metrics.loadingComplete();
 		if(l != null) {
 			l.loadingComplete(len);
 		}
-
+		
 		// Time to stop if not in LOADING state.
 		if(state != STATE_LOADING) {
 			return;
@@ -256,71 +926,50 @@ public class DataLoader implements Runnable
 		// Start processing data
 		// Set loader state
 		state = STATE_PROCESSING;
-
+		
 		// Interpolate data
-		len = DatumInterpolator.interpolateList(first);
-		System.out.println("Interpolated " + DatumInterpolator.ct + " points.");
+		metrics.startProcessing();
+		long t = stats.start();
+		len = DatumInterpolator.interpolateList(first, false, gapPolicy);
+		stats.stop(Stage.INTERPOLATE, t);
+		metrics.pointsInterpolated(len - metrics.getPointCount());
 		
 		// Create SkiData constructs
-		Mode currentMode = Mode.STOP;
-		data = new SkiData();
+		builder = new SkiDataBuilder(new PublishingTrackListener(), retainData, stats);
 		
-		// Create window of 20 elements long
-		ElemWindow eWin = new ElemWindow(first, 20);
+		// Create window of elements over the complete path
+		ElemWindow eWin = new ElemWindow(first, WINDOW_SIZE);
+		ElementClassifier classifier = new ElementClassifier(proc, eWin, builder, stats);
 		
-		synchronized(data) {
-			try {
-				// Get next data element
-				TrackElement elem = eWin.next();
+		try {
+			// Loop through all data
+			TrackElement elem;
+			while(running && (elem = classifier.classifyNext()) != null) {
+				// Send element to subscribers
+				elementPublisher.publish(elem);
 				
-				// Loop through all data
-				while(running && elem != null) {
-					// Process element
-					currentMode = proc.processElement(currentMode, elem, eWin);
-						
-					// Set element mode
-					elem.setMode(currentMode);
-						
-					// Add the element to data set
-					data.addElement(elem);
-						
-					// Update listener
-					if(l != null) {
-						l.processedElement(data.size(), len);
-					}
-						
-					// Get next data element
-					elem = eWin.next();
-						
-					// Sleep for 10ms
-					//Thread.sleep(10);
-				}
-				if(state == STATE_CANCELLED) {
-					// Notify listener
-					if(l != null) {
-						l.aborted();
-					}
+				// Update listener
+				metrics.elementProcessed();
+				reportProgress();
+					
+				// Sleep for 10ms
+				//Thread.sleep(10);
+			}
+			if(state == STATE_CANCELLED) {
+				// Notify listener
+				if(l != null) {
+					l.aborted();
 				}
-			} catch(RuntimeException re) {
-				handleProcessingException(re);
-			} finally {
-				// Close off open data sets
-				data.closeAll();
 			}
+		} catch(RuntimeException re) {
+			handleProcessingException(re);
+		} finally {
+			// Close off open data sets
+			builder.closeAll();
 		}
 		
-		// Time to stop if not in PROCESSING state
-		if(state != STATE_PROCESSING) {
-			return;
-		}
-		
-		// Set loader state
-		state = STATE_COMPLETE;
-		
-		// Notify listener
-		if(l != null) {
-			l.completed(data.size());
-		}
+		// Complete processing
+		complete();
 	}
 	
 	/**
@@ -335,30 +984,400 @@ public class DataLoader implements Runnable
 		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#aborted()
 		 */
 		public void aborted() {}
-
+		
 		/* (non-Javadoc)
 		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#completed(int)
 		 */
 		public void completed(int elementCount) {}
-
+		
 		/* (non-Javadoc)
 		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#emptyData()
 		 */
 		public void emptyData() {}
-
+		
 		/* (non-Javadoc)
 		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#loadingError(java.lang.Exception)
 		 */
 		public void error(Exception e) {}
-
+		
 		/* (non-Javadoc)
 		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#loadingComplete(int)
 		 */
 		public void loadingComplete(int count) {}
-
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#progressUpdated(uk.co.essarsoftware.ski.data.LoadMetrics)
+		 */
+		public void progressUpdated(LoadMetrics metrics) {}
+	}
+	
+	/**
+	 * <p>Track listener that sends closed tracks to subscribers, then notifies the loader's track listener.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class PublishingTrackListener implements TrackListener
+	{
 		/* (non-Javadoc)
-		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#processedElement(int, int)
+		 * @see uk.co.essarsoftware.ski.data.TrackListener#blockClosed(uk.co.essarsoftware.ski.data.TrackBlock)
+		 */
+		public void blockClosed(TrackBlock block) {
+			if(trackListener != null) {
+				trackListener.blockClosed(block);
+			}
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.TrackListener#trackClosed(uk.co.essarsoftware.ski.data.Track)
+		 */
+		public void trackClosed(Track track) {
+			trackPublisher.publish(track);
+			if(trackListener != null) {
+				trackListener.trackClosed(track);
+			}
+		}
+	}
+	
+	/**
+	 * <p>Pipeline stage that takes batches of items from an input queue, processes them and passes batches of
+	 * results to an output queue. An empty batch marks the end of the data.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private abstract class PipelineStage<I, O> extends Thread
+	{
+		// Input and output queues
+		private final BlockingQueue<List<I>> in;
+		private final BlockingQueue<List<O>> out;
+		
+		/**
+		 * Create a new pipeline stage.
+		 * @param name the name of the stage thread.
+		 * @param in the queue to take input batches from.
+		 * @param out the queue to put output batches on.
 		 */
-		public void processedElement(int count, int max) {}
+		PipelineStage(String name, BlockingQueue<List<I>> in, BlockingQueue<List<O>> out) {
+			super(name);
+			setDaemon(true);
+			this.in = in;
+			this.out = out;
+		}
+		
+		/**
+		 * Called once the end of the data has been reached.
+		 */
+		void finish() {
+		}
+		
+		/**
+		 * Process a batch of input items.
+		 * @param batch the batch of input items.
+		 * @param output list to add processed items to.
+		 * @return true if processing should continue, false if the end of the data has been reached.
+		 * @throws Exception if an error occurs processing the batch.
+		 */
+		abstract boolean process(List<I> batch, List<O> output) throws Exception;
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Thread#run()
+		 */
+		@Override
+		public void run() {
+			long mark = stats.allocationMark();
+			try {
+				boolean more = true;
+				while(running && more) {
+					// Take and process next batch
+					List<I> batch = in.take();
+					List<O> output = new ArrayList<O>(BATCH_SIZE);
+					more = (! batch.isEmpty() && process(batch, output));
+					
+					// Pass processed items to next stage
+					if(! output.isEmpty()) {
+						out.put(output);
+					}
+				}
+				if(running) {
+					finish();
+					
+					// Mark end of data
+					out.put(Collections.<O>emptyList());
+				}
+			} catch(InterruptedException ie) {
+				// Pipeline has been stopped
+			} catch(Exception e) {
+				stageFailed(e);
+			} finally {
+				stats.allocatedSince(mark);
+			}
+		}
+	}
+	
+	/**
+	 * <p>Raw record passed from the read stage to the parse stage, with the line number it was read from. The
+	 * line number is taken as the record is read, as the reader will have moved on by the time it is parsed.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private static final class RawRecord
+	{
+		// Record text and line number
+		final String text;
+		final int lineNumber;
+		
+		/**
+		 * Create a new raw record.
+		 * @param text the text of the record.
+		 * @param lineNumber the line number the record was read from.
+		 */
+		RawRecord(String text, int lineNumber) {
+			this.text = text;
+			this.lineNumber = lineNumber;
+		}
+	}
+	
+	/**
+	 * <p>Pipeline stage that reads raw records from the parser.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class ReadStage extends Thread
+	{
+		// Record parser
+		private final RecordParser rp;
+		// Output queue
+		private final BlockingQueue<List<RawRecord>> out;
+		
+		/**
+		 * Create a new read stage.
+		 * @param rp the parser to read records from.
+		 * @param out the queue to put batches of records on.
+		 */
+		ReadStage(RecordParser rp, BlockingQueue<List<RawRecord>> out) {
+			super("DataLoader-read");
+			setDaemon(true);
+			this.rp = rp;
+			this.out = out;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Thread#run()
+		 */
+		@Override
+		public void run() {
+			long mark = stats.allocationMark();
+			try {
+				// Skip rows
+				for(int i = 0; i < start; i ++) {
+					rp.skipLine();
+				}
+				
+				// Read records into batches
+				List<RawRecord> batch = new ArrayList<RawRecord>(BATCH_SIZE);
+				long t = stats.start();
+				String record = rp.readRecord();
+				stats.stop(Stage.READ, t);
+				while(running && ! loaded && record != null) {
+					batch.add(new RawRecord(record, rp.getLineNumber()));
+					if(batch.size() == BATCH_SIZE) {
+						out.put(batch);
+						batch = new ArrayList<RawRecord>(BATCH_SIZE);
+					}
+					t = stats.start();
+					record = rp.readRecord();
+					stats.stop(Stage.READ, t);
+				}
+				if(! batch.isEmpty()) {
+					out.put(batch);
+				}
+				
+				// Mark end of data
+				out.put(Collections.<RawRecord>emptyList());
+			} catch(InterruptedException ie) {
+				// Pipeline has been stopped
+			} catch(IOException ioe) {
+				// Unrecoverable IOException during data load, unless all required records have been loaded
+				if(! loaded) {
+					stageFailed(ioe);
+				}
+			} finally {
+				stats.allocatedSince(mark);
+			}
+		}
+	}
+	
+	/**
+	 * <p>Pipeline stage that parses raw records into points.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class ParseStage extends PipelineStage<RawRecord, Datum>
+	{
+		// Number of points loaded
+		private int count;
+		// Record parser
+		private final RecordParser rp;
+		// Read stage
+		private final Thread reader;
+		
+		/**
+		 * Create a new parse stage.
+		 * @param rp the parser used to parse records.
+		 * @param reader the stage reading records, stopped once the required records have been loaded.
+		 * @param in the queue to take batches of records from.
+		 * @param out the queue to put batches of points on.
+		 */
+		ParseStage(RecordParser rp, Thread reader, BlockingQueue<List<RawRecord>> in, BlockingQueue<List<Datum>> out) {
+			super("DataLoader-parse", in, out);
+			this.rp = rp;
+			this.reader = reader;
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoader.PipelineStage#finish()
+		 */
+		@Override
+		void finish() {
+			// Stop reading records
+			loaded = true;
+			reader.interrupt();
+			metrics.loadingComplete();
+			
+			if(count == 0) {
+				// Notify listener
+				if(l != null) {
+					l.emptyData();
+				}
+			}
+			
+			// Notify listener
+			if(l != null) {
+				l.loadingComplete(count);
+			}
+			
+			// Set loader state, holding the lock taken by cancel so a cancel is not overwritten
+			synchronized(DataLoader.this) {
+				if(state == STATE_LOADING) {
+					state = STATE_PROCESSING;
+				}
+			}
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoader.PipelineStage#process(java.util.List, java.util.List)
+		 */
+		@Override
+		boolean process(List<RawRecord> batch, List<Datum> output) {
+			for(RawRecord record : batch) {
+				if(max >= 0 && count >= max) {
+					// Loaded maximum points
+					return false;
+				}
+				try {
+					long t = stats.start();
+					Datum d = rp.parseRecord(record.text, record.lineNumber);
+					stats.stop(Stage.PARSE, t);
+					if(d == null) {
+						// Reached end of data
+						return false;
+					}
+					output.add(d);
+					count ++;
+					metrics.pointLoaded();
+				} catch(ParseException pe) {
+					// Handle ParseException and try next record
+					stats.recordRejected();
+					rp.rejectRecord(record.text, pe);
+				}
+			}
+			return true;
+		}
+	}
+	
+	/**
+	 * <p>Pipeline stage that projects points onto Cartesian coordinates.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class ProjectStage extends PipelineStage<Datum, Datum>
+	{
+		/**
+		 * Create a new projection stage.
+		 * @param in the queue to take batches of unprojected points from.
+		 * @param out the queue to put batches of projected points on.
+		 */
+		ProjectStage(BlockingQueue<List<Datum>> in, BlockingQueue<List<Datum>> out) {
+			super("DataLoader-project", in, out);
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoader.PipelineStage#process(java.util.List, java.util.List)
+		 */
+		@Override
+		boolean process(List<Datum> batch, List<Datum> output) {
+			for(Datum d : batch) {
+				long t = stats.start();
+				d.project();
+				stats.stop(Stage.PROJECT, t);
+				output.add(d);
+			}
+			return true;
+		}
+	}
+	
+	/**
+	 * <p>Pipeline stage that links points into a path and fills gaps between them.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class InterpolateStage extends PipelineStage<Datum, Datum>
+	{
+		// Sample rate of points processed
+		private final Cadence cadence = new Cadence();
+		// Last point processed
+		private Datum prev;
+		
+		/**
+		 * Create a new interpolation stage.
+		 * @param in the queue to take batches of points from.
+		 * @param out the queue to put batches of linked and interpolated points on.
+		 */
+		InterpolateStage(BlockingQueue<List<Datum>> in, BlockingQueue<List<Datum>> out) {
+			super("DataLoader-interpolate", in, out);
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoader.PipelineStage#process(java.util.List, java.util.List)
+		 */
+		@Override
+		boolean process(List<Datum> batch, List<Datum> output) {
+			for(Datum d : batch) {
+				if(prev != null) {
+					// Link to previous point and add any interpolated points
+					long t = stats.start();
+					int added = DatumInterpolator.interpolate(prev, d, gapPolicy, cadence);
+					stats.stop(Stage.INTERPOLATE, t);
+					if(added < 0) {
+						// Point is earlier than the previous point, so reject it
+						stats.recordRejected();
+						continue;
+					}
+					metrics.pointsInterpolated(added);
+					for(Datum i = prev.getNext(); i != d; i = i.getNext()) {
+						output.add(i);
+					}
+				}
+				output.add(d);
+				prev = d;
+			}
+			return true;
+		}
 	}
 }
@@ -48,9 +48,9 @@ public interface DataLoaderListener
 	public void loadingComplete(int count);
 	
 	/**
-	 * Called when an element has been processed.
-	 * @param count the number of elements processed so far.
-	 * @param max the total number of elements to be processed.
+	 * Called periodically while data is loaded and processed, and once processing has completed. Calls are
+	 * limited by the report interval of the loader, so may do more work than other methods.
+	 * @param metrics the <tt>LoadMetrics</tt> of the load, which continue to be updated after this call.
 	 */
-	public void processedElement(int count, int max);
+	public void progressUpdated(LoadMetrics metrics);
 }
@@ -21,6 +21,18 @@ import java.io.IOException;
  */
 public interface DataParser
 {
+	/**
+	 * Get the number of bytes read from the input source so far. May be called from any thread.
+	 * @return the number of bytes read, or -1 if not known.
+	 */
+	public long getBytesRead();
+	
+	/**
+	 * Get the size of the input source, as estimated when the parser was created.
+	 * @return the size in bytes, or -1 if not known.
+	 */
+	public long getSourceLength();
+	
 	/**
 	 * Read the next <tt>Datum</tt> object from the input source.
 	 * @return the parsed <tt>Datum</tt> object, or null if end of source has been reached.
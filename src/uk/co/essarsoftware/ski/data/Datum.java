@@ -14,6 +14,10 @@ package uk.co.essarsoftware.ski.data;
 import java.io.Serializable;
 import java.util.Date;
 
+import uk.co.essarsoftware.ski.geo.CoordConverter;
+import uk.co.essarsoftware.ski.geo.UTMCoordinate;
+import uk.co.essarsoftware.ski.geo.WGSCoordinate;
+
 /**
  * <p>Class representing a single item of ski-GPS data.</p>
  * <p>Holds latitude and longitude, Cartesian X and Y, altitude and speed. <tt>Datum</tt> objects can
@@ -31,7 +35,7 @@ class Datum implements Serializable
 	
 	// Holds the next chained datum object
 	private Datum next;
-	/** Long holding GPS time in seconds. */
+	/** Long holding GPS time in milliseconds. */
 	final long t;
 	
 	/** Float holding GPS latitude. */
@@ -45,11 +49,17 @@ class Datum implements Serializable
 	/** Integer holding GPS altitude. */
 	final int a;
 	
-	/** Integer holding Cartesian X coordinate. */
-	final int x;
+	/** Integer holding Cartesian X coordinate, set on construction or when the point is projected. */
+	int x;
+	
+	/** Integer holding Cartesian Y coordinate, set on construction or when the point is projected. */
+	int y;
 	
-	/** Integer holding Cartesian Y coordinate. */
-	final int y;
+	/** Integer holding the type of gap preceding this point, as classified by a <tt>GapPolicy</tt>. */
+	int gap;
+	
+	/** Integer holding the length of the gap preceding this point in milliseconds, if it was not interpolated. */
+	int gapTime;
 	
 	/**
 	 * Create a new <tt>Datum</tt> object, holding data from a GPS point, using a <tt>Date</tt> object.
@@ -62,18 +72,26 @@ class Datum implements Serializable
 	 * @param s GPS speed.
 	 */
 	Datum(Date t, float la, float lo, int x, int y, int a, float s) {
-		this(t.getTime() / 1000, la, lo, x, y, a, s);
+		this(t.getTime(), la, lo, x, y, a, s);
 	}
 	
-	/*Datum(long t, float la, float lo, int a, float s) {
-		// Perform coordinate conversion
-		UTMCoordinate utm = CoordConverter.WGS2UTM(new WGSCoordinate(la, lo, WGSCoordinate.COORD_MODE_DEG));
-		this(t, la, lo, utm.getX(), utm.getY(), a, s);
-	}*/
+	/**
+	 * Create a new <tt>Datum</tt> object, holding data from a GPS point, without Cartesian coordinates.
+	 * The point must be projected before it is used in a track.
+	 * @param t GPS Date.
+	 * @param la GPS latitude.
+	 * @param lo GPS longitude.
+	 * @param a GPS altitude.
+	 * @param s GPS speed.
+	 * @see #project()
+	 */
+	Datum(Date t, float la, float lo, int a, float s) {
+		this(t.getTime(), la, lo, 0, 0, a, s);
+	}
 	
 	/**
 	 * Create a new <tt>Datum</tt> object, holding data from a GPS point, using a GPS time stamp.
-	 * @param t GPS time in seconds.
+	 * @param t GPS time in milliseconds.
 	 * @param la GPS latitude.
 	 * @param lo GPS longitude.
 	 * @param x Cartesian X coordinate.
@@ -99,6 +117,16 @@ class Datum implements Serializable
 		return next;
 	}
 	
+	/**
+	 * Calculate the Cartesian X and Y coordinates of this point from the GPS latitude and longitude.
+	 */
+	void project() {
+		// Perform coordinate conversion
+		UTMCoordinate utm = CoordConverter.WGS2UTM(new WGSCoordinate(la, lo, WGSCoordinate.COORD_MODE_DEG));
+		x = utm.getX();
+		y = utm.getY();
+	}
+	
 	/**
 	 * Set the next GPS datum point in the list. 
 	 * @param next a <tt>Datum</tt> object that is after this in the path.
@@ -107,14 +135,25 @@ class Datum implements Serializable
 		this.next = next;
 	}
 	
+	/**
+	 * Parse the fraction of a second written after the decimal point of a time stamp. Digits beyond milliseconds
+	 * are ignored.
+	 * @param fraction the digits after the decimal point.
+	 * @return the fraction in milliseconds.
+	 * @throws NumberFormatException if the fraction is not a number.
+	 */
+	static int parseMillis(String fraction) {
+		return Integer.parseInt((fraction + "000").substring(0, 3));
+	}
+	
 	/**
 	 * Get the GPS time as a Date object.
 	 * @return GPS time.
 	 */
 	public Date getTimeAsDate() {
-		return (new Date(t * 1000L));
+		return (new Date(t));
 	}
-
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
@@ -8,10 +8,8 @@ package uk.co.essarsoftware.ski.data;
  */
 class DatumInterpolator
 {
-	static int ct = 0;
-	
 	// Look at the time of each of the input points
-	// If time gap between one point and the next is greater than one, average out values
+	// If time gap between one point and the next is greater than one sample, average out values
 	
 	/**
 	 * Linearly interpolate between two floating point numbers.
@@ -28,18 +26,18 @@ class DatumInterpolator
 	}
 	
 	/**
-	 * Linearly interpolate between two long numbers, rounded down to the nearest long integer value.
+	 * Linearly interpolate between two times, rounded down to the nearest whole sample interval.
 	 */
-	private static long linearInterpolate(long l1, long l2) {
-		return l1 + ((l2 - l1) / 2);
+	private static long linearInterpolate(long l1, long l2, long interval) {
+		return l1 + (((l2 - l1) / interval) / 2) * interval;
 	}
-
+	
 	/**
 	 * Linearly interpolate the x, y, latitude, longitude, altitude, speed and time of two Datum points.
 	 * If the x, y and altitude change between the two points is unchanged, speed is forced to 0. 
 	 */
-	private static Datum linearInterpolate(Datum p1, Datum p2) {
-		long t = linearInterpolate(p1.t, p2.t);
+	private static Datum linearInterpolate(Datum p1, Datum p2, long interval) {
+		long t = linearInterpolate(p1.t, p2.t, interval);
 		float la = linearInterpolate(p1.la, p2.la);
 		float lo = linearInterpolate(p1.lo, p2.lo);
 		int x = linearInterpolate(p1.x, p2.x);
@@ -53,7 +51,64 @@ class DatumInterpolator
 	}
 	
 	/**
-	 * Interpolate across a set of <tt>Datum</tt> points, filling any gaps.
+	 * Fill the gap between a point and the next point in its path. Interpolated points are added if the policy
+	 * allows the gap to be interpolated, otherwise the next point is marked with the gap type.
+	 * @param thisPoint the <tt>Datum</tt> point before the gap.
+	 * @param policy the policy used to classify the gap.
+	 * @param interval the interval between samples, in milliseconds.
+	 * @return the number of points added.
+	 */
+	private static int fillGap(Datum thisPoint, GapPolicy policy, long interval) {
+		int added = 0;
+		long timeDelta = thisPoint.getNext().t - thisPoint.t;
+		int gap = policy.classify(timeDelta, interval);
+		if(gap == GapPolicy.GAP_INTERPOLATE) {
+			while(timeDelta / interval > 1) {
+				// Create a new interpolated point and insert into list
+				Datum newPoint = linearInterpolate(thisPoint, thisPoint.getNext(), interval);
+				newPoint.setNext(thisPoint.getNext());
+				thisPoint.setNext(newPoint);
+				// Increase interpolation count
+				added ++;
+				
+				// Recalculate delta
+				timeDelta = thisPoint.getNext().t - thisPoint.t;
+			}
+		} else {
+			// Mark the gap type and length on the next point, rather than filling the gap
+			thisPoint.getNext().gap = gap;
+			thisPoint.getNext().gapTime = (int) Math.min(Integer.MAX_VALUE, timeDelta);
+		}
+		return added;
+	}
+	
+	/**
+	 * Link two consecutive <tt>Datum</tt> points and fill any gap between them. Used to interpolate points as
+	 * they are loaded, rather than across a complete list.
+	 * @param p1 the earlier point.
+	 * @param p2 the later point.
+	 * @param policy the policy used to classify the gap.
+	 * @param cadence the sample rate of the points loaded so far, updated with the time between the two points.
+	 * @return the number of points added between the two points, or -1 if the later point is timed before the
+	 * earlier point, in which case the points are not linked and the later point should be rejected.
+	 */
+	static int interpolate(Datum p1, Datum p2, GapPolicy policy, Cadence cadence) {
+		if(p2.t < p1.t) {
+			return -1;
+		}
+		p1.setNext(p2);
+		cadence.update(p2.t - p1.t);
+		
+		// Fill each gap between the two points until the later point is reached
+		int added = 0;
+		for(Datum thisPoint = p1; thisPoint != p2; thisPoint = thisPoint.getNext()) {
+			added += fillGap(thisPoint, policy, cadence.getInterval());
+		}
+		return added;
+	}
+	
+	/**
+	 * Interpolate across a set of <tt>Datum</tt> points, filling any gaps using the default gap policy.
 	 * @param firstPoint the first point of the list to interpolate.
 	 */
 	static int interpolateList(Datum firstPoint) {
@@ -61,35 +116,41 @@ class DatumInterpolator
 	}
 	
 	/**
-	 * Interpolate across a set of <tt>Datum</tt> points, filling any gaps and optionally removing duplicate points.
+	 * Interpolate across a set of <tt>Datum</tt> points, filling any gaps using the default gap policy and
+	 * optionally removing duplicate points.
 	 * @param firstPoint the first <tt>Datum</tt> point in a linked path.
 	 * @param removeDups whether to remove duplicated points (by time stamp).
 	 * @return the new length of the datum path.
 	 */
 	static int interpolateList(Datum firstPoint, boolean removeDups) {
+		return interpolateList(firstPoint, removeDups, GapPolicy.DEFAULT);
+	}
+	
+	/**
+	 * Interpolate across a set of <tt>Datum</tt> points and optionally remove duplicate points. Gaps are filled or
+	 * marked according to the specified policy; points are only added for gaps the policy allows to be interpolated.
+	 * Points timed before the point they follow are removed.
+	 * @param firstPoint the first <tt>Datum</tt> point in a linked path.
+	 * @param removeDups whether to remove duplicated points (by time stamp).
+	 * @param policy the policy used to classify gaps.
+	 * @return the new length of the datum path.
+	 */
+	static int interpolateList(Datum firstPoint, boolean removeDups, GapPolicy policy) {
+		Cadence cadence = new Cadence();
 		Datum thisPoint = firstPoint;
 		int len = 1;
 		while(thisPoint.getNext() != null) {
-			int timeDelta = (int) (thisPoint.getNext().t - thisPoint.t);
+			long timeDelta = thisPoint.getNext().t - thisPoint.t;
 			if(removeDups && timeDelta <= 0) {
 				// Remove the point and re-calculate
 				thisPoint.setNext(thisPoint.getNext().getNext());
 				len --;
+			} else if(timeDelta < 0) {
+				// Unlink a point earlier than the previous point, as loaders reject it
+				thisPoint.setNext(thisPoint.getNext().getNext());
 			} else {
-				if(timeDelta < 0) {
-					System.out.println(" ** WARN! Negative time delta (" + timeDelta + ") at position " + len);
-				}
-				while(timeDelta > 1) {
-					// Create a new interpolated point and insert into list
-					Datum newPoint = linearInterpolate(thisPoint, thisPoint.getNext());
-					newPoint.setNext(thisPoint.getNext());
-					thisPoint.setNext(newPoint);
-					// Increase interpolation count
-					ct ++;
-
-					// Recalculate delta
-					timeDelta = (int) (thisPoint.getNext().t - thisPoint.t);
-				}
+				cadence.update(timeDelta);
+				fillGap(thisPoint, policy, cadence.getInterval());
 				
 				// Move to next point
 				thisPoint = thisPoint.getNext();
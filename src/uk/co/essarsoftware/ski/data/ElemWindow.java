@@ -15,34 +15,194 @@ import java.util.LinkedList;
 
 /**
  * <p>Moving window of elements, used to look forward and analyse data paths.</p>
+ * <p>The window holds a fixed number of seconds of data, so it holds more elements when points are recorded more
+ * than once a second. Statistics are kept up to date as elements enter and leave the window, so each one is read
+ * in constant time however large the window. Altitude and movement ratios are measured over each second of data
+ * rather than each point, so they do not depend on the sample rate.</p>
  *
  * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
  * @version 1.0 (30 Nov 2011)
  */
 class ElemWindow
 {
+	// Flags recording the statistics each element counts towards
+	private static final int ASCENDING = 0x01;
+	private static final int DESCENDING = 0x02;
+	private static final int FLAT = 0x04;
+	private static final int MOVING = 0x08;
+	private static final int STOPPED = 0x10;
+	
+	// Length of the window, in seconds
+	private final int span;
+	// Indicates that no further points will be offered
+	private boolean closed;
+	// Sample rate of points added
+	private final Cadence cadence;
 	// Next datum point
 	private Datum d;
 	// Window of elements
 	private LinkedList<TrackElement> data;
 	
+	// Flags of each element in the window, in a ring starting at head
+	private int[] flags;
+	private int head;
+	// Altitude change and distance of the most recently added elements, in a ring indexed by the number added
+	private final int[] recentAlt;
+	private final float[] recentDist;
+	private int added;
+	// Altitude change, and number of elements moving or changing altitude, over the last second of elements added
+	private int secAlt, secChanged, secMoving;
+	// Running statistics of the elements in the window
+	private int alt, ascending, descending, flat, moving, stopped;
+	
+	/**
+	 * Initialise a new, empty <tt>ElemWindow</tt> holding the specified length of data. Points are added to the
+	 * window as they become available using <tt>offer</tt>, and the window closed when no more points are available.
+	 * @param span the length of the window, in seconds.
+	 */
+	ElemWindow(int span) {
+		this.span = span;
+		cadence = new Cadence();
+		data = new LinkedList<TrackElement>();
+		flags = new int[span + 1];
+		recentAlt = new int[Cadence.MAX_RATE];
+		recentDist = new float[Cadence.MAX_RATE];
+	}
+	
 	/**
-	 * Initialise a new <tt>ElemWindow</tt> with the specified capacity, starting with the given <tt>Datum</tt> point.
-	 * Fills the window with datum elements.
+	 * Initialise a new <tt>ElemWindow</tt> holding the specified length of data, starting with the given
+	 * <tt>Datum</tt> point. Fills the window with datum elements.
 	 * @param dIn the first datum point in the track.
-	 * @param capacity the capacity or size of the window.
+	 * @param span the length of the window, in seconds.
 	 */
-	ElemWindow(Datum dIn, int capacity) {
+	ElemWindow(Datum dIn, int span) {
+		this(span);
+		// All points are already linked, so window is closed to new points
+		this.closed = true;
 		this.d = dIn;
-		data = new LinkedList<TrackElement>();
-		while(data.size() < capacity && d != null) {
-			data.addLast(new TrackElement(d));
+		while(data.size() < capacity() && d != null) {
+			add(d);
 			d = d.getNext();
 		}
 	}
-
+	
 	/**
-	 * Retrieve the first <tt>TrackElement</tt> in the window and adds the new datum point, if one is available.
+	 * Add an element for a datum point to the end of the window, updating the statistics to include it.
+	 * @param dp the datum point, linked to its next point if there is one.
+	 */
+	private void add(Datum dp) {
+		if(dp.getNext() != null && cadence.update(dp.getNext().t - dp.t)) {
+			// Rate has changed, so measure the last second at the new rate
+			recalculateSecond();
+		}
+		TrackElement elem = new TrackElement(dp);
+		
+		// Update the last second of elements
+		int rate = cadence.getRate();
+		if(added >= rate) {
+			int old = (added - rate) % recentAlt.length;
+			secAlt -= recentAlt[old];
+			secChanged -= (recentDist[old] > 0 || recentAlt[old] != 0 ? 1 : 0);
+			secMoving -= (recentDist[old] > 0 ? 1 : 0);
+		}
+		int ix = added % recentAlt.length;
+		recentAlt[ix] = elem.getAltitudeChange();
+		recentDist[ix] = elem.getDistance();
+		secAlt += recentAlt[ix];
+		secChanged += (recentDist[ix] > 0 || recentAlt[ix] != 0 ? 1 : 0);
+		secMoving += (recentDist[ix] > 0 ? 1 : 0);
+		added ++;
+		
+		// Flag the element with the statistics it counts towards
+		int f = (secAlt > 0 ? ASCENDING : (secAlt < 0 ? DESCENDING : FLAT));
+		f |= (secMoving > 0 ? MOVING : 0);
+		f |= (secChanged == 0 ? STOPPED : 0);
+		if(data.size() == flags.length) {
+			// Grow the ring of flags, starting it again at zero
+			int[] grown = new int[flags.length * 2];
+			for(int i = 0; i < flags.length; i ++) {
+				grown[i] = flags[(head + i) % flags.length];
+			}
+			flags = grown;
+			head = 0;
+		}
+		flags[(head + data.size()) % flags.length] = f;
+		count(elem, f, 1);
+		data.addLast(elem);
+	}
+	
+	/**
+	 * Get the number of elements the window holds at the current sample rate.
+	 * @return the capacity of the window.
+	 */
+	private int capacity() {
+		return span * cadence.getRate();
+	}
+	
+	/**
+	 * Add an element to, or remove an element from, the running statistics.
+	 * @param elem the element.
+	 * @param f the flags of the element.
+	 * @param n 1 to add the element, -1 to remove it.
+	 */
+	private void count(TrackElement elem, int f, int n) {
+		alt += n * elem.getAltitudeChange();
+		ascending += ((f & ASCENDING) != 0 ? n : 0);
+		descending += ((f & DESCENDING) != 0 ? n : 0);
+		flat += ((f & FLAT) != 0 ? n : 0);
+		moving += ((f & MOVING) != 0 ? n : 0);
+		stopped += ((f & STOPPED) != 0 ? n : 0);
+	}
+	
+	/**
+	 * Measure the last second of elements added at the current sample rate.
+	 */
+	private void recalculateSecond() {
+		secAlt = secChanged = secMoving = 0;
+		for(int i = Math.max(0, added - cadence.getRate()); i < added; i ++) {
+			int ix = i % recentAlt.length;
+			secAlt += recentAlt[ix];
+			secChanged += (recentDist[ix] > 0 || recentAlt[ix] != 0 ? 1 : 0);
+			secMoving += (recentDist[ix] > 0 ? 1 : 0);
+		}
+	}
+	
+	/**
+	 * Remove the first element of the window, updating the statistics to exclude it.
+	 * @return the element removed.
+	 */
+	private TrackElement removeFirst() {
+		TrackElement elem = data.removeFirst();
+		count(elem, flags[head], -1);
+		head = (head + 1) % flags.length;
+		return elem;
+	}
+	
+	/**
+	 * Close the window, indicating no more points will be offered. Remaining elements can then be retrieved
+	 * until the window is empty.
+	 */
+	void close() {
+		if(! closed && d != null) {
+			// Add last point to end of list
+			add(d);
+			d = null;
+		}
+		closed = true;
+	}
+	
+	/**
+	 * Check if an element can be retrieved from the window. Until the window is closed, elements are only available
+	 * once the window is full, so that each element can be processed with a full window ahead of it.
+	 * @return true if <tt>next()</tt> will return an element, false otherwise.
+	 */
+	boolean hasNext() {
+		return data.size() > (closed ? 0 : capacity());
+	}
+	
+	/**
+	 * Retrieve the first <tt>TrackElement</tt> in the window and adds new datum points, if available, to keep the
+	 * window full.
 	 * @return the next available track element object.
 	 */
 	TrackElement next() {
@@ -50,13 +210,33 @@ class ElemWindow
 			// Nothing in the list to return
 			return null;
 		}
-		if(d != null) {
+		while(closed && d != null && data.size() <= capacity()) {
 			// Add element to end of list
-			data.addLast(new TrackElement(d));
+			add(d);
 			d = d.getNext();
 		}
 		// Return and remove first element of list
-		return data.removeFirst();
+		return removeFirst();
+	}
+	
+	/**
+	 * Add a new datum point to the window. The point must already be linked as the next point of the
+	 * previously offered point. Once its element has been created, the previous point is unlinked from the path,
+	 * so elements do not keep earlier points reachable.
+	 * @param dIn the next datum point in the track.
+	 * @throws IllegalStateException if the window has been closed.
+	 */
+	void offer(Datum dIn) {
+		if(closed) {
+			throw new IllegalStateException("Window is closed");
+		}
+		if(d != null) {
+			// Add element for previous point, now its next point is known
+			add(d);
+			// Unlink previous point
+			d.setNext(null);
+		}
+		d = dIn;
 	}
 	
 	/**
@@ -64,81 +244,51 @@ class ElemWindow
 	 * @return the overall altitude change.
 	 */
 	int ascent() {
-		int alt = 0;
-		for(TrackElement elem : data) {
-			// Get altitude delta
-			alt += elem.getAltitudeChange();
-		}
 		return alt;
 	}
 	
 	/**
-	 * Count how many elements within the window are ascending.
+	 * Count how many elements within the window are ascending over the preceding second.
 	 * @return a value between 0 and 1 as a ratio of ascending points.
 	 */
 	float ascending() {
-		float ct = 0;
-		for(TrackElement elem : data) {
-			// Increment count if altitude has increased
-			ct += (elem.getAltitudeChange() > 0 ? 1 : 0);
-		}
 		// Return ratio of positives over total number of points
-		return ct / (float) data.size();
+		return ascending / (float) data.size();
 	}
 	
 	/**
-	 * Count how many elements within the window are descending.
+	 * Count how many elements within the window are descending over the preceding second.
 	 * @return a value between 0 and 1 as a ratio of descending points.
 	 */
 	float descending() {
-		float ct = 0;
-		for(TrackElement elem : data) {
-			// Increment count if altitude has decreased
-			ct += (elem.getAltitudeChange() < 0 ? 1 : 0);
-		}
 		// Return ratio of positives over total number of points
-		return ct / (float) data.size();
+		return descending / (float) data.size();
 	}
 	
 	/**
-	 * Count how many elements within the window do not have altitude change.
+	 * Count how many elements within the window do not have altitude change over the preceding second.
 	 * @return a value between 0 and 1 as a ratio of flat points.
 	 */
 	float flat() {
-		float ct = 0;
-		for(TrackElement elem : data) {
-			// Increment count if altitude has not changed
-			ct += (elem.getAltitudeChange() == 0 ? 1 : 0);
-		}
 		// Return ratio of positives over total number of points
-		return ct / (float) data.size();
+		return flat / (float) data.size();
 	}
 	
 	/**
-	 * Count how many elements within the window are moving.
+	 * Count how many elements within the window have moved during the preceding second.
 	 * @return a value between 0 and 1 as a ratio of moving points.
 	 */
 	float moving() {
-		float ct = 0;
-		for(TrackElement elem : data) {
-			// Increment if element has moved
-			ct += (elem.getDistance() > 0 ? 1 : 0);
-		}
 		// Return ratio of positives over total number of points
-		return ct / (float) data.size();
+		return moving / (float) data.size();
 	}
 	
 	/**
-	 * Count how many elements within the window are stopped.
+	 * Count how many elements within the window have neither moved nor changed altitude during the preceding second.
 	 * @return a value between 0 and 1 as a ratio of stationary points.
 	 */
 	float stopped() {
-		float ct = 0;
-		for(TrackElement elem : data) {
-			// Increment if element has not moved
-			ct += (elem.getDistance() == 0 && elem.getAltitudeChange() == 0 ? 1 : 0);
-		}
 		// Return ratio of positives over total number of points
-		return ct / (float) data.size();
+		return stopped / (float) data.size();
 	}
 }
@@ -0,0 +1,87 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+import uk.co.essarsoftware.ski.data.StageMetrics.Stage;
+import uk.co.essarsoftware.ski.data.TrackElement.Mode;
+
+/**
+ * <p>Classifies elements from an element window into ski modes and adds them to a data set.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+class ElementClassifier
+{
+	// Current track mode
+	private Mode currentMode;
+	
+	// Data store
+	private final SkiDataBuilder data;
+	// Window of elements to classify
+	private final ElemWindow eWin;
+	// Data processor
+	private final Processor proc;
+	// Stage timers
+	private final StageMetrics stats;
+	
+	/**
+	 * Create a new <tt>ElementClassifier</tt>.
+	 * @param proc data processor.
+	 * @param eWin window of elements to classify.
+	 * @param data data store that classified elements are added to.
+	 * @param stats registry recording the time spent taking and classifying elements.
+	 */
+	ElementClassifier(Processor proc, ElemWindow eWin, SkiDataBuilder data, StageMetrics stats) {
+		this.proc = proc;
+		this.eWin = eWin;
+		this.data = data;
+		this.stats = stats;
+		
+		// Start stationary
+		currentMode = Mode.STOP;
+	}
+	
+	/**
+	 * Classify the next available element from the window and add it to the data set.
+	 * @return the classified element, or null if no element is available.
+	 */
+	TrackElement classifyNext() {
+		if(! eWin.hasNext()) {
+			// Nothing available to classify
+			return null;
+		}
+		
+		// Get next data element
+		long t = stats.start();
+		TrackElement elem = eWin.next();
+		stats.stop(Stage.WINDOW, t);
+		
+		if(elem.getGap() == GapPolicy.GAP_NONE) {
+			// Process element
+			t = stats.start();
+			currentMode = proc.processElement(currentMode, elem, eWin);
+			stats.stop(Stage.CLASSIFY, t);
+		} else {
+			// Unrecorded gap in the data, treat as stationary
+			currentMode = Mode.STOP;
+		}
+		
+		// Set element mode
+		elem.setMode(currentMode);
+		
+		// Add the element to data set
+		data.addElement(elem);
+		
+		return elem;
+	}
+}
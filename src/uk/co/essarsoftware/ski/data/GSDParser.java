@@ -21,7 +21,6 @@ import java.util.Date;
 
 import uk.co.essarsoftware.ski.geo.CoordConverter;
 import uk.co.essarsoftware.ski.geo.DMSCoordinate;
-import uk.co.essarsoftware.ski.geo.UTMCoordinate;
 import uk.co.essarsoftware.ski.geo.WGSCoordinate;
 
 
@@ -31,13 +30,15 @@ import uk.co.essarsoftware.ski.geo.WGSCoordinate;
  * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
  * @version 1.1 (29 Jan 2012)
  */
-public class GSDParser implements DataParser
+public class GSDParser implements RecordParser
 {
 	// Reader object holding input data
 	private LineNumberReader in;
+	// Stream counting bytes read from the input
+	private final CountingInputStream src;
 	
-	/** Parser configuration */
-	static SimpleDateFormat sdf = new SimpleDateFormat("ddMMyy HHmmss");
+	/** Parser configuration, held per parser as date formats are not thread safe */
+	private final SimpleDateFormat sdf = new SimpleDateFormat("ddMMyy HHmmss");
 	
 	/**
 	 * Create new <tt>GSDParser</tt> object reading from the specified input stream using default configuration.
@@ -49,22 +50,29 @@ public class GSDParser implements DataParser
 		if(is == null) {
 			throw new IllegalArgumentException("Null input stream");
 		}
-		// Set up reader using 8K buffer
-		in = new LineNumberReader(new InputStreamReader(is), 8192);
+		// Set up reader using 8K buffer, counting bytes read
+		src = new CountingInputStream(is);
+		in = new LineNumberReader(new InputStreamReader(src), 8192);
 		
 		if(bypassHeaders) {
 			try {
-				// Skip forward to [TP] section
-				while(! "[TP]".equalsIgnoreCase(readHeaderLine()));
+				// Skip forward to [TP] section, stopping at the end of the stream
+				String line = readHeaderLine();
+				while(line != null && ! "[TP]".equalsIgnoreCase(line)) {
+					line = readHeaderLine();
+				}
 				
 				// Read first data block header
-				String b1 = readDataLine();
+				String b1 = (line == null ? null : readDataLine());
 				if(b1 != null) {
 					int ix = b1.indexOf('=');
 					String h = "[" + b1.substring(ix + 1) + "]";
 					
 					// Look for first data block
-					while(! h.equalsIgnoreCase(readHeaderLine()));
+					line = readHeaderLine();
+					while(line != null && ! h.equalsIgnoreCase(line)) {
+						line = readHeaderLine();
+					}
 				}
 			} catch(IOException ioe) {
 				// TODO handle IOException
@@ -135,7 +143,7 @@ public class GSDParser implements DataParser
 		if(in == null) {
 			return null;
 		}
-
+		
 		String line = null;
 		do {
 			// Read line from reader
@@ -146,12 +154,13 @@ public class GSDParser implements DataParser
 	}
 	
 	/**
-	 * Parse a GPS <tt>Datum</tt> object from a line of GSD data.
+	 * Parse an unprojected GPS <tt>Datum</tt> object from a line of GSD data.
 	 * @param line a <tt>String</tt> containing the GSD data.
+	 * @param lineNumber the line number the data was read from.
 	 * @return a GPS <tt>Datum</tt> object.
 	 * @throws ParseException if a problem occurs parsing the line.
 	 */
-	private Datum parseLine(String line) throws ParseException {
+	public Datum parseRecord(String line, int lineNumber) throws ParseException {
 		if(line == null) {
 			return null;
 		}
@@ -176,24 +185,20 @@ public class GSDParser implements DataParser
 		
 		//System.out.println(String.format("Latitude: in=%s, D=%d, M=%.4f", latStr, latD, latM));
 		//System.out.println(String.format("Longitude: in=%s, D=%d, M=%.4f", lonStr, lonD, lonM));
-
+		
 		// Calculate coordinates
 		WGSCoordinate wgs = CoordConverter.DMS2WGS(new DMSCoordinate(latD, latM, lonD, lonM));
 		//System.out.println("WGS: " + wgs);
-		UTMCoordinate utm = CoordConverter.WGS2UTM(wgs);
-		//System.out.println("UTM: " + utm);
 		
 		// Latitude & Longitude
 		float la = wgs.getLatitudeDegrees();
 		float lo = wgs.getLongitudeDegrees();
 		
-		// X & Y
-		int x = utm.getX();
-		int y = utm.getY();
-		
-		// Date & Time
-		String t = String.format("%6d", Integer.parseInt(parts[2]));
-		String d = String.format("%6d", Integer.parseInt(parts[3]));
+		// Date & Time, with any fraction of a second after the decimal point
+		int dot = parts[2].indexOf('.');
+		String t = String.format("%06d", Integer.parseInt(dot < 0 ? parts[2] : parts[2].substring(0, dot)));
+		int ms = (dot < 0 ? 0 : Datum.parseMillis(parts[2].substring(dot + 1)));
+		String d = String.format("%06d", Integer.parseInt(parts[3]));
 		
 		// Altitude & Speed
 		float s = (float) Integer.parseInt(parts[4]) / 100.0f;
@@ -202,10 +207,31 @@ public class GSDParser implements DataParser
 		// Build date object
 		Date time = sdf.parse(d + " " + t);
 		
-		// Build Datum object
-		return new Datum(time, la, lo, x, y, a, s);
+		// Build Datum object, to be projected later
+		return new Datum(time.getTime() + ms, la, lo, 0, 0, a, s);
+	}
+	
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.DataParser#getBytesRead()
+	 */
+	public long getBytesRead() {
+		return src.getCount();
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.RecordParser#getLineNumber()
+	 */
+	public int getLineNumber() {
+		return in.getLineNumber();
 	}
 	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.DataParser#getSourceLength()
+	 */
+	public long getSourceLength() {
+		return src.getLength();
+	}
 	
 	/* (non-Javadoc)
 	 * @see uk.co.essarsoftware.ski.data.DataParser#readDatum()
@@ -213,16 +239,42 @@ public class GSDParser implements DataParser
 	public Datum readDatum() throws IOException {
 		String line = null;
 		try {
-			line = readDataLine();
-			return parseLine(line);
+			line = readRecord();
+			Datum d = parseRecord(line, getLineNumber());
+			if(d != null) {
+				// Calculate X & Y
+				d.project();
+			}
+			return d;
 		} catch(ParseException pe) {
 			// Handle ParseException
-			System.err.println(pe.getMessage());
+			rejectRecord(line, pe);
 			// Try next item
 			return readDatum();
 		}
 	}
 	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.RecordParser#readRecord()
+	 */
+	public String readRecord() throws IOException {
+		return readDataLine();
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.RecordParser#rejectRecord(java.lang.String, java.text.ParseException)
+	 */
+	public void rejectRecord(String record, ParseException pe) {
+		System.err.println(pe.getMessage());
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.RecordParser#requiresProjection()
+	 */
+	public boolean requiresProjection() {
+		return true;
+	}
+	
 	/* (non-Javadoc)
 	 * @see uk.co.essarsoftware.ski.data.DataParser#skipLine()
 	 */
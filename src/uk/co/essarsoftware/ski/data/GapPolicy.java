@@ -0,0 +1,113 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+/**
+ * <p>Policy determining how gaps in the recorded data are handled.</p>
+ * <p>Short gaps are filled by interpolating a point for each missing sample. Medium gaps are not filled,
+ * but the point following the gap is marked so that it is treated as stationary. Long gaps, such as an
+ * overnight break, split the data into separate blocks.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class GapPolicy
+{
+	/** Constant indicating there is no gap before a point. */
+	public static final int GAP_NONE = 0x00;
+	/** Constant indicating a gap that should be filled with interpolated points. */
+	public static final int GAP_INTERPOLATE = 0x01;
+	/** Constant indicating a gap that should be treated as stationary, without adding points. */
+	public static final int GAP_STOP = 0x02;
+	/** Constant indicating a gap that should split the data into a new block. */
+	public static final int GAP_SPLIT = 0x04;
+	
+	/** Default policy; interpolates gaps of up to a minute and splits on gaps of four hours or more. */
+	public static final GapPolicy DEFAULT = new GapPolicy(60, 4 * 60 * 60);
+	/** Policy that interpolates every gap, regardless of length. */
+	public static final GapPolicy INTERPOLATE_ALL = new GapPolicy(Integer.MAX_VALUE, Integer.MAX_VALUE);
+	
+	// Gap limits, in seconds
+	private final int interpolateLimit, splitLimit;
+	
+	/**
+	 * Create a new <tt>GapPolicy</tt>.
+	 * @param interpolateLimit the longest gap, in seconds, that will be filled with interpolated points.
+	 * @param splitLimit the shortest gap, in seconds, that will split the data into a new block.
+	 * @throws IllegalArgumentException if either limit is less than one, or the split limit is less than the interpolation limit.
+	 */
+	public GapPolicy(int interpolateLimit, int splitLimit) {
+		// Validate interpolation limit
+		if(interpolateLimit < 1) {
+			throw new IllegalArgumentException("Interpolation limit cannot be less than one");
+		}
+		// Validate split limit
+		if(splitLimit < interpolateLimit) {
+			throw new IllegalArgumentException("Split limit cannot be less than interpolation limit");
+		}
+		this.interpolateLimit = interpolateLimit;
+		this.splitLimit = splitLimit;
+	}
+	
+	/**
+	 * Classify a gap between two points.
+	 * @param timeDelta the time between the two points, in seconds.
+	 * @return constant indicating how the gap should be handled.
+	 * @see #GAP_NONE
+	 * @see #GAP_INTERPOLATE
+	 * @see #GAP_STOP
+	 * @see #GAP_SPLIT
+	 */
+	public int classify(long timeDelta) {
+		return classify(timeDelta * 1000L, Cadence.DEFAULT_INTERVAL);
+	}
+	
+	/**
+	 * Classify a gap between two points recorded at a given sample rate.
+	 * @param timeDelta the time between the two points, in milliseconds.
+	 * @param interval the interval between samples, in milliseconds.
+	 * @return constant indicating how the gap should be handled.
+	 * @see #GAP_NONE
+	 * @see #GAP_INTERPOLATE
+	 * @see #GAP_STOP
+	 * @see #GAP_SPLIT
+	 */
+	public int classify(long timeDelta, long interval) {
+		if(timeDelta < interval * 2) {
+			// No samples missing
+			return GAP_NONE;
+		}
+		if(timeDelta <= interpolateLimit * 1000L) {
+			return GAP_INTERPOLATE;
+		}
+		if(timeDelta < splitLimit * 1000L) {
+			return GAP_STOP;
+		}
+		return GAP_SPLIT;
+	}
+	
+	/**
+	 * Get the interpolation limit.
+	 * @return the longest gap, in seconds, that will be filled with interpolated points.
+	 */
+	public int getInterpolateLimit() {
+		return interpolateLimit;
+	}
+	
+	/**
+	 * Get the split limit.
+	 * @return the shortest gap, in seconds, that will split the data into a new block.
+	 */
+	public int getSplitLimit() {
+		return splitLimit;
+	}
+}
@@ -0,0 +1,504 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+
+import uk.co.essarsoftware.ski.data.TrackElement.Mode;
+
+/**
+ * <p>Ski data set that is built incrementally as points arrive, for example from a live GPS feed or a log file
+ * that is still being written.</p>
+ * <p>Each point appended is interpolated, added to the look-ahead window and classified as soon as the window
+ * allows, so the cost of appending a point does not depend on the size of the session. After each batch of
+ * points a <tt>Snapshot</tt> of the summary values is published, which can be read from any thread without
+ * locking.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class LiveSkiData
+{
+	// Number of points appended from a parser between snapshots, when more data is available
+	private static final int PUBLISH_INTERVAL = 256;
+	
+	// Number of points appended, including interpolated points
+	private int count;
+	// Indicating if the data set has been closed
+	private boolean closed;
+	// Last point appended
+	private Datum prev;
+	// Latest published snapshot
+	private volatile Snapshot snapshot;
+	
+	// Sample rate of points appended
+	private final Cadence cadence;
+	// Element classifier
+	private final ElementClassifier classifier;
+	// Data builder
+	private final SkiDataBuilder data;
+	// Window of elements
+	private final ElemWindow eWin;
+	// Gap handling policy
+	private final GapPolicy gapPolicy;
+	// Stage timers
+	private final StageMetrics stats;
+	// Summary of closed tracks
+	private final SkiSummary summary;
+	
+	/**
+	 * Create a new, empty <tt>LiveSkiData</tt> using the default gap policy.
+	 * @param proc data processor.
+	 */
+	public LiveSkiData(Processor proc) {
+		this(proc, GapPolicy.DEFAULT, null);
+	}
+	
+	/**
+	 * Create a new, empty <tt>LiveSkiData</tt>.
+	 * @param proc data processor.
+	 * @param gapPolicy the policy used to handle gaps between points.
+	 * @param listener listener notified as tracks and blocks are closed, or null.
+	 */
+	public LiveSkiData(Processor proc, GapPolicy gapPolicy, TrackListener listener) {
+		// Validate processor input
+		if(proc == null) {
+			throw new IllegalArgumentException("Processor cannot be null");
+		}
+		// Validate policy input
+		if(gapPolicy == null) {
+			throw new IllegalArgumentException("Gap policy cannot be null");
+		}
+		this.gapPolicy = gapPolicy;
+		
+		cadence = new Cadence();
+		summary = new SkiSummary();
+		stats = new StageMetrics();
+		data = new SkiDataBuilder(new SummaryListener(listener), true, stats);
+		eWin = new ElemWindow(DataLoader.WINDOW_SIZE);
+		classifier = new ElementClassifier(proc, eWin, data, stats);
+		
+		// Publish empty snapshot
+		publish();
+	}
+	
+	/**
+	 * Append a point to the data set. The point is linked to the previous point, any gap between them is filled
+	 * and all elements the window allows are classified. A point timed before the previous point is rejected.
+	 * @param d the <tt>Datum</tt> point to append, which must already be projected.
+	 * @throws IllegalStateException if the data set has been closed.
+	 */
+	synchronized void append(Datum d) {
+		if(closed) {
+			throw new IllegalStateException("Data set is closed");
+		}
+		if(prev != null) {
+			// Link to previous point and add any interpolated points to the window
+			int added = DatumInterpolator.interpolate(prev, d, gapPolicy, cadence);
+			if(added < 0) {
+				// Point is earlier than the previous point, so reject it
+				stats.recordRejected();
+				return;
+			}
+			count += added;
+			Datum i = prev.getNext();
+			while(i != d) {
+				Datum next = i.getNext();
+				eWin.offer(i);
+				classifyAvailable();
+				i = next;
+			}
+		}
+		
+		// Add point to the window
+		count ++;
+		eWin.offer(d);
+		classifyAvailable();
+		
+		prev = d;
+	}
+	
+	/**
+	 * Append a GPS point to the data set. Snapshots are not published until <tt>publish</tt> is called.
+	 * @param time GPS time.
+	 * @param latitude GPS latitude.
+	 * @param longitude GPS longitude.
+	 * @param altitude GPS altitude.
+	 * @param speed GPS speed.
+	 * @throws IllegalStateException if the data set has been closed.
+	 */
+	public void append(Date time, float latitude, float longitude, int altitude, float speed) {
+		Datum d = new Datum(time, latitude, longitude, altitude, speed);
+		d.project();
+		append(d);
+	}
+	
+	/**
+	 * Append all points read from a parser, until the end of its data. A snapshot is published whenever all data
+	 * currently available from the source has been appended, at regular intervals while catching up, and at the
+	 * end of the data. When reading from a <tt>TailInputStream</tt>, this method returns once the stream has been
+	 * stopped.
+	 * @param parser the parser to read points from.
+	 * @param source the stream the parser reads from, used to check if more data is available, or null.
+	 * @return the number of points read.
+	 * @throws IOException if an error occurs reading from the parser.
+	 * @throws IllegalStateException if the data set has been closed.
+	 */
+	public int appendAll(DataParser parser, InputStream source) throws IOException {
+		int len = 0;
+		int unpublished = 0;
+		Datum d = parser.readDatum();
+		while(d != null) {
+			append(d);
+			len ++;
+			
+			// Publish once caught up with the source, or after a full batch
+			if(++ unpublished >= PUBLISH_INTERVAL || (source != null && source.available() == 0)) {
+				publish();
+				unpublished = 0;
+			}
+			
+			// Read next point
+			d = parser.readDatum();
+		}
+		if(unpublished > 0) {
+			publish();
+		}
+		return len;
+	}
+	
+	/**
+	 * Classify all elements available in the window.
+	 */
+	private void classifyAvailable() {
+		while(classifier.classifyNext() != null);
+	}
+	
+	/**
+	 * Close the data set, classifying the elements remaining in the window, closing all open tracks and
+	 * publishing a final snapshot. No more points can be appended.
+	 */
+	public synchronized void close() {
+		if(! closed) {
+			closed = true;
+			
+			// Process the remaining elements in the window
+			eWin.close();
+			classifyAvailable();
+			
+			// Close off open data sets
+			data.closeAll();
+			publish();
+		}
+	}
+	
+	/**
+	 * Get a snapshot of the data set, holding the tracks and blocks closed so far. A new snapshot is taken each
+	 * time a track is closed, and may be read from any thread without locking.
+	 * @return an immutable <tt>SkiData</tt> snapshot.
+	 */
+	public SkiData getData() {
+		return data.getSnapshot();
+	}
+	
+	/**
+	 * Get the latest published snapshot. May be called from any thread.
+	 * @return the latest <tt>Snapshot</tt>.
+	 */
+	public Snapshot getSnapshot() {
+		return snapshot;
+	}
+	
+	/**
+	 * Get the time spent in each stage of classifying and aggregating appended points. Stages are only timed once
+	 * the registry is enabled. May be called from any thread.
+	 * @return the <tt>StageMetrics</tt> of this data set.
+	 */
+	public StageMetrics getStageMetrics() {
+		return stats;
+	}
+	
+	/**
+	 * Check if the data set has been closed.
+	 * @return true if the data set has been closed, false otherwise.
+	 */
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+	
+	/**
+	 * Publish a snapshot of the current summary values.
+	 * @return the published <tt>Snapshot</tt>.
+	 */
+	public synchronized Snapshot publish() {
+		int size = data.size();
+		snapshot = new Snapshot(summary, data.getCurrentTrack(), size, count - size);
+		return snapshot;
+	}
+	
+	/**
+	 * <p>Immutable summary of a <tt>LiveSkiData</tt> set at a point in time, including the closed tracks and
+	 * the current, open track.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	public static final class Snapshot
+	{
+		// Counts
+		private final int elements, lifts, pending, runs;
+		// Current mode
+		private final Mode mode;
+		// Distances and altitudes
+		private final float skiDistance, trackDistance;
+		private final int hiAlt, liftAscent, loAlt, skiDescent, trackDeltaAlt;
+		// Speeds
+		private final float maxSpeed;
+		// Times
+		private final long endTime, startTime, trackStartTime;
+		
+		/**
+		 * Create a new snapshot.
+		 * @param closed summary of the closed tracks.
+		 * @param open the current, open track.
+		 * @param elements number of elements classified.
+		 * @param pending number of points appended but not yet classified.
+		 */
+		Snapshot(SkiSummary closed, Track open, int elements, int pending) {
+			this.elements = elements;
+			this.pending = pending;
+			
+			if(open.size() == 0) {
+				// No open track, so use closed values only
+				mode = null;
+				trackDistance = 0.0f;
+				trackDeltaAlt = 0;
+				trackStartTime = 0;
+				
+				lifts = closed.getLiftCount();
+				runs = closed.getRunCount();
+				skiDistance = closed.getSkiDistance();
+				skiDescent = closed.getSkiDescent();
+				liftAscent = closed.getLiftAscent();
+				maxSpeed = closed.getMaxSpeed();
+				hiAlt = closed.getHighAltitude();
+				loAlt = closed.getLowAltitude();
+				startTime = closed.getStartTime();
+				endTime = closed.getEndTime();
+			} else {
+				// Combine closed values with the open track
+				mode = open.getFirst().getMode();
+				trackDistance = open.getDistance();
+				trackDeltaAlt = open.getDeltaAltitude();
+				trackStartTime = open.getStartTime();
+				
+				boolean first = (closed.getElementCount() == 0);
+				lifts = closed.getLiftCount() + (mode == Mode.LIFT ? 1 : 0);
+				runs = closed.getRunCount() + (mode == Mode.SKI ? 1 : 0);
+				skiDistance = closed.getSkiDistance() + (mode == Mode.SKI ? trackDistance : 0.0f);
+				skiDescent = closed.getSkiDescent() + (mode == Mode.SKI ? Math.max(- trackDeltaAlt, 0) : 0);
+				liftAscent = closed.getLiftAscent() + (mode == Mode.LIFT ? Math.max(trackDeltaAlt, 0) : 0);
+				maxSpeed = (mode == Mode.SKI ? Math.max(closed.getMaxSpeed(), open.getMaxSpeed()) : closed.getMaxSpeed());
+				hiAlt = (first ? open.getHighAltitude() : Math.max(closed.getHighAltitude(), open.getHighAltitude()));
+				loAlt = (first ? open.getLowAltitude() : Math.min(closed.getLowAltitude(), open.getLowAltitude()));
+				startTime = (first ? trackStartTime : Math.min(closed.getStartTime(), trackStartTime));
+				endTime = (first ? open.getEndTime() : Math.max(closed.getEndTime(), open.getEndTime()));
+			}
+		}
+		
+		/**
+		 * Get the number of elements.
+		 * @return the number of elements classified.
+		 */
+		public int getElementCount() {
+			return elements;
+		}
+		
+		/**
+		 * Get the end time.
+		 * @return the time of the latest classified element.
+		 */
+		public long getEndTime() {
+			return endTime;
+		}
+		
+		/**
+		 * Get the high altitude.
+		 * @return the highest altitude reached.
+		 */
+		public int getHighAltitude() {
+			return hiAlt;
+		}
+		
+		/**
+		 * Get the total lift ascent.
+		 * @return the total altitude gained on lifts, in metres.
+		 */
+		public int getLiftAscent() {
+			return liftAscent;
+		}
+		
+		/**
+		 * Get the number of lifts.
+		 * @return the number of lift tracks, including the current track.
+		 */
+		public int getLiftCount() {
+			return lifts;
+		}
+		
+		/**
+		 * Get the low altitude.
+		 * @return the lowest altitude reached.
+		 */
+		public int getLowAltitude() {
+			return loAlt;
+		}
+		
+		/**
+		 * Get the maximum speed.
+		 * @return the maximum speed reached while skiing.
+		 */
+		public float getMaxSpeed() {
+			return maxSpeed;
+		}
+		
+		/**
+		 * Get the current mode.
+		 * @return the mode of the current track, or null if there is no open track.
+		 */
+		public Mode getMode() {
+			return mode;
+		}
+		
+		/**
+		 * Get the number of pending points. Points are classified once enough later points have been appended
+		 * to fill the look-ahead window, or when the data set is closed.
+		 * @return the number of points appended but not yet classified.
+		 */
+		public int getPendingCount() {
+			return pending;
+		}
+		
+		/**
+		 * Get the number of runs.
+		 * @return the number of ski tracks, including the current track.
+		 */
+		public int getRunCount() {
+			return runs;
+		}
+		
+		/**
+		 * Get the total ski descent.
+		 * @return the total altitude lost while skiing, in metres.
+		 */
+		public int getSkiDescent() {
+			return skiDescent;
+		}
+		
+		/**
+		 * Get the total ski distance.
+		 * @return the total distance skied.
+		 */
+		public float getSkiDistance() {
+			return skiDistance;
+		}
+		
+		/**
+		 * Get the start time.
+		 * @return the time of the earliest classified element.
+		 */
+		public long getStartTime() {
+			return startTime;
+		}
+		
+		/**
+		 * Get the altitude change of the current track.
+		 * @return the altitude change across the current track.
+		 */
+		public int getTrackDeltaAltitude() {
+			return trackDeltaAlt;
+		}
+		
+		/**
+		 * Get the distance of the current track.
+		 * @return the distance of the current track.
+		 */
+		public float getTrackDistance() {
+			return trackDistance;
+		}
+		
+		/**
+		 * Get the duration of the current track.
+		 * @return the duration of the current track in seconds.
+		 */
+		public long getTrackDuration() {
+			return (mode == null ? 0 : endTime - trackStartTime);
+		}
+		
+		/**
+		 * Get the start time of the current track.
+		 * @return the earliest time of the current track, or 0 if there is no open track.
+		 */
+		public long getTrackStartTime() {
+			return trackStartTime;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return String.format("%s: %d runs (%,dm; -%dm), %d lifts (+%dm), %d elements (%d pending)", mode, runs, Math.round(skiDistance), skiDescent, lifts, liftAscent, elements, pending);
+		}
+	}
+	
+	/**
+	 * <p>Track listener that adds closed tracks to the summary, then passes them to another listener.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class SummaryListener implements TrackListener
+	{
+		// Listener to pass tracks to
+		private final TrackListener listener;
+		
+		/**
+		 * Create a new summary listener.
+		 * @param listener the listener to pass tracks to, or null.
+		 */
+		SummaryListener(TrackListener listener) {
+			this.listener = listener;
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.TrackListener#blockClosed(uk.co.essarsoftware.ski.data.TrackBlock)
+		 */
+		public void blockClosed(TrackBlock block) {
+			summary.blockClosed(block);
+			if(listener != null) {
+				listener.blockClosed(block);
+			}
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.TrackListener#trackClosed(uk.co.essarsoftware.ski.data.Track)
+		 */
+		public void trackClosed(Track track) {
+			summary.trackClosed(track);
+			if(listener != null) {
+				listener.trackClosed(track);
+			}
+		}
+	}
+}
@@ -0,0 +1,277 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+/**
+ * <p>Progress and throughput of a single <tt>DataLoader</tt> run.</p>
+ * <p>A load has two phases: loading points from the source, and processing them into elements. In the batch
+ * mode the phases run one after the other; in other modes they overlap. Values are updated by the loader as it
+ * runs and may be read from any thread. Progress is reported to the loader's listener at most once per report
+ * interval, or whenever the percentage complete changes, rather than for every element.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class LoadMetrics
+{
+	/** Default minimum time between progress reports, in milliseconds. */
+	public static final long DEFAULT_REPORT_INTERVAL = 250;
+	
+	// Counts, each updated by a single loader thread
+	private volatile int elements, interpolated, points;
+	// Phase start and end times, in milliseconds
+	private volatile long loadEnd, loadStart, processEnd, processStart;
+	
+	// Time and percentage complete of the last report
+	private long lastReport;
+	private int lastPercent;
+	// Minimum time between reports
+	private volatile long reportInterval;
+	
+	// Parser reading the source
+	private final DataParser parser;
+	
+	/**
+	 * Create new metrics for a load.
+	 * @param parser the parser reading the source, used to count bytes read.
+	 */
+	LoadMetrics(DataParser parser) {
+		this.parser = parser;
+		this.reportInterval = DEFAULT_REPORT_INTERVAL;
+	}
+	
+	/**
+	 * Get the fraction of the current phase completed. Loading progress is measured by bytes read, and
+	 * processing progress by elements processed.
+	 * @return the fraction complete, between zero and one, or -1 if not known.
+	 */
+	private float getFraction() {
+		if(loadEnd == 0) {
+			long length = parser.getSourceLength();
+			long read = parser.getBytesRead();
+			return (length > 0 && read >= 0 ? Math.min(1.0f, (float) read / (float) length) : -1.0f);
+		}
+		int total = getElementTotal();
+		return (total == 0 ? 1.0f : Math.min(1.0f, (float) elements / (float) total));
+	}
+	
+	/**
+	 * Calculate a rate per second.
+	 * @param count the number of items.
+	 * @param start the start time, or zero if not started.
+	 * @param end the end time, or zero if not finished.
+	 * @return the number of items per second.
+	 */
+	private static float rate(int count, long start, long end) {
+		if(start == 0) {
+			return 0.0f;
+		}
+		long elapsed = (end == 0 ? System.currentTimeMillis() : end) - start;
+		return (elapsed <= 0 ? 0.0f : count * 1000.0f / elapsed);
+	}
+	
+	/**
+	 * Record that an element has been processed.
+	 */
+	void elementProcessed() {
+		elements ++;
+	}
+	
+	/**
+	 * Check if progress should be reported, and if so record the report. Must only be called from one thread.
+	 * @return true if the report interval has passed or the percentage complete has changed since the last
+	 * report, false otherwise.
+	 */
+	boolean isReportDue() {
+		long now = System.currentTimeMillis();
+		int percent = getPercentComplete();
+		if(percent != lastPercent || now - lastReport >= reportInterval) {
+			lastPercent = percent;
+			lastReport = now;
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Record that all points have been loaded.
+	 */
+	void loadingComplete() {
+		loadEnd = System.currentTimeMillis();
+	}
+	
+	/**
+	 * Record that a point has been loaded from the source.
+	 */
+	void pointLoaded() {
+		points ++;
+	}
+	
+	/**
+	 * Record points added to fill gaps.
+	 * @param count the number of points added.
+	 */
+	void pointsInterpolated(int count) {
+		interpolated += count;
+	}
+	
+	/**
+	 * Record that processing has finished.
+	 */
+	void processingComplete() {
+		processEnd = System.currentTimeMillis();
+	}
+	
+	/**
+	 * Set the minimum time between progress reports.
+	 * @param reportInterval the interval in milliseconds.
+	 */
+	void setReportInterval(long reportInterval) {
+		this.reportInterval = reportInterval;
+	}
+	
+	/**
+	 * Record that loading has started.
+	 */
+	void startLoading() {
+		loadStart = System.currentTimeMillis();
+	}
+	
+	/**
+	 * Record that processing has started.
+	 */
+	void startProcessing() {
+		processStart = System.currentTimeMillis();
+	}
+	
+	/**
+	 * Get the number of bytes read from the source.
+	 * @return the number of bytes read, or -1 if not known.
+	 */
+	public long getBytesRead() {
+		return parser.getBytesRead();
+	}
+	
+	/**
+	 * Get the time the load has been running.
+	 * @return the elapsed time in milliseconds.
+	 */
+	public long getElapsedTime() {
+		if(loadStart == 0) {
+			return 0;
+		}
+		return (processEnd == 0 ? System.currentTimeMillis() : processEnd) - loadStart;
+	}
+	
+	/**
+	 * Get the number of elements processed.
+	 * @return the number of elements classified.
+	 */
+	public int getElementCount() {
+		return elements;
+	}
+	
+	/**
+	 * Get the number of elements to process, which is only final once loading is complete.
+	 * @return the number of points loaded and interpolated.
+	 */
+	public int getElementTotal() {
+		return points + interpolated;
+	}
+	
+	/**
+	 * Get the estimated time remaining in the current phase, based on the rate of progress so far.
+	 * @return the estimated time in milliseconds, or -1 if not known.
+	 */
+	public long getEstimatedTimeRemaining() {
+		float f = getFraction();
+		long start = (loadEnd == 0 ? loadStart : processStart);
+		if(f <= 0.0f || start == 0) {
+			return -1;
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		return (long) (elapsed * (1.0f - f) / f);
+	}
+	
+	/**
+	 * Get the number of points added to fill gaps in the data.
+	 * @return the number of points interpolated.
+	 */
+	public int getInterpolatedCount() {
+		return interpolated;
+	}
+	
+	/**
+	 * Get the loading throughput.
+	 * @return the number of points loaded per second.
+	 */
+	public float getLoadRate() {
+		return rate(points, loadStart, loadEnd);
+	}
+	
+	/**
+	 * Get the percentage of the current phase completed.
+	 * @return the percentage complete, from 0 to 100, or -1 if not known.
+	 */
+	public int getPercentComplete() {
+		float f = getFraction();
+		return (f < 0.0f ? -1 : (int) (f * 100.0f));
+	}
+	
+	/**
+	 * Get the number of points loaded from the source.
+	 * @return the number of points loaded.
+	 */
+	public int getPointCount() {
+		return points;
+	}
+	
+	/**
+	 * Get the processing throughput.
+	 * @return the number of elements processed per second.
+	 */
+	public float getProcessRate() {
+		return rate(elements, processStart, processEnd);
+	}
+	
+	/**
+	 * Get the minimum time between progress reports.
+	 * @return the interval in milliseconds.
+	 */
+	public long getReportInterval() {
+		return reportInterval;
+	}
+	
+	/**
+	 * Get the size of the source.
+	 * @return the size in bytes, or -1 if not known.
+	 */
+	public long getSourceLength() {
+		return parser.getSourceLength();
+	}
+	
+	/**
+	 * Check if all points have been loaded from the source.
+	 * @return true if loading is complete, false if points are still being loaded.
+	 */
+	public boolean isLoadingComplete() {
+		return loadEnd != 0;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("%,d points (%,d bytes) loaded at %,.0f points/sec, %,d interpolated; %,d elements processed at %,.0f elements/sec", points, getBytesRead(), getLoadRate(), interpolated, elements, getProcessRate());
+	}
+}
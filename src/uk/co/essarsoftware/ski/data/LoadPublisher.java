@@ -0,0 +1,273 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <p>Publisher of items produced by a <tt>DataLoader</tt>, sending each item to subscribers on the loading
+ * thread.</p>
+ * <p>Items are not buffered. If a subscriber has no outstanding requests, the loading thread waits until it
+ * requests more items or cancels its subscription, so loading proceeds at the rate of the slowest subscriber.
+ * Subscribers only receive items published after they subscribe.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+class LoadPublisher<T> implements Publisher<T>
+{
+	// Indicating that publishing has ended
+	private boolean closed;
+	// Exception that ended publishing, or null if completed normally
+	private Throwable error;
+	// Indicating that waiting for requests should stop
+	private volatile boolean stopped;
+	
+	// Current subscriptions
+	private final CopyOnWriteArrayList<LoadSubscription> subscriptions;
+	
+	/**
+	 * Create a new publisher with no subscribers.
+	 */
+	LoadPublisher() {
+		subscriptions = new CopyOnWriteArrayList<LoadSubscription>();
+	}
+	
+	/**
+	 * End publishing, removing all subscriptions.
+	 * @param t the <tt>Throwable</tt> that ended publishing, or null if publishing completed normally.
+	 */
+	private void close(Throwable t) {
+		synchronized(this) {
+			if(closed) {
+				return;
+			}
+			closed = true;
+			error = t;
+		}
+		for(LoadSubscription s : subscriptions) {
+			subscriptions.remove(s);
+			s.terminate(t);
+		}
+	}
+	
+	/**
+	 * Complete publishing, notifying all subscribers.
+	 */
+	void complete() {
+		close(null);
+	}
+	
+	/**
+	 * Fail publishing, notifying all subscribers.
+	 * @param t the <tt>Throwable</tt> that caused publishing to fail.
+	 */
+	void fail(Throwable t) {
+		close(t);
+	}
+	
+	/**
+	 * Send an item to all subscribers, waiting for each subscriber to request it.
+	 * @param item the item to send.
+	 */
+	void publish(T item) {
+		for(LoadSubscription s : subscriptions) {
+			if(s.awaitRequest()) {
+				s.next(item);
+			} else if(s.isCancelled()) {
+				// Remove cancelled subscription
+				subscriptions.remove(s);
+				s.terminate(null);
+			}
+		}
+	}
+	
+	/**
+	 * Stop waiting for subscribers to request items. Items published after stopping are dropped.
+	 */
+	void stop() {
+		stopped = true;
+		for(LoadSubscription s : subscriptions) {
+			s.wake();
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.Publisher#subscribe(uk.co.essarsoftware.ski.data.Subscriber)
+	 */
+	public void subscribe(Subscriber<? super T> subscriber) {
+		// Validate subscriber input
+		if(subscriber == null) {
+			throw new NullPointerException("Subscriber cannot be null");
+		}
+		LoadSubscription s = new LoadSubscription(subscriber);
+		boolean ended;
+		Throwable t;
+		synchronized(this) {
+			ended = closed;
+			t = error;
+			if(! ended) {
+				subscriptions.add(s);
+			}
+		}
+		subscriber.onSubscribe(s);
+		
+		// Items and final notification may now be sent
+		s.ready();
+		if(ended) {
+			// Publishing already ended, so notify immediately
+			s.terminate(t);
+		}
+	}
+	
+	/**
+	 * <p>Subscription of a single subscriber, counting the items it has requested.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class LoadSubscription implements Subscription
+	{
+		// Number of items requested and not yet sent
+		private long requested;
+		// Indicating that the subscription has been cancelled
+		private boolean cancelled;
+		// Indicating that onSubscribe has returned
+		private boolean ready;
+		// Indicating that a final notification has been sent
+		private boolean terminated;
+		// Exception to send in place of completion, after an invalid request
+		private Throwable invalid;
+		
+		// Subscriber receiving items
+		private final Subscriber<? super T> subscriber;
+		
+		/**
+		 * Create a new subscription.
+		 * @param subscriber the subscriber receiving items.
+		 */
+		LoadSubscription(Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+		
+		/**
+		 * Wait until the subscriber has requested an item, and count it as sent. Called on the loading thread.
+		 * @return true if the item should be sent, false if the subscription was cancelled or publishing stopped.
+		 */
+		synchronized boolean awaitRequest() {
+			try {
+				while(! cancelled && ! stopped && (! ready || requested == 0)) {
+					wait();
+				}
+			} catch(InterruptedException ie) {
+				// Loader interrupted, drop the item
+				Thread.currentThread().interrupt();
+				return false;
+			}
+			if(cancelled || stopped) {
+				return false;
+			}
+			if(requested != Long.MAX_VALUE) {
+				requested --;
+			}
+			return true;
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.Subscription#cancel()
+		 */
+		public synchronized void cancel() {
+			cancelled = true;
+			notifyAll();
+		}
+		
+		/**
+		 * Check if the subscription has been cancelled.
+		 * @return true if the subscription has been cancelled, false otherwise.
+		 */
+		synchronized boolean isCancelled() {
+			return cancelled;
+		}
+		
+		/**
+		 * Send an item to the subscriber. A subscriber that throws an exception is cancelled.
+		 * @param item the item to send.
+		 */
+		void next(T item) {
+			try {
+				subscriber.onNext(item);
+			} catch(RuntimeException re) {
+				cancel();
+			}
+		}
+		
+		/**
+		 * Mark the subscriber as ready to receive items, once <tt>onSubscribe</tt> has returned.
+		 */
+		synchronized void ready() {
+			ready = true;
+			notifyAll();
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.Subscription#request(long)
+		 */
+		public synchronized void request(long n) {
+			if(cancelled) {
+				return;
+			}
+			if(n <= 0) {
+				// Invalid request cancels the subscription, with the error sent as its final notification
+				invalid = new IllegalArgumentException(String.format("Request must be greater than zero (%d)", n));
+				cancelled = true;
+			} else {
+				// Add to outstanding requests, without overflowing
+				requested = (requested + n < 0 ? Long.MAX_VALUE : requested + n);
+			}
+			notifyAll();
+		}
+		
+		/**
+		 * Send the final notification to the subscriber, unless it has cancelled without error.
+		 * @param t the <tt>Throwable</tt> that ended publishing, or null if publishing completed normally.
+		 */
+		void terminate(Throwable t) {
+			Throwable e;
+			synchronized(this) {
+				try {
+					// Wait for onSubscribe to return
+					while(! ready) {
+						wait();
+					}
+				} catch(InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+				if(terminated || (cancelled && invalid == null)) {
+					return;
+				}
+				terminated = true;
+				e = (invalid != null ? invalid : t);
+			}
+			if(e == null) {
+				subscriber.onComplete();
+			} else {
+				subscriber.onError(e);
+			}
+		}
+		
+		/**
+		 * Wake the loading thread if it is waiting for a request.
+		 */
+		synchronized void wake() {
+			notifyAll();
+		}
+	}
+}
@@ -0,0 +1,280 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>Service that runs <tt>DataLoader</tt>s on pooled threads, returning a <tt>Future</tt> for each load.</p>
+ * <p>Interactive loads, requested by the user, run as soon as they are submitted, and several can run at once.
+ * Background loads, such as indexing, run on low priority threads and do not start while any interactive load is
+ * in progress, so interactive loads are never queued behind background work. Background loads run in streaming
+ * mode, entirely in their low priority thread, and pause between batches of points while an interactive load
+ * runs.</p>
+ * <p>Cancelling a <tt>Future</tt> cancels its loader without waiting for it to stop. <tt>Future.get</tt> returns
+ * the loaded data, throws a <tt>CancellationException</tt> if the load was cancelled, or throws an
+ * <tt>ExecutionException</tt> holding the exception that stopped the load.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class LoadService
+{
+	// Number of interactive loads in progress
+	private int active;
+	
+	// Executors for each type of load
+	private final ExecutorService background, interactive;
+	// Lock guarding the active count and set of tasks
+	private final Object lock;
+	// Tasks submitted and not yet done
+	private final HashSet<LoadTask> tasks;
+	
+	/**
+	 * Create a new <tt>LoadService</tt> using one background thread for each processor not used for
+	 * interactive loads.
+	 */
+	public LoadService() {
+		this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+	}
+	
+	/**
+	 * Create a new <tt>LoadService</tt>.
+	 * @param backgroundThreads the maximum number of background loads to run at once.
+	 */
+	public LoadService(int backgroundThreads) {
+		// Validate threads input
+		if(backgroundThreads < 1) {
+			throw new IllegalArgumentException("Background threads must be at least one");
+		}
+		lock = new Object();
+		tasks = new HashSet<LoadTask>();
+		interactive = Executors.newCachedThreadPool(new LoadThreadFactory("LoadService-interactive", Thread.NORM_PRIORITY));
+		background = Executors.newFixedThreadPool(backgroundThreads, new LoadThreadFactory("LoadService-background", Thread.MIN_PRIORITY));
+	}
+	
+	/**
+	 * Wait until no interactive loads are in progress, or a loader has been cancelled.
+	 * @param loader the loader waiting.
+	 * @throws InterruptedException if the thread is interrupted while waiting.
+	 */
+	private void awaitInteractive(DataLoader loader) throws InterruptedException {
+		synchronized(lock) {
+			while(active > 0 && loader.getState() != DataLoader.STATE_CANCELLED) {
+				lock.wait();
+			}
+		}
+	}
+	
+	/**
+	 * Run a loader in the current thread and return its result.
+	 * @param loader the loader to run.
+	 * @param isInteractive whether the load is interactive.
+	 * @return the loaded data.
+	 * @throws Exception the exception that stopped the load.
+	 */
+	private SkiData load(final DataLoader loader, boolean isInteractive) throws Exception {
+		if(isInteractive) {
+			synchronized(lock) {
+				active ++;
+			}
+		} else {
+			// Load in this thread, rather than pipeline stage threads, and give way to interactive loads between batches
+			loader.setLoadMode(DataLoader.LOAD_MODE_STREAMING);
+			loader.setPause(new Runnable() {
+				public void run() {
+					try {
+						awaitInteractive(loader);
+					} catch(InterruptedException ie) {
+						// Load is being cancelled, so stop waiting
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+			
+			// Wait for interactive loads to finish
+			awaitInteractive(loader);
+		}
+		try {
+			loader.run();
+		} finally {
+			if(isInteractive) {
+				synchronized(lock) {
+					// Allow background loads to start once no interactive loads remain
+					if(-- active == 0) {
+						lock.notifyAll();
+					}
+				}
+			}
+		}
+		
+		switch(loader.getState()) {
+			case DataLoader.STATE_COMPLETE:
+				return loader.getData();
+			case DataLoader.STATE_CANCELLED:
+				throw new CancellationException("Load cancelled");
+		}
+		Exception e = loader.getError();
+		throw (e == null ? new IllegalStateException(String.format("Load did not complete (state %d)", loader.getState())) : e);
+	}
+	
+	/**
+	 * Check if any interactive loads are in progress.
+	 * @return true if at least one interactive load is running.
+	 */
+	public boolean isInteractiveActive() {
+		synchronized(lock) {
+			return active > 0;
+		}
+	}
+	
+	/**
+	 * Stop accepting loads and cancel all loads in progress, without waiting for them to stop.
+	 */
+	public void shutdown() {
+		interactive.shutdownNow();
+		background.shutdownNow();
+		
+		// Cancel loaders still running
+		ArrayList<LoadTask> running;
+		synchronized(lock) {
+			running = new ArrayList<LoadTask>(tasks);
+		}
+		for(LoadTask task : running) {
+			task.cancel(true);
+		}
+	}
+	
+	/**
+	 * Submit an interactive load, which starts immediately.
+	 * @param loader the loader to run. A loader must only be submitted once.
+	 * @return a <tt>Future</tt> representing the load.
+	 */
+	public Future<SkiData> submit(DataLoader loader) {
+		LoadTask task = new LoadTask(loader, true);
+		synchronized(lock) {
+			tasks.add(task);
+		}
+		interactive.execute(task);
+		return task;
+	}
+	
+	/**
+	 * Submit a background load, which starts when a background thread is available and no interactive loads
+	 * are in progress. The loader is switched to streaming mode.
+	 * @param loader the loader to run. A loader must only be submitted once.
+	 * @return a <tt>Future</tt> representing the load.
+	 */
+	public Future<SkiData> submitBackground(DataLoader loader) {
+		LoadTask task = new LoadTask(loader, false);
+		synchronized(lock) {
+			tasks.add(task);
+		}
+		background.execute(task);
+		return task;
+	}
+	
+	/**
+	 * <p>Task that runs a loader, cancelling the loader when the task is cancelled.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class LoadTask extends FutureTask<SkiData>
+	{
+		// Loader run by this task
+		private final DataLoader loader;
+		
+		/**
+		 * Create a new load task.
+		 * @param loader the loader to run.
+		 * @param isInteractive whether the load is interactive.
+		 */
+		LoadTask(final DataLoader loader, final boolean isInteractive) {
+			super(new Callable<SkiData>() {
+				public SkiData call() throws Exception {
+					return load(loader, isInteractive);
+				}
+			});
+			this.loader = loader;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.FutureTask#cancel(boolean)
+		 */
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if(cancelled) {
+				// Stop the loader, if it is running, and wake it if it is waiting for interactive loads
+				loader.cancel();
+				synchronized(lock) {
+					lock.notifyAll();
+				}
+			}
+			return cancelled;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.FutureTask#done()
+		 */
+		@Override
+		protected void done() {
+			synchronized(lock) {
+				tasks.remove(this);
+			}
+		}
+	}
+	
+	/**
+	 * <p>Thread factory creating named daemon threads of a given priority.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private static class LoadThreadFactory implements ThreadFactory
+	{
+		// Number of threads created
+		private int count;
+		// Thread name prefix
+		private final String name;
+		// Thread priority
+		private final int priority;
+		
+		/**
+		 * Create a new thread factory.
+		 * @param name the prefix of thread names.
+		 * @param priority the priority of threads.
+		 */
+		LoadThreadFactory(String name, int priority) {
+			this.name = name;
+			this.priority = priority;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+		 */
+		public synchronized Thread newThread(Runnable r) {
+			Thread t = new Thread(r, name + "-" + (++ count));
+			t.setDaemon(true);
+			t.setPriority(priority);
+			return t;
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+/**
+ * <p>Interface specifying methods used by a class publishing a sequence of items to subscribers, which control
+ * the rate items are sent by requesting them.</p>
+ * <p>Follows the same contract as <tt>java.util.concurrent.Flow.Publisher</tt>.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public interface Publisher<T>
+{
+	/**
+	 * Add a subscriber. <tt>onSubscribe</tt> is called on the subscriber before any other method.
+	 * @param subscriber the <tt>Subscriber</tt> to add.
+	 * @throws NullPointerException if <tt>subscriber</tt> is null.
+	 */
+	public void subscribe(Subscriber<? super T> subscriber);
+}
@@ -0,0 +1,62 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.IOException;
+import java.text.ParseException;
+
+
+/**
+ * <p>Interface specifying an input parser that can read, parse and project records as separate steps,
+ * allowing each step to run as a separate stage of a loading pipeline.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public interface RecordParser extends DataParser
+{
+	/**
+	 * Read the next raw record from the input source.
+	 * @return a <tt>String</tt> containing the record, or null if end of source has been reached.
+	 * @throws IOException if an error occurs when reading the input source.
+	 */
+	public String readRecord() throws IOException;
+	
+	/**
+	 * Get the line number of the last record read, which should be passed to <tt>parseRecord</tt> with the record
+	 * as reading may run ahead of parsing.
+	 * @return the line number of the record last returned by <tt>readRecord</tt>.
+	 */
+	public int getLineNumber();
+	
+	/**
+	 * Parse a raw record into a <tt>Datum</tt> object. The returned point may need projecting before it is used.
+	 * @param record a <tt>String</tt> containing the raw record.
+	 * @param lineNumber the line number the record was read from, reported as the offset of any <tt>ParseException</tt>.
+	 * @return the parsed <tt>Datum</tt> object, or null if the record marks the end of the data.
+	 * @throws ParseException if a problem occurs parsing the record.
+	 * @see #requiresProjection()
+	 */
+	public Datum parseRecord(String record, int lineNumber) throws ParseException;
+	
+	/**
+	 * Handle a record that could not be parsed.
+	 * @param record a <tt>String</tt> containing the raw record.
+	 * @param pe the <tt>ParseException</tt> thrown when parsing the record.
+	 */
+	public void rejectRecord(String record, ParseException pe);
+	
+	/**
+	 * Check if parsed points need projecting to calculate their Cartesian coordinates.
+	 * @return true if points returned by <tt>parseRecord</tt> must be projected, false otherwise.
+	 */
+	public boolean requiresProjection();
+}
@@ -0,0 +1,163 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.TreeMap;
+
+/**
+ * <p>Index of ski data loaded across a season, keyed by day. A data set is listed under each day one of its blocks
+ * starts on, so a file recorded over several days is found under each of them.</p>
+ * <p>Holds the files that could not be loaded and overall load statistics alongside the data.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class SeasonIndex extends TreeMap<Date, ArrayList<SkiData>>
+{
+	/**
+	 * Unique serializable identifier.
+	 */
+	private static final long serialVersionUID = -4471283054263938218L;
+	
+	// Files that could not be loaded
+	private LinkedHashMap<File, Exception> failures;
+	// Load statistics
+	private long elapsed;
+	private int elements, files, points;
+	
+	/**
+	 * Create a new, empty season index.
+	 */
+	SeasonIndex() {
+		super();
+		failures = new LinkedHashMap<File, Exception>();
+	}
+	
+	/**
+	 * Add a data set to the index, under the day each of its blocks starts on. Only the block keys are read, so the
+	 * view of all elements is not built.
+	 * @param data the data set to add.
+	 * @param points the number of points loaded to build the data set.
+	 */
+	void add(SkiData data, int points) {
+		// Block keys are in time order, so a data set is only added once to each day
+		for(Track key : data.getBlockKeys()) {
+			Date day = getDay(new Date(key.getStartTimeMillis()));
+			ArrayList<SkiData> list = get(day);
+			if(list == null) {
+				// Key not found, create new list
+				list = new ArrayList<SkiData>();
+				put(day, list);
+			}
+			if(list.isEmpty() || list.get(list.size() - 1) != data) {
+				list.add(data);
+			}
+		}
+		
+		// Update statistics
+		this.elements += data.size();
+		this.points += points;
+		files ++;
+	}
+	
+	/**
+	 * Record a file that could not be loaded.
+	 * @param file the file.
+	 * @param e the <tt>Exception</tt> that caused the load to fail.
+	 */
+	void addFailure(File file, Exception e) {
+		failures.put(file, e);
+	}
+	
+	/**
+	 * Set the time taken to load the season.
+	 * @param elapsed the elapsed time in milliseconds.
+	 */
+	void setElapsedTime(long elapsed) {
+		this.elapsed = elapsed;
+	}
+	
+	/**
+	 * Get the day containing a time.
+	 * @param time the time.
+	 * @return a <tt>Date</tt> representing midnight at the start of the day.
+	 */
+	public static Date getDay(Date time) {
+		Calendar cal = Calendar.getInstance();
+		cal.setTime(time);
+		cal.set(Calendar.HOUR_OF_DAY, 0);
+		cal.set(Calendar.MINUTE, 0);
+		cal.set(Calendar.SECOND, 0);
+		cal.set(Calendar.MILLISECOND, 0);
+		return cal.getTime();
+	}
+	
+	/**
+	 * Get the time taken to load the season.
+	 * @return the elapsed time in milliseconds.
+	 */
+	public long getElapsedTime() {
+		return elapsed;
+	}
+	
+	/**
+	 * Get the total number of elements.
+	 * @return the number of elements in all data sets.
+	 */
+	public int getElementCount() {
+		return elements;
+	}
+	
+	/**
+	 * Get the files that could not be loaded.
+	 * @return a map of each failed file to the <tt>Exception</tt> that caused it to fail.
+	 */
+	public LinkedHashMap<File, Exception> getFailures() {
+		return failures;
+	}
+	
+	/**
+	 * Get the number of files loaded.
+	 * @return the number of files successfully loaded.
+	 */
+	public int getFileCount() {
+		return files;
+	}
+	
+	/**
+	 * Get the total number of points.
+	 * @return the number of points loaded from all files.
+	 */
+	public int getPointCount() {
+		return points;
+	}
+	
+	/**
+	 * Get the overall load throughput.
+	 * @return the number of points loaded per second.
+	 */
+	public float getPointsPerSecond() {
+		return (elapsed == 0 ? 0.0f : points * 1000.0f / elapsed);
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.util.AbstractMap#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("%d days, %d files (%d failed), %,d points in %,dms (%,.0f points/sec)", size(), files, failures.size(), points, elapsed, getPointsPerSecond());
+	}
+}
@@ -0,0 +1,294 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>Loads a season of data files in parallel, merging the results into a <tt>SeasonIndex</tt>.</p>
+ * <p>Each file is loaded by its own <tt>DataLoader</tt> on a bounded pool of threads. Files are scheduled
+ * largest first, and each idle thread takes the next file from the shared queue, so the season loads in
+ * roughly the time of the largest file when there are enough processors. A file that fails to load is recorded
+ * in the index and does not stop the remaining files from loading.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class SeasonIngest
+{
+	// Files to load
+	private final ArrayList<File> files;
+	// Gap handling policy
+	private GapPolicy gapPolicy;
+	// Data processor
+	private final Processor proc;
+	// Number of threads to load with
+	private final int threads;
+	
+	/**
+	 * Create a new <tt>SeasonIngest</tt>, using one thread for each available processor.
+	 * @param proc data processor, which must be safe to share between threads.
+	 */
+	public SeasonIngest(Processor proc) {
+		this(proc, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Create a new <tt>SeasonIngest</tt>.
+	 * @param proc data processor, which must be safe to share between threads.
+	 * @param threads the maximum number of files to load at once.
+	 */
+	public SeasonIngest(Processor proc, int threads) {
+		// Validate processor input
+		if(proc == null) {
+			throw new IllegalArgumentException("Processor cannot be null");
+		}
+		this.proc = proc;
+		// Validate threads input
+		if(threads < 1) {
+			throw new IllegalArgumentException("Threads must be at least one");
+		}
+		this.threads = threads;
+		this.gapPolicy = GapPolicy.DEFAULT;
+		
+		files = new ArrayList<File>();
+	}
+	
+	/**
+	 * Add all GSD and CSV files in a directory.
+	 * @param dir the directory to search.
+	 * @return the number of files added.
+	 * @throws IllegalArgumentException if <tt>dir</tt> is not a directory.
+	 */
+	public int addDirectory(File dir) {
+		File[] list = dir.listFiles();
+		if(list == null) {
+			throw new IllegalArgumentException("Not a directory: " + dir);
+		}
+		int ct = 0;
+		for(File f : list) {
+			String name = f.getName().toLowerCase();
+			if(f.isFile() && (name.endsWith(".gsd") || name.endsWith(".csv"))) {
+				files.add(f);
+				ct ++;
+			}
+		}
+		return ct;
+	}
+	
+	/**
+	 * Add a single file.
+	 * @param file the file to add.
+	 */
+	public void addFile(File file) {
+		files.add(file);
+	}
+	
+	/**
+	 * Get the policy used to handle gaps in the recorded data.
+	 * @return the current <tt>GapPolicy</tt>.
+	 */
+	public GapPolicy getGapPolicy() {
+		return gapPolicy;
+	}
+	
+	/**
+	 * Load all files added and merge the results into a season index. Blocks until all files have been loaded.
+	 * @return a <tt>SeasonIndex</tt> containing the loaded data.
+	 * @throws InterruptedException if the thread is interrupted while waiting for files to load.
+	 */
+	public SeasonIndex ingest() throws InterruptedException {
+		SeasonIndex index = new SeasonIndex();
+		long start = System.currentTimeMillis();
+		
+		// Schedule largest files first, so no large file is left to load on its own at the end
+		ArrayList<File> sorted = new ArrayList<File>(files);
+		Collections.sort(sorted, new Comparator<File>() {
+			public int compare(File f1, File f2) {
+				return (f1.length() < f2.length() ? 1 : (f1.length() > f2.length() ? -1 : 0));
+			}
+		});
+		
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(sorted.size(), 1)));
+		try {
+			CompletionService<FileLoad> loads = new ExecutorCompletionService<FileLoad>(pool);
+			ArrayList<Future<FileLoad>> futures = new ArrayList<Future<FileLoad>>();
+			for(File f : sorted) {
+				futures.add(loads.submit(new FileLoad(f)));
+			}
+			
+			// Merge results as each file completes
+			for(int i = 0; i < sorted.size(); i ++) {
+				Future<FileLoad> future = loads.take();
+				try {
+					FileLoad load = future.get();
+					if(load.error != null) {
+						index.addFailure(load.file, load.error);
+					} else {
+						index.add(load.data, load.points);
+					}
+				} catch(ExecutionException ee) {
+					// Unexpected failure, find the file it was loading
+					File f = sorted.get(futures.indexOf(future));
+					index.addFailure(f, (ee.getCause() instanceof Exception ? (Exception) ee.getCause() : ee));
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		
+		index.setElapsedTime(System.currentTimeMillis() - start);
+		return index;
+	}
+	
+	/**
+	 * Set the policy used to handle gaps in the recorded data.
+	 * @param gapPolicy the new <tt>GapPolicy</tt>.
+	 */
+	public void setGapPolicy(GapPolicy gapPolicy) {
+		// Validate policy input
+		if(gapPolicy == null) {
+			throw new IllegalArgumentException("Gap policy cannot be null");
+		}
+		this.gapPolicy = gapPolicy;
+	}
+	
+	/**
+	 * Load each GSD and CSV file in a directory and print a summary of the season.
+	 * @param args the directory to load, and optionally the number of threads.
+	 * @throws InterruptedException if interrupted while loading.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		if(args.length < 1) {
+			System.err.println("Usage: SeasonIngest <directory> [threads]");
+			System.exit(1);
+		}
+		SeasonIngest ingest = (args.length > 1 ? new SeasonIngest(new SkiDataProcessor(), Integer.parseInt(args[1])) : new SeasonIngest(new SkiDataProcessor()));
+		ingest.addDirectory(new File(args[0]));
+		
+		SeasonIndex index = ingest.ingest();
+		for(Date day : index.keySet()) {
+			for(SkiData data : index.get(day)) {
+				System.out.println(String.format("%tF: %,d elements", day, data.size()));
+			}
+		}
+		for(File f : index.getFailures().keySet()) {
+			System.out.println(String.format("FAILED %s: %s", f, index.getFailures().get(f)));
+		}
+		System.out.println(index);
+	}
+	
+	/**
+	 * <p>Task that loads a single file, recording the result or the error that stopped it loading.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class FileLoad implements Callable<FileLoad>, DataLoaderListener
+	{
+		// Result of the load
+		private SkiData data;
+		private Exception error;
+		private int points;
+		// File to load
+		private final File file;
+		
+		/**
+		 * Create a new file load task.
+		 * @param file the file to load.
+		 */
+		FileLoad(File file) {
+			this.file = file;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		public FileLoad call() {
+			InputStream is = null;
+			try {
+				is = new BufferedInputStream(new FileInputStream(file));
+				DataParser parser = (file.getName().toLowerCase().endsWith(".csv") ? new CSVParser(is) : new GSDParser(is, true));
+				
+				// Load in this thread, holding only the window of raw points in memory
+				DataLoader loader = new DataLoader(parser, proc, 0, -1, this);
+				loader.setLoadMode(DataLoader.LOAD_MODE_STREAMING);
+				loader.setGapPolicy(gapPolicy);
+				loader.run();
+				
+				data = loader.getData();
+				if(error == null && (data == null || data.size() == 0)) {
+					error = new IOException("No data loaded");
+				}
+			} catch(IOException ioe) {
+				error = ioe;
+			} finally {
+				if(is != null) {
+					try {
+						is.close();
+					} catch(IOException ioe) {
+						// Ignore
+					}
+				}
+			}
+			return this;
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#aborted()
+		 */
+		public void aborted() {}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#completed(int)
+		 */
+		public void completed(int elementCount) {}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#emptyData()
+		 */
+		public void emptyData() {}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#error(java.lang.Exception)
+		 */
+		public void error(Exception e) {
+			error = e;
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#loadingComplete(int)
+		 */
+		public void loadingComplete(int count) {
+			points = count;
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.data.DataLoaderListener#progressUpdated(uk.co.essarsoftware.ski.data.LoadMetrics)
+		 */
+		public void progressUpdated(LoadMetrics metrics) {}
+	}
+}
@@ -19,92 +19,93 @@ import uk.co.essarsoftware.ski.data.TrackElement.Mode;
 
 /**
  * <p>Data structure for holding ski <tt>TrackElement</tt> objects.</p>
+ * <p>A <tt>SkiData</tt> set is an immutable snapshot published by a <tt>SkiDataBuilder</tt>, and can be read from
+ * any thread without locking while loading continues. Tracks and blocks are shared between snapshots rather than
+ * copied, and must not be modified by callers. Views across all tracks and blocks are built on first use.</p>
  *
  * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
  * @version 1.0 (30 Nov 2011)
  */
-public class SkiData implements Serializable
+public final class SkiData implements Serializable
 {
 	/**
 	 * Unique serializable identifier. 
 	 */
 	private static final long serialVersionUID = 2372621609920844359L;
 	
-	// Map of blocks
-	private TrackBlockSet blocks;
-	// Map of tracks
-	private TrackBlock tracks;
+	// Closed blocks, only the first blockCount are part of this snapshot
+	private final TrackBlock[] blocks;
+	private final int blockCount;
+	// Closed tracks, only the first trackCount are part of this snapshot
+	private final Track[] tracks;
+	private final int trackCount;
+	// Number of elements in closed tracks, including tracks that have not been retained
+	private final int size;
 	
-	// Current track
-	private transient Track cTrack;
-	// Current block
-	private transient TrackBlock cBlock;
+	// Views of the blocks and tracks, built on first use
+	private transient volatile TrackBlockSet blockView;
+	private transient volatile TrackBlock trackView;
 	
 	/**
-	 * Initialise a new SkiData element.
+	 * Create a new snapshot. Array entries within the counts given must never be changed.
+	 * @param tracks array of closed tracks.
+	 * @param trackCount number of tracks in the snapshot.
+	 * @param blocks array of closed blocks.
+	 * @param blockCount number of blocks in the snapshot.
+	 * @param size number of elements in closed tracks.
 	 */
-	SkiData() {
-		tracks = new TrackBlock();
-		blocks = new TrackBlockSet();
-		
-		cTrack = new Track();
-		cBlock = new TrackBlock();
+	SkiData(Track[] tracks, int trackCount, TrackBlock[] blocks, int blockCount, int size) {
+		this.tracks = tracks;
+		this.trackCount = trackCount;
+		this.blocks = blocks;
+		this.blockCount = blockCount;
+		this.size = size;
 	}
 	
 	/**
-	 * Close the current track and calculate aggregate values.
+	 * Get a view of all blocks, keyed by their first track.
+	 * @return a <tt>TrackBlockSet</tt> of blocks.
 	 */
-	private void closeTrack() {
-		// Check the set is open
-		if(cTrack.size() > 0) {
-			// Calculate aggregate values
-			cTrack.calcAggregates();
-			
-			// Add current track to set of tracks
-			tracks.add(cTrack);
-			
-			// Add current track to blocks
-			if(cBlock.size() > 0 && cTrack.getFirst().getMode() == Mode.LIFT) {
-				// Close current block
-				cBlock.close();
-				// Add current block to set of blocks
-				blocks.add(cBlock);
-				// Reset current block
-				cBlock = new TrackBlock();
+	private TrackBlockSet getBlocks() {
+		TrackBlockSet view = blockView;
+		if(view == null) {
+			// Build view, which may be built more than once if readers race
+			view = new TrackBlockSet();
+			for(int i = 0; i < blockCount; i ++) {
+				view.add(blocks[i]);
 			}
-			// Add track to current block
-			cBlock.add(cTrack);
-			
-			// Reset current track
-			cTrack = new Track();
+			blockView = view;
 		}
+		return view;
 	}
 	
 	/**
-	 * Add an element to the data set.
-	 * @param elem the element to add.
+	 * Get a view of all tracks, keyed by their first element.
+	 * @return a <tt>TrackBlock</tt> containing all tracks.
 	 */
-	void addElement(TrackElement elem) {
-		// If this element is not the same mode as the current track, close the track
-		if(cTrack.size() > 0 && elem.getMode() != cTrack.getFirst().getMode()) {
-			closeTrack();
+	private TrackBlock getTracks() {
+		TrackBlock view = trackView;
+		if(view == null) {
+			// Build view, which may be built more than once if readers race
+			view = new TrackBlock();
+			for(int i = 0; i < trackCount; i ++) {
+				view.add(tracks[i]);
+			}
+			trackView = view;
 		}
-		
-		// Add element to current track
-		cTrack.add(elem);
+		return view;
 	}
 	
 	/**
-	 * Close all tracks and calculate aggregate values.
+	 * Replace this snapshot with its serialized form, holding only the tracks and blocks in the snapshot.
+	 * @return a <tt>SerializedForm</tt> of this snapshot.
 	 */
-	void closeAll() {
-		// Close any open set
-		if(cTrack.size() > 0) {
-			closeTrack();
-		}
-		
-		// Calculate aggregate values on tracks
-		tracks.close();
+	private Object writeReplace() {
+		Track[] t = new Track[trackCount];
+		System.arraycopy(tracks, 0, t, 0, trackCount);
+		TrackBlock[] b = new TrackBlock[blockCount];
+		System.arraycopy(blocks, 0, b, 0, blockCount);
+		return new SerializedForm(t, b, size);
 	}
 	
 	/**
@@ -112,7 +113,7 @@ public class SkiData implements Serializable
 	 * @return a Track containing all elements.
 	 */
 	public Track getAllElements() {
-		return tracks.getElements();
+		return getTracks().getElements();
 	}
 	
 	/**
@@ -121,7 +122,7 @@ public class SkiData implements Serializable
 	 * @return a Track containing all elements in a given mode.
 	 */
 	public Track getAllElements(Mode mode) {
-		return tracks.getElements(mode);
+		return getTracks().getElements(mode);
 	}
 	
 	/**
@@ -130,7 +131,7 @@ public class SkiData implements Serializable
 	 * @return a <tt>TrackBlock</tt>, or null if <tt>key</tt> is not a valid key.
 	 */
 	public TrackBlock getBlock(Track key) {
-		return blocks.get(key);
+		return getBlocks().get(key);
 	}
 	
 	/**
@@ -139,10 +140,8 @@ public class SkiData implements Serializable
 	 * @return a <tt>Track</tt>, or null if <tt>key</tt> is not a valid key.
 	 */
 	public Track getBlockElements(Track key) {
-		if(blocks.containsKey(key)) {
-			return blocks.get(key).getElements();
-		}
-		return null;
+		TrackBlock block = getBlocks().get(key);
+		return (block == null ? null : block.getElements());
 	}
 	
 	/**
@@ -150,14 +149,14 @@ public class SkiData implements Serializable
 	 * @return an <tt>ArrayList</tt> of <tt>Track</tt>s.
 	 */
 	public ArrayList<Track> getBlockKeys() {
-		return new ArrayList<Track>(blocks.keySet());
+		return new ArrayList<Track>(getBlocks().keySet());
 	}
 	
 	/**
 	 * Gets a <tt>Track</tt> of points in a track starting with the given element.
 	 */
 	public Track getTrackFrom(TrackElement elem) {
-		return tracks.get(elem);
+		return getTracks().get(elem);
 	}
 	
 	/**
@@ -165,28 +164,61 @@ public class SkiData implements Serializable
 	 * @return an <tt>ArrayList</tt> of <tt>TrackElement</tt>s.
 	 */
 	public ArrayList<TrackElement> getTrackKeys() {
-		return new ArrayList<TrackElement>(tracks.keySet());
+		return new ArrayList<TrackElement>(getTracks().keySet());
 	}
 	
 	/**
-	 * Get the total number of elements in the data set.
+	 * Get the total number of elements in the data set, including elements in tracks that were not retained.
 	 * @return the size of the set.
 	 */
 	public int size() {
-		return cTrack.size() + tracks.getElements().size();
+		return size;
 	}
 	
-	private class TrackBlockSet extends TreeMap<Track, TrackBlock>
+	/**
+	 * <p>Serialized form of a snapshot, holding only the tracks and blocks it contains.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private static class SerializedForm implements Serializable
+	{
+		/**
+		 * Unique serializable identifier.
+		 */
+		private static final long serialVersionUID = -6301547711832617270L;
+		
+		private final TrackBlock[] blocks;
+		private final Track[] tracks;
+		private final int size;
+		
+		SerializedForm(Track[] tracks, TrackBlock[] blocks, int size) {
+			this.tracks = tracks;
+			this.blocks = blocks;
+			this.size = size;
+		}
+		
+		/**
+		 * Restore the snapshot.
+		 * @return the <tt>SkiData</tt> snapshot.
+		 */
+		private Object readResolve() {
+			return new SkiData(tracks, tracks.length, blocks, blocks.length, size);
+		}
+	}
+	
+	private static class TrackBlockSet extends TreeMap<Track, TrackBlock>
 	{
 		/**
 		 * Unique serializable identifier.
 		 */
 		private static final long serialVersionUID = 7098078063747495972L;
-
+		
 		public TrackBlockSet() {
 			super(new Comparator<Track>() {
 				public int compare(Track t1, Track t2) {
-					return (int) ((t1 == null ? 0 : t1.getStartTime()) - (t2 == null ? 0 : t2.getStartTime()));
+					long delta = (t1 == null ? 0 : t1.getStartTimeMillis()) - (t2 == null ? 0 : t2.getStartTimeMillis());
+					return (delta < 0 ? -1 : (delta > 0 ? 1 : 0));
 				}
 			});
 		}
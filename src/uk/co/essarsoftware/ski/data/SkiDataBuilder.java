@@ -0,0 +1,222 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.lang.reflect.Array;
+
+import uk.co.essarsoftware.ski.data.StageMetrics.Stage;
+import uk.co.essarsoftware.ski.data.TrackElement.Mode;
+
+/**
+ * <p>Mutable builder that groups classified <tt>TrackElement</tt>s into tracks and blocks, publishing an immutable
+ * <tt>SkiData</tt> snapshot each time a track or block is closed.</p>
+ * <p>The builder must only be used by one thread. Closed tracks and blocks are never modified, so they are shared
+ * between the builder and all snapshots rather than copied, and publishing a snapshot takes constant time.
+ * Snapshots can be read from any thread without locking while the builder continues to add elements.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+class SkiDataBuilder
+{
+	// Initial length of the arrays of closed tracks and blocks
+	private static final int INITIAL_CAPACITY = 16;
+	
+	// Closed tracks and blocks, shared with published snapshots
+	private TrackBlock[] blocks;
+	private Track[] tracks;
+	private int blockCount, trackCount;
+	// Number of elements in closed tracks, including tracks that have not been retained
+	private int closed;
+	
+	// Current track
+	private Track cTrack;
+	// Current block
+	private TrackBlock cBlock;
+	
+	// Listener notified as tracks and blocks are closed
+	private final TrackListener listener;
+	// Indicating if closed tracks and blocks are retained
+	private final boolean retain;
+	// Stage timers
+	private final StageMetrics stats;
+	// Latest published snapshot
+	private volatile SkiData snapshot;
+	
+	/**
+	 * Create a new builder that retains all tracks and blocks.
+	 */
+	SkiDataBuilder() {
+		this(null, true, new StageMetrics());
+	}
+	
+	/**
+	 * Create a new builder, notifying a listener as tracks and blocks are closed. If closed tracks and blocks are
+	 * not retained, only the open track and block are held and published snapshots contain no tracks.
+	 * @param listener the listener to notify, or null.
+	 * @param retain whether to retain closed tracks and blocks.
+	 * @param stats registry recording the time spent closing tracks and updating aggregate values.
+	 */
+	SkiDataBuilder(TrackListener listener, boolean retain, StageMetrics stats) {
+		this.listener = listener;
+		this.retain = retain;
+		this.stats = stats;
+		
+		tracks = new Track[INITIAL_CAPACITY];
+		blocks = new TrackBlock[INITIAL_CAPACITY];
+		
+		cTrack = new Track();
+		cBlock = new TrackBlock();
+		
+		// Publish empty snapshot
+		publish();
+	}
+	
+	/**
+	 * Store a value in an array, creating a longer copy of the array if it is full. Values already in the array
+	 * are never overwritten, so snapshots holding the previous array are not affected.
+	 * @param array the array to store the value in.
+	 * @param index the index to store the value at, which must not already hold a value.
+	 * @param value the value to store.
+	 * @return the array holding the value.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T[] append(T[] array, int index, T value) {
+		if(index == array.length) {
+			// Array full, copy to a new array
+			T[] copy = (T[]) Array.newInstance(array.getClass().getComponentType(), array.length * 2);
+			System.arraycopy(array, 0, copy, 0, array.length);
+			array = copy;
+		}
+		array[index] = value;
+		return array;
+	}
+	
+	/**
+	 * Close the current block and add it to the set of blocks.
+	 */
+	private void closeBlock() {
+		// Check the block is open
+		if(cBlock.size() > 0) {
+			if(retain) {
+				// Add current block to set of blocks
+				blocks = append(blocks, blockCount ++, cBlock);
+			}
+			// Notify listener
+			if(listener != null) {
+				listener.blockClosed(cBlock);
+			}
+			// Reset current block
+			cBlock = new TrackBlock();
+			
+			publish();
+		}
+	}
+	
+	/**
+	 * Close the current track and add it to the set of tracks.
+	 */
+	private void closeTrack() {
+		// Check the set is open
+		if(cTrack.size() > 0) {
+			if(retain) {
+				// Add current track to set of tracks
+				tracks = append(tracks, trackCount ++, cTrack);
+			}
+			closed += cTrack.size();
+			
+			// Lifts start a new block
+			if(cTrack.getFirst().getMode() == Mode.LIFT) {
+				closeBlock();
+			}
+			// Add track to current block
+			cBlock.add(cTrack);
+			
+			// Notify listener
+			if(listener != null) {
+				listener.trackClosed(cTrack);
+			}
+			
+			// Reset current track
+			cTrack = new Track();
+			
+			publish();
+		}
+	}
+	
+	/**
+	 * Publish a snapshot of the closed tracks and blocks.
+	 */
+	private void publish() {
+		snapshot = new SkiData(tracks, trackCount, blocks, blockCount, closed);
+	}
+	
+	/**
+	 * Add an element to the data set.
+	 * @param elem the element to add.
+	 */
+	void addElement(TrackElement elem) {
+		if(elem.getGap() == GapPolicy.GAP_SPLIT) {
+			// Long gap in the data, so close the current track and block
+			long t = stats.start();
+			closeTrack();
+			closeBlock();
+			stats.stop(Stage.CLOSE, t);
+		}
+		// If this element is not the same mode as the current track, close the track
+		if(cTrack.size() > 0 && elem.getMode() != cTrack.getFirst().getMode()) {
+			long t = stats.start();
+			closeTrack();
+			stats.stop(Stage.CLOSE, t);
+		}
+		
+		// Add element to current track, updating aggregate values
+		long t = stats.start();
+		cTrack.append(elem);
+		stats.stop(Stage.AGGREGATE, t);
+	}
+	
+	/**
+	 * Close all open tracks and blocks, publishing a snapshot of the complete data set.
+	 */
+	void closeAll() {
+		// Close any open set
+		long t = stats.start();
+		closeTrack();
+		closeBlock();
+		stats.stop(Stage.CLOSE, t);
+	}
+	
+	/**
+	 * Get the current, open track. Aggregate values are kept up to date as elements are added.
+	 * @return the current <tt>Track</tt>, which may be empty.
+	 */
+	Track getCurrentTrack() {
+		return cTrack;
+	}
+	
+	/**
+	 * Get the latest published snapshot. May be called from any thread.
+	 * @return a <tt>SkiData</tt> containing the tracks and blocks closed when it was published.
+	 */
+	SkiData getSnapshot() {
+		return snapshot;
+	}
+	
+	/**
+	 * Get the total number of elements added, including elements in the open track and in tracks that were not
+	 * retained.
+	 * @return the number of elements added.
+	 */
+	int size() {
+		return closed + cTrack.size();
+	}
+}
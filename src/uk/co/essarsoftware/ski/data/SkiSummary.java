@@ -0,0 +1,205 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+/**
+ * <p>Summary of a ski data set, accumulated from tracks as they are closed.</p>
+ * <p>Only aggregate values are held, so a summary can be built from logs of any length in constant memory
+ * when the loader is not retaining data.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class SkiSummary implements TrackListener
+{
+	// Counts
+	private int blocks, elements, lifts, runs;
+	// Distances and altitudes
+	private float skiDistance;
+	private int hiAlt, liftAscent, loAlt, skiDescent;
+	// Speeds
+	private float maxSpeed;
+	// Times
+	private long endTime, liftTime, skiTime, startTime, stopTime;
+	
+	/**
+	 * Create a new, empty summary.
+	 */
+	public SkiSummary() {
+		super();
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.TrackListener#blockClosed(uk.co.essarsoftware.ski.data.TrackBlock)
+	 */
+	public void blockClosed(TrackBlock block) {
+		blocks ++;
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.data.TrackListener#trackClosed(uk.co.essarsoftware.ski.data.Track)
+	 */
+	public void trackClosed(Track track) {
+		switch(track.getFirst().getMode()) {
+			case LIFT:
+				lifts ++;
+				liftAscent += Math.max(track.getDeltaAltitude(), 0);
+				liftTime += track.getDuration();
+				break;
+			case SKI:
+				runs ++;
+				skiDistance += track.getDistance();
+				skiDescent += Math.max(- track.getDeltaAltitude(), 0);
+				skiTime += track.getDuration();
+				maxSpeed = Math.max(maxSpeed, track.getMaxSpeed());
+				break;
+			case STOP:
+				stopTime += track.getDuration();
+				break;
+		}
+		
+		// Overall values
+		hiAlt = (elements == 0 ? track.getHighAltitude() : Math.max(hiAlt, track.getHighAltitude()));
+		loAlt = (elements == 0 ? track.getLowAltitude() : Math.min(loAlt, track.getLowAltitude()));
+		startTime = (elements == 0 ? track.getStartTime() : Math.min(startTime, track.getStartTime()));
+		endTime = (elements == 0 ? track.getEndTime() : Math.max(endTime, track.getEndTime()));
+		elements += track.size();
+	}
+	
+	/**
+	 * Get the number of blocks.
+	 * @return the number of blocks closed.
+	 */
+	public int getBlockCount() {
+		return blocks;
+	}
+	
+	/**
+	 * Get the number of elements.
+	 * @return the total number of elements in all closed tracks.
+	 */
+	public int getElementCount() {
+		return elements;
+	}
+	
+	/**
+	 * Get the end time.
+	 * @return the latest time of all closed tracks.
+	 */
+	public long getEndTime() {
+		return endTime;
+	}
+	
+	/**
+	 * Get the high altitude.
+	 * @return the highest altitude reached.
+	 */
+	public int getHighAltitude() {
+		return hiAlt;
+	}
+	
+	/**
+	 * Get the total lift ascent.
+	 * @return the total altitude gained on lifts, in metres.
+	 */
+	public int getLiftAscent() {
+		return liftAscent;
+	}
+	
+	/**
+	 * Get the number of lifts.
+	 * @return the number of lift tracks.
+	 */
+	public int getLiftCount() {
+		return lifts;
+	}
+	
+	/**
+	 * Get the time spent on lifts.
+	 * @return the total duration of lift tracks, in seconds.
+	 */
+	public long getLiftTime() {
+		return liftTime;
+	}
+	
+	/**
+	 * Get the low altitude.
+	 * @return the lowest altitude reached.
+	 */
+	public int getLowAltitude() {
+		return loAlt;
+	}
+	
+	/**
+	 * Get the maximum speed.
+	 * @return the maximum speed reached while skiing.
+	 */
+	public float getMaxSpeed() {
+		return maxSpeed;
+	}
+	
+	/**
+	 * Get the number of runs.
+	 * @return the number of ski tracks.
+	 */
+	public int getRunCount() {
+		return runs;
+	}
+	
+	/**
+	 * Get the total ski descent.
+	 * @return the total altitude lost while skiing, in metres.
+	 */
+	public int getSkiDescent() {
+		return skiDescent;
+	}
+	
+	/**
+	 * Get the total ski distance.
+	 * @return the total distance skied.
+	 */
+	public float getSkiDistance() {
+		return skiDistance;
+	}
+	
+	/**
+	 * Get the time spent skiing.
+	 * @return the total duration of ski tracks, in seconds.
+	 */
+	public long getSkiTime() {
+		return skiTime;
+	}
+	
+	/**
+	 * Get the start time.
+	 * @return the earliest time of all closed tracks.
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+	
+	/**
+	 * Get the time spent stopped.
+	 * @return the total duration of stationary tracks, in seconds.
+	 */
+	public long getStopTime() {
+		return stopTime;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("%d runs (%,dm; -%dm; max %.1f kph), %d lifts (+%dm), %d elements", runs, Math.round(skiDistance), skiDescent, maxSpeed, lifts, liftAscent, elements);
+	}
+}
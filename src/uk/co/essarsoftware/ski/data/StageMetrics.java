@@ -0,0 +1,337 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Registry of timers and counters for each stage of loading and processing data.</p>
+ * <p>Each stage records the number of times it has run, the total time spent in it and the longest single run.
+ * Stages are only timed once the registry is enabled, as timing adds two clock reads and three shared counter
+ * updates to every run of a stage, several times for each point loaded.
+ * The registry also counts records rejected by the parser and, where the JVM can report it, the number of bytes
+ * allocated by loader threads. A registry may be shared by several loaders, running in any number of threads, to
+ * collect totals across loads. Values can be read from any thread, and dumped as text or JSON, either on demand or
+ * periodically while loads run.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class StageMetrics
+{
+	/**
+	 * <p>Enumeration representing the stages of loading and processing data.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	public enum Stage
+	{
+		/** Reading raw records from the source. */
+		READ,
+		/** Parsing records into points. */
+		PARSE,
+		/** Projecting points onto Cartesian coordinates. */
+		PROJECT,
+		/** Linking points and filling gaps between them. */
+		INTERPOLATE,
+		/** Creating elements and calculating their statistics in the element window. */
+		WINDOW,
+		/** Classifying elements into ski modes. */
+		CLASSIFY,
+		/** Closing tracks and blocks. */
+		CLOSE,
+		/** Adding elements to tracks and updating aggregate values. */
+		AGGREGATE
+	}
+	
+	// Method returning the bytes allocated by a thread, or null if not supported by the JVM
+	private static final Method ALLOCATED_BYTES;
+	// Bean providing allocated bytes
+	private static final Object THREAD_BEAN;
+	
+	static {
+		Method m = null;
+		Object bean = null;
+		try {
+			// Loaded by reflection, as the management classes are not available on all platforms
+			bean = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+			Class<?> c = Class.forName("com.sun.management.ThreadMXBean");
+			if(c.isInstance(bean) && Boolean.TRUE.equals(c.getMethod("isThreadAllocatedMemorySupported").invoke(bean))) {
+				m = c.getMethod("getThreadAllocatedBytes", long.class);
+			}
+		} catch(Exception e) {
+			// Allocation not measurable on this platform
+		} catch(LinkageError le) {
+			// Allocation not measurable on this platform
+		}
+		ALLOCATED_BYTES = m;
+		THREAD_BEAN = (m == null ? null : bean);
+	}
+	
+	// Indicating if stages are timed
+	private volatile boolean enabled;
+	// Timer running the periodic dump
+	private Timer dumpTimer;
+	
+	// Number of runs, total time and longest time of each stage, in nanoseconds
+	private final AtomicLongArray counts, maxTimes, times;
+	// Number of bytes allocated by loader threads
+	private final AtomicLong allocated;
+	// Number of records rejected by the parser
+	private final AtomicLong rejected;
+	
+	/**
+	 * Create a new, disabled registry with all values set to zero.
+	 */
+	public StageMetrics() {
+		int n = Stage.values().length;
+		counts = new AtomicLongArray(n);
+		maxTimes = new AtomicLongArray(n);
+		times = new AtomicLongArray(n);
+		allocated = new AtomicLong();
+		rejected = new AtomicLong();
+	}
+	
+	/**
+	 * Get the number of bytes allocated by the current thread.
+	 * @return the number of bytes allocated, or -1 if not supported by the JVM.
+	 */
+	static long threadAllocatedBytes() {
+		if(ALLOCATED_BYTES == null) {
+			return -1;
+		}
+		try {
+			return ((Long) ALLOCATED_BYTES.invoke(THREAD_BEAN, Thread.currentThread().getId())).longValue();
+		} catch(Exception e) {
+			return -1;
+		}
+	}
+	
+	/**
+	 * Mark the start of allocations to measure in the current thread.
+	 * @return a mark to pass to <tt>allocatedSince</tt>, or -1 if allocations cannot be measured.
+	 */
+	long allocationMark() {
+		return threadAllocatedBytes();
+	}
+	
+	/**
+	 * Record the bytes allocated by the current thread since a mark was taken.
+	 * @param mark the mark returned by <tt>allocationMark</tt>.
+	 */
+	void allocatedSince(long mark) {
+		if(mark >= 0) {
+			long now = threadAllocatedBytes();
+			if(now >= mark) {
+				allocated.addAndGet(now - mark);
+			}
+		}
+	}
+	
+	/**
+	 * Record that a record has been rejected by the parser.
+	 */
+	void recordRejected() {
+		rejected.incrementAndGet();
+	}
+	
+	/**
+	 * Start timing a stage.
+	 * @return the start time, to pass to <tt>stop</tt>.
+	 */
+	long start() {
+		return (enabled ? System.nanoTime() : 0);
+	}
+	
+	/**
+	 * Stop timing a stage, recording one run of the stage.
+	 * @param stage the stage timed.
+	 * @param start the start time returned by <tt>start</tt>.
+	 */
+	void stop(Stage stage, long start) {
+		if(enabled) {
+			long elapsed = System.nanoTime() - start;
+			if(elapsed >= 0) {
+				int i = stage.ordinal();
+				counts.incrementAndGet(i);
+				times.addAndGet(i, elapsed);
+				
+				// Update longest time, unless another thread has recorded a longer one
+				long max = maxTimes.get(i);
+				while(elapsed > max && ! maxTimes.compareAndSet(i, max, elapsed)) {
+					max = maxTimes.get(i);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Get the number of bytes allocated by loader threads.
+	 * @return the number of bytes allocated, or -1 if not supported by the JVM.
+	 */
+	public long getAllocatedBytes() {
+		return (isAllocationSupported() ? allocated.get() : -1);
+	}
+	
+	/**
+	 * Get the number of times a stage has run.
+	 * @param stage the stage.
+	 * @return the number of runs.
+	 */
+	public long getCount(Stage stage) {
+		return counts.get(stage.ordinal());
+	}
+	
+	/**
+	 * Get the longest time spent in a single run of a stage.
+	 * @param stage the stage.
+	 * @return the longest time in nanoseconds.
+	 */
+	public long getMaxTime(Stage stage) {
+		return maxTimes.get(stage.ordinal());
+	}
+	
+	/**
+	 * Get the mean time spent in each run of a stage.
+	 * @param stage the stage.
+	 * @return the mean time in nanoseconds, or zero if the stage has not run.
+	 */
+	public long getMeanTime(Stage stage) {
+		long count = getCount(stage);
+		return (count == 0 ? 0 : getTotalTime(stage) / count);
+	}
+	
+	/**
+	 * Get the number of records rejected by the parser.
+	 * @return the number of rejected records.
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+	
+	/**
+	 * Get the total time spent in a stage.
+	 * @param stage the stage.
+	 * @return the total time in nanoseconds.
+	 */
+	public long getTotalTime(Stage stage) {
+		return times.get(stage.ordinal());
+	}
+	
+	/**
+	 * Check if the JVM can report bytes allocated by threads.
+	 * @return true if allocations are measured, false otherwise.
+	 */
+	public static boolean isAllocationSupported() {
+		return ALLOCATED_BYTES != null;
+	}
+	
+	/**
+	 * Check if stages are being timed.
+	 * @return true if the registry is enabled, false otherwise.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	/**
+	 * Set all values to zero.
+	 */
+	public void reset() {
+		for(int i = 0; i < counts.length(); i ++) {
+			counts.set(i, 0);
+			maxTimes.set(i, 0);
+			times.set(i, 0);
+		}
+		allocated.set(0);
+		rejected.set(0);
+	}
+	
+	/**
+	 * Set whether stages are timed. Rejected records and allocations are counted even when the registry is disabled.
+	 * @param enabled whether to time stages.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+	
+	/**
+	 * Start writing the registry to a stream at a fixed interval, replacing any periodic dump already running.
+	 * @param out the stream to write to.
+	 * @param period the interval between dumps, in milliseconds.
+	 * @param json whether to write JSON, rather than text.
+	 */
+	public synchronized void startDump(final PrintStream out, long period, final boolean json) {
+		// Validate input
+		if(out == null) {
+			throw new IllegalArgumentException("Output stream cannot be null");
+		}
+		if(period <= 0) {
+			throw new IllegalArgumentException("Period must be greater than zero");
+		}
+		stopDump();
+		dumpTimer = new Timer("StageMetrics-dump", true);
+		dumpTimer.schedule(new TimerTask() {
+			@Override
+			public void run() {
+				out.println(json ? toJSON() : toString());
+			}
+		}, period, period);
+	}
+	
+	/**
+	 * Stop writing the registry periodically.
+	 */
+	public synchronized void stopDump() {
+		if(dumpTimer != null) {
+			dumpTimer.cancel();
+			dumpTimer = null;
+		}
+	}
+	
+	/**
+	 * Get the values of the registry as a JSON object, with times in nanoseconds.
+	 * @return a <tt>String</tt> containing a JSON object.
+	 */
+	public String toJSON() {
+		StringBuilder sb = new StringBuilder("{\"stages\":{");
+		for(Stage stage : Stage.values()) {
+			if(stage.ordinal() > 0) {
+				sb.append(',');
+			}
+			sb.append(String.format(Locale.ROOT, "\"%s\":{\"count\":%d,\"total\":%d,\"mean\":%d,\"max\":%d}", stage.name().toLowerCase(Locale.ROOT), getCount(stage), getTotalTime(stage), getMeanTime(stage), getMaxTime(stage)));
+		}
+		sb.append(String.format(Locale.ROOT, "},\"rejected\":%d,\"allocated\":%d}", getRejectedCount(), getAllocatedBytes()));
+		return sb.toString();
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(String.format("%-12s %12s %12s %12s %12s%n", "Stage", "Count", "Total (ms)", "Mean (us)", "Max (us)"));
+		for(Stage stage : Stage.values()) {
+			sb.append(String.format("%-12s %,12d %,12.1f %,12.2f %,12.1f%n", stage, getCount(stage), getTotalTime(stage) / 1e6, getMeanTime(stage) / 1e3, getMaxTime(stage) / 1e3));
+		}
+		sb.append(String.format("Rejected records: %,d%n", getRejectedCount()));
+		long bytes = getAllocatedBytes();
+		sb.append(bytes < 0 ? "Allocated bytes: not supported" : String.format("Allocated bytes: %,d", bytes));
+		return sb.toString();
+	}
+}
@@ -0,0 +1,47 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+/**
+ * <p>Interface specifying methods used by a class receiving items from a <tt>Publisher</tt>.</p>
+ * <p>Methods are called one at a time, in order, and <tt>onNext</tt> is only called for items that have been
+ * requested through the <tt>Subscription</tt>. Follows the same contract as
+ * <tt>java.util.concurrent.Flow.Subscriber</tt>.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public interface Subscriber<T>
+{
+	/**
+	 * Called when the publication has completed. No further methods are called.
+	 */
+	public void onComplete();
+	
+	/**
+	 * Called when the publication has failed. No further methods are called.
+	 * @param t the <tt>Throwable</tt> that caused the failure.
+	 */
+	public void onError(Throwable t);
+	
+	/**
+	 * Called with the next item requested.
+	 * @param item the item.
+	 */
+	public void onNext(T item);
+	
+	/**
+	 * Called before any other method, with the subscription used to request items.
+	 * @param subscription the new <tt>Subscription</tt>.
+	 */
+	public void onSubscribe(Subscription subscription);
+}
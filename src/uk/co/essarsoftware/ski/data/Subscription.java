@@ -0,0 +1,35 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+/**
+ * <p>Interface specifying methods used by a <tt>Subscriber</tt> to control the items it receives from a
+ * <tt>Publisher</tt>.</p>
+ * <p>Follows the same contract as <tt>java.util.concurrent.Flow.Subscription</tt>.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public interface Subscription
+{
+	/**
+	 * Stop receiving items. Items already being sent may still be received.
+	 */
+	public void cancel();
+	
+	/**
+	 * Request more items. Requests are added to any items still outstanding, and <tt>Long.MAX_VALUE</tt> requests
+	 * all items.
+	 * @param n the number of items to request, which must be greater than zero.
+	 */
+	public void request(long n);
+}
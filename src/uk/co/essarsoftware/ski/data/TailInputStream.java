@@ -0,0 +1,128 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+
+/**
+ * <p>Input stream that follows a file as it grows, in the same way as <tt>tail -f</tt>.</p>
+ * <p>When the end of the file is reached, reads block until more data is written to the file. The end of the
+ * stream is only reported once <tt>stop</tt> has been called and all data written to the file has been read, so
+ * a parser reading from this stream follows a log file until it is told to stop.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class TailInputStream extends InputStream
+{
+	// File being followed
+	private final RandomAccessFile file;
+	// Interval between checks for new data, in milliseconds
+	private final long pollInterval;
+	// Indicating that the stream should end at the current end of the file
+	private volatile boolean stopped;
+	
+	/**
+	 * Create a new <tt>TailInputStream</tt> following the specified file from the beginning.
+	 * @param file the file to follow.
+	 * @param pollInterval interval between checks for new data, in milliseconds.
+	 * @throws FileNotFoundException if the file cannot be opened.
+	 */
+	public TailInputStream(File file, long pollInterval) throws FileNotFoundException {
+		// Validate interval input
+		if(pollInterval <= 0) {
+			throw new IllegalArgumentException("Poll interval must be greater than zero");
+		}
+		this.file = new RandomAccessFile(file, "r");
+		this.pollInterval = pollInterval;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#available()
+	 */
+	@Override
+	public int available() throws IOException {
+		long remaining = file.length() - file.getFilePointer();
+		return (int) Math.max(0, Math.min(remaining, Integer.MAX_VALUE));
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		stopped = true;
+		file.close();
+	}
+	
+	/**
+	 * Check if the stream has been stopped.
+	 * @return true if the stream will end at the current end of the file, false if it is following the file.
+	 */
+	public boolean isStopped() {
+		return stopped;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#read()
+	 */
+	@Override
+	public int read() throws IOException {
+		byte[] b = new byte[1];
+		return (read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF);
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.io.InputStream#read(byte[], int, int)
+	 */
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if(len == 0) {
+			return 0;
+		}
+		while(true) {
+			// Check stop flag before reading, so data written before the stream was stopped is not missed
+			boolean last = stopped;
+			int n = file.read(b, off, len);
+			if(n > 0) {
+				return n;
+			}
+			if(last) {
+				// Reached end of file after stopping
+				return -1;
+			}
+			if(file.length() < file.getFilePointer()) {
+				// File has been replaced or truncated, so the position is no longer valid
+				throw new IOException("File truncated");
+			}
+			try {
+				// Wait for more data
+				Thread.sleep(pollInterval);
+			} catch(InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted waiting for data");
+			}
+		}
+	}
+	
+	/**
+	 * Stop following the file. Data already written to the file can still be read, after which the end of
+	 * the stream is reported.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+}
@@ -29,6 +29,7 @@ public class Track extends LinkedList<TrackElement>
 	// Aggregate elements
 	private float avgSpeed, dist;
 	private int dAlt;
+	// Earliest and latest times, in milliseconds
 	private long endTime, startTime;
 	private TrackElement hiAlt, loAlt, maxSpeed;
 	
@@ -40,28 +41,54 @@ public class Track extends LinkedList<TrackElement>
 	}
 	
 	/**
-	 * Calculate aggregate values for elements in the set.
+	 * Add an element to the end of the track and update aggregate values to include it.
+	 * @param elem the element to add.
+	 */
+	void append(TrackElement elem) {
+		addLast(elem);
+		accumulate(elem, size() - 1);
+	}
+	
+	/**
+	 * Update aggregate values to include an element.
+	 * @param elem the element to include.
+	 * @param ct the number of elements already included.
+	 */
+	private void accumulate(TrackElement elem, int ct) {
+		// Overall altitude change
+		dAlt += elem.getAltitudeChange();
+		// Highest altitude element
+		hiAlt = (hiAlt == null ? elem : (elem.getAltitude() > hiAlt.getAltitude() ? elem : hiAlt));
+		// Lowest altitude element
+		loAlt = (loAlt == null ? elem : (elem.getAltitude() < loAlt.getAltitude() ? elem : loAlt));
+		// Average speed
+		avgSpeed = ((avgSpeed * ct) + elem.getSpeed()) / (ct + 1);
+		// Maximum speed
+		maxSpeed = (maxSpeed == null ? elem : (elem.getSpeed() > maxSpeed.getSpeed() ? elem : maxSpeed));
+		// Total distance
+		dist += elem.getDistance();
+		// Earliest time, including the length of a gap treated as stationary
+		long from = elem.getTimeMillis() - (elem.getGap() == GapPolicy.GAP_STOP ? elem.getGapTime() : 0);
+		startTime = (startTime == 0 ? from : Math.min(startTime, from));
+		// Latest time
+		endTime = (endTime == 0 ? elem.getTimeMillis() : Math.max(endTime, elem.getTimeMillis()));
+	}
+	
+	/**
+	 * Calculate aggregate values for elements in the set. Only required if elements have been added without
+	 * using <tt>append</tt>.
 	 */
 	void calcAggregates() {
+		// Reset aggregate values
+		avgSpeed = dist = 0.0f;
+		dAlt = 0;
+		endTime = startTime = 0;
+		hiAlt = loAlt = maxSpeed = null;
+		
 		int ct = 0;
 		// Loop through all elements in the set to calculate the aggregate values
 		for(TrackElement elem : this) {
-			// Overall altitude change
-			dAlt += elem.getAltitudeChange();
-			// Highest altitude element
-			hiAlt = (hiAlt == null ? elem : (elem.getAltitude() > hiAlt.getAltitude() ? elem : hiAlt));
-			// Lowest altitude element
-			loAlt = (loAlt == null ? elem : (elem.getAltitude() < loAlt.getAltitude() ? elem : loAlt));
-			// Average speed
-			avgSpeed = ((avgSpeed * ct) + elem.getSpeed()) / (++ ct);
-			// Maximum speed
-			maxSpeed = (maxSpeed == null ? elem : (elem.getSpeed() > maxSpeed.getSpeed() ? elem : maxSpeed));
-			// Total distance
-			dist += elem.getDistance();
-			// Earliest time
-			startTime = (startTime == 0 ? elem.getTime() : Math.min(startTime, elem.getTime()));
-			// Latest time
-			endTime = (endTime == 0 ? elem.getTime() : Math.max(endTime, elem.getTime()));
+			accumulate(elem, ct ++);
 		}
 	}
 	
@@ -90,19 +117,20 @@ public class Track extends LinkedList<TrackElement>
 	}
 	
 	/**
-	 * Get the duration of the track.
-	 * @return the duration in seconds.
+	 * Get the duration of the track, from the time of the first element to the time of the last. Unlike the number
+	 * of elements, this does not depend on the sample rate or on gaps that have not been filled.
+	 * @return the duration in whole seconds.
 	 */
 	public long getDuration() {
-		return endTime - startTime;
+		return (endTime - startTime) / 1000L;
 	}
 	
 	/**
 	 * Get the end time.
-	 * @return the latest time of the track.
+	 * @return the latest time of the track, in whole seconds.
 	 */
 	public long getEndTime() {
-		return endTime;
+		return endTime / 1000L;
 	}
 	
 	/**
@@ -130,21 +158,30 @@ public class Track extends LinkedList<TrackElement>
 	}
 	
 	/**
-	 * Get the end time.
-	 * @return the earliest time of the track.
+	 * Get the start time.
+	 * @return the earliest time of the track, in whole seconds.
 	 */
 	public long getStartTime() {
+		return startTime / 1000L;
+	}
+	
+	/**
+	 * Get the start time, including fractions of a second.
+	 * @return the earliest time of the track, in milliseconds.
+	 */
+	public long getStartTimeMillis() {
 		return startTime;
 	}
 	
 	public String toString() {
+		long duration = getDuration();
 		switch(getFirst().getMode()) {
 			case LIFT:
-				return String.format("LIFT (+%dm; %d mins, %d secs)", dAlt, size() / 60, size() % 60);
+				return String.format("LIFT (+%dm; %d mins, %d secs)", dAlt, duration / 60, duration % 60);
 			case SKI:
-				return String.format("SKI (%,dm; %.1f kph; %d mins, %d secs)", Math.round(dist), avgSpeed, size() / 60, size() % 60);
+				return String.format("SKI (%,dm; %.1f kph; %d mins, %d secs)", Math.round(dist), avgSpeed, duration / 60, duration % 60);
 			case STOP:
-				return String.format("STOP (%d mins, %d secs)", size() / 60, size() % 60);
+				return String.format("STOP (%d mins, %d secs)", duration / 60, duration % 60);
 		}
 		return super.toString();
 	}
@@ -19,25 +19,17 @@ public class TrackBlock extends TreeMap<TrackElement, Track>
 	public TrackBlock() {
 		super(new Comparator<TrackElement>() {
 			public int compare(TrackElement te1, TrackElement te2) {
-				return (int) ((te1 == null ? 0 : te1.getTime()) - (te2 == null ? 0 : te2.getTime()));
+				long delta = (te1 == null ? 0 : te1.getTimeMillis()) - (te2 == null ? 0 : te2.getTimeMillis());
+				return (delta < 0 ? -1 : (delta > 0 ? 1 : 0));
 			}
 		});
 		elems = new Track();
 		modes = new TrackModeMap();
 	}
 	
-	void close() {
-		// Calculate aggregates on elems
-		elems.calcAggregates();
-		
-		// Calculate aggregates on modes
-		for(Mode m : modes.keySet()) {
-			modes.get(m).calcAggregates();
-		}
-	}
-	
 	/**
-	 * Add a track to the set.
+	 * Add a track to the set. Aggregate values of the flattened and per-mode tracks are updated as
+	 * elements are added.
 	 * @param track the track to add.
 	 */
 	public void add(Track track) {
@@ -45,7 +37,7 @@ public class TrackBlock extends TreeMap<TrackElement, Track>
 		put(track.getFirst(), track);
 		// Add each element to the track and to the mode map
 		for(TrackElement elem : track) {
-			elems.add(elem);
+			elems.append(elem);
 			modes.add(elem);
 		}
 	}
@@ -76,7 +68,7 @@ public class TrackBlock extends TreeMap<TrackElement, Track>
 		 * Unique serializable identifier.
 		 */
 		private static final long serialVersionUID = 6161858796973305838L;
-
+		
 		/**
 		 * Add a track element to the map.
 		 * @param elem the <tt>TrackElement</tt> to add.
@@ -87,7 +79,7 @@ public class TrackBlock extends TreeMap<TrackElement, Track>
 				put(elem.getMode(), new Track());
 			}
 			// Add to the end of existing track
-			get(elem.getMode()).addLast(elem);
+			get(elem.getMode()).append(elem);
 		}
 		
 		public int sizeFor(Mode mode) {
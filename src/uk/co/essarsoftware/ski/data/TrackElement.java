@@ -36,6 +36,8 @@ public class TrackElement implements Serializable
 	// Aggregate data
 	private final int da, dx, dy;
 	private final float dist;
+	// Gap preceding this element
+	private final int gap;
 	
 	/**
 	 * Create new <tt>TrackElement</tt>.
@@ -50,6 +52,15 @@ public class TrackElement implements Serializable
 			dy = 0;
 			dist = 0.0f;
 			da = 0;
+			gap = GapPolicy.GAP_NONE;
+		} else if(datum.getNext().gap != GapPolicy.GAP_NONE) {
+			this.datum = datum.getNext();
+			// Movement across a gap was not recorded, so is not added to any track
+			dx = 0;
+			dy = 0;
+			dist = 0.0f;
+			da = 0;
+			gap = datum.getNext().gap;
 		} else {
 			this.datum = datum.getNext();
 			// Calculate aggregate values
@@ -57,6 +68,7 @@ public class TrackElement implements Serializable
 			dy = datum.getNext().y - datum.y;
 			dist = (float) Math.sqrt((dx * dx) + (dy * dy));
 			da = datum.getNext().a - datum.a;
+			gap = GapPolicy.GAP_NONE;
 		}
 	}
 	
@@ -77,7 +89,7 @@ public class TrackElement implements Serializable
 		}
 		if(obj instanceof TrackElement) {
 			TrackElement elem = (TrackElement) obj;
-			return getTime() == elem.getTime();
+			return getTimeMillis() == elem.getTimeMillis();
 		}
 		return false;
 	}
@@ -106,6 +118,22 @@ public class TrackElement implements Serializable
 		return dist;
 	}
 	
+	/**
+	 * Get the type of gap in the recorded data before this element.
+	 * @return constant indicating the gap type, as classified by a <tt>GapPolicy</tt>.
+	 */
+	public int getGap() {
+		return gap;
+	}
+	
+	/**
+	 * Get the length of the gap in the recorded data before this element.
+	 * @return the length of the gap in milliseconds, or zero if there is no gap.
+	 */
+	public int getGapTime() {
+		return (gap == GapPolicy.GAP_NONE ? 0 : datum.gapTime);
+	}
+	
 	/**
 	 * Get GPS latitude.
 	 * @return GPS latitude.
@@ -140,10 +168,10 @@ public class TrackElement implements Serializable
 	
 	/**
 	 * Get GPS time stamp;
-	 * @return GPS time stamp in seconds;
+	 * @return GPS time stamp in whole seconds;
 	 */
 	public long getTime() {
-		return datum.t;
+		return datum.t / 1000L;
 	}
 	
 	/**
@@ -151,7 +179,15 @@ public class TrackElement implements Serializable
 	 * @return the GPS time the element was recorded.
 	 */
 	public Date getTimeAsDate() {
-		return new Date(getTime() * 1000L);
+		return new Date(datum.t);
+	}
+	
+	/**
+	 * Get GPS time stamp, including fractions of a second.
+	 * @return GPS time stamp in milliseconds.
+	 */
+	public long getTimeMillis() {
+		return datum.t;
 	}
 	
 	/**
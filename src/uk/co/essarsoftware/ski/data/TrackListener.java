@@ -0,0 +1,35 @@
+package uk.co.essarsoftware.ski.data;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+/**
+ * <p>Interface specifying methods used by a class listening for tracks and blocks as they are closed in a
+ * <tt>SkiData</tt> set.</p>
+ * <p>Methods are called on the loader thread while data is being processed, so should return quickly.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public interface TrackListener
+{
+	/**
+	 * Called when a block of tracks has been closed. Aggregate values have been calculated.
+	 * @param block the closed <tt>TrackBlock</tt>.
+	 */
+	public void blockClosed(TrackBlock block);
+	
+	/**
+	 * Called when a track has been closed. Aggregate values have been calculated.
+	 * @param track the closed <tt>Track</tt>.
+	 */
+	public void trackClosed(Track track);
+}
@@ -25,15 +25,28 @@ import uk.co.essarsoftware.ski.xyplot.XYPlot;
 public class AltitudePlot extends XYPlot
 {
 	/**
-	 * Build the data set from a <tt>Track</tt>.
+	 * Build the data set from a <tt>Track</tt>, plotted against the milliseconds since the start of the track.
 	 * @param track the <tt>Track</tt> to plot.
 	 * @return an <tt>XYDataSet</tt> that contains the data.
 	 */
 	private static XYDataSet buildData(Track track) {
-		XYDataSet data = new XYDataSet();
-		long st = track.getStartTime();
+		XYTrackDataSet data = new XYTrackDataSet(track);
+		long st = track.getStartTimeMillis();
 		for(TrackElement te : track) {
-			data.add(new XYTrackElement(te.getTime() - st, te.getAltitude(), te));
+			data.add(te.getTimeMillis() - st, te.getAltitude(), te);
+		}
+		return data;
+	}
+	
+	/**
+	 * Build a data set from each of several <tt>Track</tt>s.
+	 * @param tracks the <tt>Track</tt>s to plot.
+	 * @return an <tt>XYDataSet</tt> for each track, in the same order.
+	 */
+	private static XYDataSet[] buildData(Track[] tracks) {
+		XYDataSet[] data = new XYDataSet[tracks.length];
+		for(int i = 0; i < tracks.length; i ++) {
+			data[i] = buildData(tracks[i]);
 		}
 		return data;
 	}
@@ -47,6 +60,16 @@ public class AltitudePlot extends XYPlot
 		showScale(true);
 	}
 	
+	/**
+	 * Create and configure a new plot overlaying the altitude of several tracks, such as each day of a trip. Each
+	 * track is plotted against the time since its own start, so the tracks can be compared on the same axes.
+	 * @param tracks the tracks to plot, at least one.
+	 */
+	public AltitudePlot(Track[] tracks) {
+		super(buildData(tracks));
+		showScale(true);
+	}
+	
 	/* (non-Javadoc)
 	 * @see uk.co.essarsoftware.ski.xyplot.XYPlot#createXAxis(float, float, int)
 	 */
@@ -1,25 +1,40 @@
-package uk.co.essarsoftware.ski.android.ui;
+package uk.co.essarsoftware.ski.ui;
 
 import uk.co.essarsoftware.ski.data.TrackElement;
-import android.graphics.Paint;
 
-public abstract class LinearRenderer implements Renderer
+public abstract class LinearRenderer extends PaletteRenderer
 {
+	// Number of colours in the palette, from the lowest value to the highest
+	private static final int PALETTE_SIZE = 256;
+	// Palette shared by every linear renderer, as it depends only on the position of a value in the range
+	private static final int[] PALETTE = buildPalette();
+	
 	private float minValue, maxValue;
 	
 	protected LinearRenderer(float minValue, float maxValue) {
+		super(PALETTE);
 		this.minValue = minValue;
 		this.maxValue = maxValue;
-		System.out.println("Building renderer: " + minValue + "-" + maxValue);
 	}
 	
-	private int getColorValue(float in) {
+	/**
+	 * Build the palette, with evenly spaced positions in the range.
+	 * @return the colours of the palette, as ARGB values.
+	 */
+	private static int[] buildPalette() {
+		int[] palette = new int[PALETTE_SIZE];
+		for(int i = 0; i < PALETTE_SIZE; i ++) {
+			palette[i] = getColorValue((float) i / (PALETTE_SIZE - 1));
+		}
+		return palette;
+	}
+	
+	private static int getColorValue(float x) {
 		// Lowest value should be black
 		// Pass through colour rainbow - red-orange-yellow-green-blue
 		// Highest value should be white
 		
-		// Get overall position
-		float x = (in - minValue) / (maxValue - minValue);
+		// x is the overall position in the range
 		final float f = (1.0f / 6.0f);
 		
 		// Create RGB components
@@ -53,13 +68,19 @@ public abstract class LinearRenderer implements Renderer
 			g = (short) Math.round(0xFF * ((x / f) - 5.0f));
 			b = 0xFF;
 		}
-
+		
 		return (0xFF << 24) | (r & 0x00FF) << 16 | (g & 0x00FF) << 8 | (b & 0x00FF);
 	}
 	
-	public Paint paintValue(float in, Paint p) {
-		p.setColor(getColorValue(in));
-		return p;
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.ui.PaletteRenderer#getPaletteIndex(float)
+	 */
+	protected int getPaletteIndex(float in) {
+		if(maxValue <= minValue) {
+			return 0;
+		}
+		int i = Math.round((in - minValue) / (maxValue - minValue) * (PALETTE_SIZE - 1));
+		return Math.max(0, Math.min(PALETTE_SIZE - 1, i));
 	}
 	
 	public static void main(String[] args) {
@@ -69,7 +90,7 @@ public abstract class LinearRenderer implements Renderer
 			}
 		};
 		for(float f = lr.minValue; f <= lr.maxValue; f += 5) {
-			System.out.println(String.format("In:%.2f\tCol:#%H", f, lr.getColorValue(f)));
+			System.out.println(String.format("In:%.2f\tCol:#%H", f, lr.getPalette()[lr.getPaletteIndex(f)]));
 		}
 	}
 }
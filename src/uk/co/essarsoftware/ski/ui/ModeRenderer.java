@@ -0,0 +1,39 @@
+package uk.co.essarsoftware.ski.ui;
+
+import uk.co.essarsoftware.ski.data.TrackElement;
+import uk.co.essarsoftware.ski.data.TrackElement.Mode;
+
+public class ModeRenderer extends PaletteRenderer
+{
+	private static final float LIFT = 1.0f;
+	private static final float SKI = 2.0f;
+	
+	// Colours of each mode, by value
+	private static final int[] PALETTE = {
+		0xFFFFFFFF, // Stopped - white
+		0xFF0000FF, // Lift - blue
+		0xFFFF0000  // Skiing - red
+	};
+	
+	public ModeRenderer() {
+		super(PALETTE);
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.ui.PaletteRenderer#getPaletteIndex(float)
+	 */
+	protected int getPaletteIndex(float in) {
+		switch((int) in) {
+			case (int) SKI: // Skiing
+				return 2;
+			case (int) LIFT: // Lift
+				return 1;
+			default:   // Stopped
+				return 0;
+		}
+	}
+	
+	public float getValue(TrackElement te) {
+		return (te.getMode() == Mode.SKI ? SKI : te.getMode() == Mode.LIFT ? LIFT : 0.0f);
+	}
+}
@@ -0,0 +1,67 @@
+package uk.co.essarsoftware.ski.ui;
+
+import uk.co.essarsoftware.ski.xyplot.XYDataSet;
+
+/**
+ * <p>Renderer that draws with a fixed palette of colours, built once when the renderer is created.</p>
+ * <p>The colours of the points of a data set are found once, as positions in the palette, and kept until the
+ * renderer is asked for the colours of a different data set, so a plot can be redrawn with the renderer without
+ * reading any track element again. The colours kept are not shared between threads, so each thread drawing plots
+ * should use its own renderers.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public abstract class PaletteRenderer implements Renderer
+{
+	// Colours drawn with, as ARGB values
+	private final int[] palette;
+	
+	// Data set and size the colours were found for, and the position in the palette of each point
+	private XYTrackDataSet coloursData;
+	private int coloursSize;
+	private int[] colours;
+	
+	/**
+	 * Create a renderer drawing with a palette of colours.
+	 * @param palette the colours, as ARGB values.
+	 */
+	protected PaletteRenderer(int[] palette) {
+		this.palette = palette;
+	}
+	
+	/**
+	 * Get the position in the palette of the colour of a value.
+	 * @param in the value to colour.
+	 * @return the position of its colour in the palette.
+	 */
+	protected abstract int getPaletteIndex(float in);
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.xyplot.XYColourMap#getColours(uk.co.essarsoftware.ski.xyplot.XYDataSet)
+	 */
+	public int[] getColours(XYDataSet source) {
+		if(! (source instanceof XYTrackDataSet)) {
+			// Only points plotted from track elements can be coloured
+			return null;
+		}
+		XYTrackDataSet data = (XYTrackDataSet) source;
+		if(colours == null || coloursData != data || coloursSize != data.size()) {
+			int[] found = new int[data.size()];
+			for(int i = 0; i < found.length; i ++) {
+				found[i] = getPaletteIndex(getValue(data.getElement(i)));
+			}
+			colours = found;
+			coloursData = data;
+			coloursSize = found.length;
+		}
+		return colours;
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.xyplot.XYColourMap#getPalette()
+	 */
+	public int[] getPalette() {
+		return palette;
+	}
+}
@@ -0,0 +1,9 @@
+package uk.co.essarsoftware.ski.ui;
+
+import uk.co.essarsoftware.ski.data.TrackElement;
+import uk.co.essarsoftware.ski.xyplot.XYColourMap;
+
+public interface Renderer extends XYColourMap
+{
+	public abstract float getValue(TrackElement te);
+}
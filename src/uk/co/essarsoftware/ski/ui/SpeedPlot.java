@@ -25,16 +25,15 @@ import uk.co.essarsoftware.ski.xyplot.XYPlot;
 public class SpeedPlot extends XYPlot
 {
 	/**
-	 * Build the data set from a <tt>Track</tt>.
+	 * Build the data set from a <tt>Track</tt>, plotted against the milliseconds since the start of the track.
 	 * @param track the <tt>Track</tt> to plot.
 	 * @return an <tt>XYDataSet</tt> that contains the data.
 	 */
 	private static XYDataSet buildData(Track track) {
-		XYDataSet data = new XYDataSet();
-		long st = track.getStartTime();
+		XYTrackDataSet data = new XYTrackDataSet(track);
+		long st = track.getStartTimeMillis();
 		for(TrackElement te : track) {
-			data.add(new XYTrackElement(te.getTime() - st, te.getSpeed(), te));
-			//data.add(new XYTrackElement(te.getTime(), te.getSpeed(), te));
+			data.add(te.getTimeMillis() - st, te.getSpeed(), te);
 		}
 		return data;
 	}
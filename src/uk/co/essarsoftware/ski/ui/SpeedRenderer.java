@@ -1,4 +1,4 @@
-package uk.co.essarsoftware.ski.android.ui;
+package uk.co.essarsoftware.ski.ui;
 
 import uk.co.essarsoftware.ski.data.Track;
 import uk.co.essarsoftware.ski.data.TrackElement;
@@ -12,7 +12,8 @@ public class TimeAxis extends XYAxis
 	
 	@Override
 	public String getLabel(float f) {
-		Date d = new Date(Math.round(f) * 1000L);
+		// Values are milliseconds since the start of the track
+		Date d = new Date((long) f);
 		return String.format("%tk:%tM", d, d);
 	}
 }
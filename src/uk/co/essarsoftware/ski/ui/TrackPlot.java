@@ -10,9 +10,13 @@ package uk.co.essarsoftware.ski.ui;
  * -----------+----------+-----------------------------------------------------
  * 
  */
+import java.util.HashMap;
+
 import uk.co.essarsoftware.ski.data.Track;
 import uk.co.essarsoftware.ski.data.TrackElement;
 import uk.co.essarsoftware.ski.xyplot.XYDataSet;
+import uk.co.essarsoftware.ski.xyplot.XYDecimator;
+import uk.co.essarsoftware.ski.xyplot.XYGridIndex;
 import uk.co.essarsoftware.ski.xyplot.XYPlot;
 
 /**
@@ -23,15 +27,23 @@ import uk.co.essarsoftware.ski.xyplot.XYPlot;
  */
 public class TrackPlot extends XYPlot
 {
+	// Indexes of simplified paths, by the width the whole track is drawn across
+	private final HashMap<Integer, XYGridIndex> paths = new HashMap<Integer, XYGridIndex>();
+	// Data set the paths were simplified from, and its size
+	private XYDataSet pathsData;
+	private int pathsSize;
+	// Index of every point of the track, built on the first search
+	private XYGridIndex points;
+	
 	/**
 	 * Build the data set from a <tt>Track</tt>.
 	 * @param track the <tt>Track</tt> to plot.
 	 * @return an <tt>XYDataSet</tt> that contains the data.
 	 */
 	private static XYDataSet buildData(Track track) {
-		XYDataSet data = new XYDataSet();
+		XYTrackDataSet data = new XYTrackDataSet(track);
 		for(TrackElement te : track) {
-			data.add(new XYTrackElement(te.getX(), te.getY(), te));
+			data.add(te.getX(), te.getY(), te);
 		}
 		return data;
 	}
@@ -44,4 +56,54 @@ public class TrackPlot extends XYPlot
 		super(buildData(track));
 		setProportional(true);
 	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.xyplot.XYPlot#decimate(uk.co.essarsoftware.ski.xyplot.XYDataSet, int)
+	 */
+	@Override
+	protected XYDataSet decimate(XYDataSet data, int pixels) {
+		// A track can turn back on itself, so simplify the path rather than each pixel column
+		return XYDecimator.douglasPeucker(data, pixels);
+	}
+	
+	/**
+	 * Find the element of the track plotted nearest to a position.
+	 * @param x the x-coordinate of the position.
+	 * @param y the y-coordinate of the position.
+	 * @param radius the furthest distance of the element from the position.
+	 * @return the nearest element, or <tt>null</tt> if no element is within the distance.
+	 */
+	public TrackElement getElementAt(float x, float y, float radius) {
+		XYDataSet data = getData();
+		if(points == null || points.getData() != data) {
+			points = new XYGridIndex(data);
+		}
+		int p = points.nearest(x, y, radius);
+		return (p < 0 ? null : ((XYTrackDataSet) data.getSource()).getElement(data.getIndex(p)));
+	}
+	
+	/* (non-Javadoc)
+	 * @see uk.co.essarsoftware.ski.xyplot.XYPlot#slice(uk.co.essarsoftware.ski.xyplot.XYDataSet, float, float, float, float, int)
+	 */
+	@Override
+	protected XYDataSet slice(XYDataSet data, float fromX, float toX, float fromY, float toY, int pixels) {
+		if(pathsData != data || pathsSize != data.size()) {
+			paths.clear();
+			pathsData = data;
+			pathsSize = data.size();
+		}
+		// Simplify the whole path at the width it would be drawn across at this zoom, rounded up to a power of two so
+		// each path is reused over a range of zooms, and index it so only the segments within the part are drawn
+		double width = (double) pixels * (getXAxis().getMaxValue() - getXAxis().getMinValue()) / Math.max(toX - fromX, 1.0f);
+		int key = 1;
+		while(key < width && key < (1 << 30)) {
+			key <<= 1;
+		}
+		XYGridIndex path = paths.get(key);
+		if(path == null) {
+			path = new XYGridIndex(XYDecimator.douglasPeucker(data, key));
+			paths.put(key, path);
+		}
+		return path.query(fromX, fromY, toX, toY);
+	}
 }
@@ -0,0 +1,61 @@
+package uk.co.essarsoftware.ski.ui;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import uk.co.essarsoftware.ski.data.Track;
+import uk.co.essarsoftware.ski.data.TrackElement;
+import uk.co.essarsoftware.ski.xyplot.XYDataSet;
+
+/**
+ * <p>Data set of points plotted from the elements of a <tt>Track</tt>, holding the element each point was plotted
+ * from.</p>
+ * <p>The set is sized for the whole track when created, and the elements held in an array in the order they are
+ * added, so the index of each point is the position of its element in the array. Sets holding part of this set, or
+ * views over it, index back to the same elements.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class XYTrackDataSet extends XYDataSet
+{
+	// Elements of each point, by index
+	private final TrackElement[] elements;
+	
+	/**
+	 * Create a new empty data set, sized to hold a point for every element of a track.
+	 * @param track the track to plot.
+	 */
+	public XYTrackDataSet(Track track) {
+		super(null, track.size(), false);
+		elements = new TrackElement[track.size()];
+	}
+	
+	/**
+	 * Add a point plotted from an element of the track.
+	 * @param x the x-coordinate of the point.
+	 * @param y the y-coordinate of the point.
+	 * @param e the element the point is plotted from.
+	 */
+	public void add(float x, float y, TrackElement e) {
+		elements[size()] = e;
+		add(x, y);
+	}
+	
+	/**
+	 * Get the element a point was plotted from.
+	 * @param index the index of the point.
+	 * @return the element of the track.
+	 * @see XYDataSet#getIndex(int)
+	 */
+	public TrackElement getElement(int index) {
+		return elements[index];
+	}
+}
@@ -61,6 +61,22 @@ public class XYAxis
 		return in;
 	}
 	
+	/**
+	 * Reverse the translation of a value against its axis, to find the original value.
+	 * @param in the translated value.
+	 * @return the original value.
+	 * @see #translateValue(float)
+	 */
+	float untranslateValue(float in) {
+		if(isLogarithmic()) {
+			in = (float) Math.exp(in);
+		}
+		if(isInverted()) {
+			in = minValue + (maxValue - in);
+		}
+		return in;
+	}
+	
 	public String getAxisName() {
 		return axisName;
 	}
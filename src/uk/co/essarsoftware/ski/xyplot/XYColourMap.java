@@ -0,0 +1,39 @@
+package uk.co.essarsoftware.ski.xyplot;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+/**
+ * <p>Colours the points of a data series from a fixed palette.</p>
+ * <p>The colour of every point of a source data set is found at once, as a position in the palette for each index,
+ * so a plot can be drawn in any number of colours by looking each point up.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public interface XYColourMap
+{
+	/**
+	 * Get the position in the palette of the colour of every point of a data set.
+	 * @param source the source data set, holding the points each point plotted is indexed back to.
+	 * @return the position in the palette of the colour of each point, by index, or <tt>null</tt> if the points of
+	 * the data set cannot be coloured.
+	 * @see XYDataSet#getSource()
+	 * @see XYDataSet#getIndex(int)
+	 */
+	public abstract int[] getColours(XYDataSet source);
+	
+	/**
+	 * Get the colours drawn with.
+	 * @return the colours, as ARGB values.
+	 */
+	public abstract int[] getPalette();
+}
@@ -1,132 +1,359 @@
 package uk.co.essarsoftware.ski.xyplot;
 
-import java.util.Collection;
-import java.util.LinkedList;
-
 /**
  * <p>Class containing a collection of <tt>XYDatum</tt> points, for plotting within a XY chart or histogram.</p>
+ * <p>Points are held in arrays of coordinates rather than as objects, and can optionally hold an index back to the
+ * source of each point. A transposed or translated set is a read-only view over the points of the original set,
+ * rather than a copy. A set can also hold breaks, so it can be drawn as several separate lines.</p>
  *
  * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
  * @version 1.0 (17 Dec 2011)
  *
  */
-public class XYDataSet extends LinkedList<XYDatum>
+public class XYDataSet
 {
-	/**
-	 * Serializable identifier.
-	 */
-	private static final long serialVersionUID = -778885092230851527L;
-	// Maximum and minimum values
+	// Initial number of points held when the size is not known
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	// Coordinates and values of each point; values are only held once a point with a value is added
+	private float[] xs, ys, vs;
+	// Index of each point within the source, or null if points are not indexed
+	private int[] indexes;
+	// Number of points held
+	private int size;
+	// Maximum and minimum values, and whether any point has set them
 	private float maxX, maxY, minX, minY;
+	private boolean bounded;
 	// Data series name
 	private String seriesName;
+	// Data set the point indexes refer to
+	private XYDataSet source;
+	
+	// Data set this is a view over, or null if this set holds its own points
+	private final XYDataSet base;
+	// Indicates the x and y coordinates of the base data set are swapped
+	private final boolean swapped;
+	// Axes the coordinates of the base data set are translated against, or null if not translated
+	private final XYAxis xAxis, yAxis;
 	
 	/**
 	 * Create a new empty unnamed data set.
 	 */
 	public XYDataSet() {
-		super();
+		this(null);
 	}
-
+	
 	public XYDataSet(String seriesName) {
-		this();
+		this(seriesName, DEFAULT_CAPACITY, false);
+	}
+	
+	/**
+	 * Create a new empty data set, sized to hold a number of points.
+	 * @param seriesName the name of the data series.
+	 * @param capacity the number of points expected.
+	 * @param indexed true if each point will hold an index back to its source, false otherwise.
+	 */
+	public XYDataSet(String seriesName, int capacity, boolean indexed) {
 		this.seriesName = seriesName;
+		capacity = Math.max(1, capacity);
+		xs = new float[capacity];
+		ys = new float[capacity];
+		indexes = (indexed ? new int[capacity] : null);
+		source = this;
+		base = null;
+		swapped = false;
+		xAxis = null;
+		yAxis = null;
+	}
+	
+	/**
+	 * Create a read-only view over another data set.
+	 * @param base the data set to view.
+	 * @param swapped true if the x and y coordinates are swapped, false otherwise.
+	 * @param xAxis the axis x-coordinates are translated against, or null if they are not translated.
+	 * @param yAxis the axis y-coordinates are translated against, or null if they are not translated.
+	 */
+	private XYDataSet(XYDataSet base, boolean swapped, XYAxis xAxis, XYAxis yAxis) {
+		this.base = base;
+		this.swapped = swapped;
+		this.xAxis = xAxis;
+		this.yAxis = yAxis;
+		seriesName = base.seriesName;
+	}
+	
+	/**
+	 * Make room for another point, growing the arrays if they are full.
+	 */
+	private void ensureCapacity() {
+		if(base != null) {
+			throw new UnsupportedOperationException("Data set is a read-only view");
+		}
+		if(size == xs.length) {
+			int capacity = xs.length * 2;
+			xs = grow(xs, capacity);
+			ys = grow(ys, capacity);
+			if(vs != null) {
+				vs = grow(vs, capacity);
+			}
+			if(indexes != null) {
+				int[] grown = new int[capacity];
+				System.arraycopy(indexes, 0, grown, 0, size);
+				indexes = grown;
+			}
+		}
+	}
+	
+	/**
+	 * Copy an array into a larger array.
+	 * @param in the array to copy.
+	 * @param capacity the length of the new array.
+	 * @return the new array.
+	 */
+	private static float[] grow(float[] in, int capacity) {
+		float[] out = new float[capacity];
+		System.arraycopy(in, 0, out, 0, in.length);
+		return out;
 	}
 	
 	/**
 	 * Process the loaded point, to update the maximum and minimum values.
-	 * @param d
+	 * @param x the x-coordinate of the point.
+	 * @param y the y-coordinate of the point.
 	 */
-	private void processPoint(XYDatum d) {
-		if(size() == 1) {
+	private void processPoint(float x, float y) {
+		if(! bounded) {
 			// First point
-			minX = d.getX();
-			maxX = d.getX();
-			minY = d.getY();
-			maxY = d.getY();
+			minX = x;
+			maxX = x;
+			minY = y;
+			maxY = y;
+			bounded = true;
 		}
-		minX = Math.min(minX, d.getX());
-		maxX = Math.max(maxX, d.getX());
-		minY = Math.min(minY, d.getY());
-		maxY = Math.max(maxY, d.getY());
+		minX = Math.min(minX, x);
+		maxX = Math.max(maxX, x);
+		minY = Math.min(minY, y);
+		maxY = Math.max(maxY, y);
+	}
+	
+	/**
+	 * Create an empty data set to hold part of this set, with each point indexed back to the same source.
+	 * @param capacity the number of points expected.
+	 * @return the empty data set.
+	 */
+	XYDataSet subset(int capacity) {
+		XYDataSet ds = new XYDataSet(seriesName, capacity, true);
+		ds.source = getSource();
+		return ds;
+	}
+	
+	/**
+	 * Add a point of another data set to this set, keeping its value and index.
+	 * @param from the data set holding the point.
+	 * @param i the position of the point in the data set.
+	 */
+	void addFrom(XYDataSet from, int i) {
+		ensureCapacity();
+		float v = from.getV(i);
+		if(v != 0.0f && vs == null) {
+			vs = new float[xs.length];
+		}
+		if(vs != null) {
+			vs[size] = v;
+		}
+		add(from.getX(i), from.getY(i), from.getIndex(i));
 	}
 	
 	/**
 	 * Transpose the data set to turn x values into y values and visa versa.
+	 * @return a read-only view of this set, with the coordinates swapped.
 	 */
 	XYDataSet transpose() {
-		XYDataSet ts = new XYDataSet(seriesName);
-		
-		for(XYDatum d : this) {
-			ts.add(d.transpose());
+		return new XYDataSet(this, true, null, null);
+	}
+	
+	/**
+	 * Add a point to the set.
+	 * @param x the x-coordinate of the point.
+	 * @param y the y-coordinate of the point.
+	 */
+	public void add(float x, float y) {
+		ensureCapacity();
+		if(indexes != null) {
+			indexes[size] = size;
 		}
-		
-		return ts;
+		xs[size] = x;
+		ys[size] = y;
+		size ++;
+		processPoint(x, y);
 	}
 	
-	/* (non-Javadoc)
-	 * @see java.util.LinkedList#add(int, java.lang.Object)
+	/**
+	 * Add a point to the set, with an index back to its source.
+	 * @param x the x-coordinate of the point.
+	 * @param y the y-coordinate of the point.
+	 * @param index the index of the point within its source.
 	 */
-	@Override
-	public void add(int location, XYDatum object) {
-		super.add(location, object);
-		processPoint(object);
+	public void add(float x, float y, int index) {
+		ensureCapacity();
+		if(indexes == null) {
+			// Index the points already held by their position
+			indexes = new int[xs.length];
+			for(int i = 0; i < size; i ++) {
+				indexes[i] = i;
+			}
+		}
+		indexes[size] = index;
+		xs[size] = x;
+		ys[size] = y;
+		size ++;
+		processPoint(x, y);
 	}
-
-	/* (non-Javadoc)
-	 * @see java.util.LinkedList#add(java.lang.Object)
+	
+	/**
+	 * Add a break, so the points before and after it are not joined when drawn. A break is held as a point with
+	 * coordinates that are not numbers, and does not change the maximum and minimum values.
 	 */
-	@Override
-	public boolean add(XYDatum object) {
-		if(super.add(object)) {
-			processPoint(object);
-			return true;
+	public void addBreak() {
+		ensureCapacity();
+		if(indexes != null) {
+			indexes[size] = -1;
 		}
-		return false;
+		xs[size] = Float.NaN;
+		ys[size] = Float.NaN;
+		size ++;
 	}
-
-	/* (non-Javadoc)
-	 * @see java.util.LinkedList#addAll(java.util.Collection)
-	 */
-	@Override
-	public boolean addAll(Collection<? extends XYDatum> collection) {
-		if(super.addAll(collection)) {
-			for(XYDatum object : collection) {
-				processPoint(object);
+	
+	/**
+	 * Add a point to the set.
+	 * @param d the point to add.
+	 * @return true, as the set has changed.
+	 */
+	public boolean add(XYDatum d) {
+		ensureCapacity();
+		if(d.getV() != 0.0f && vs == null) {
+			vs = new float[xs.length];
+		}
+		if(vs != null) {
+			vs[size] = d.getV();
+		}
+		add(d.getX(), d.getY());
+		return true;
+	}
+	
+	/**
+	 * Get a point in the set, as a new <tt>XYDatum</tt>.
+	 * @param i the position of the point.
+	 * @return the point.
+	 */
+	public XYDatum get(int i) {
+		return new XYDatum(getX(i), getY(i), getV(i));
+	}
+	
+	/**
+	 * Get the index of a point within its source.
+	 * @param i the position of the point.
+	 * @return the index of the point within the source, its position if points are not indexed, or -1 for a break.
+	 * @see #getSource()
+	 */
+	public int getIndex(int i) {
+		if(base != null) {
+			return base.getIndex(i);
+		}
+		if(i >= size) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+		}
+		return (indexes == null ? i : indexes[i]);
+	}
+	
+	/**
+	 * Get the data set the point indexes refer to.
+	 * @return the source data set, which is this set unless it holds part of another set.
+	 */
+	public XYDataSet getSource() {
+		return (base == null ? source : base.getSource());
+	}
+	
+	/**
+	 * Get the value of a point.
+	 * @param i the position of the point.
+	 * @return the value of the point.
+	 */
+	public float getV(int i) {
+		if(base != null) {
+			return base.getV(i);
+		}
+		if(i >= size) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+		}
+		return (vs == null ? 0.0f : vs[i]);
+	}
+	
+	/**
+	 * Get the x-coordinate of a point.
+	 * @param i the position of the point.
+	 * @return the x-coordinate of the point.
+	 */
+	public float getX(int i) {
+		if(base == null) {
+			if(i >= size) {
+				throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
 			}
+			return xs[i];
 		}
-		return false;
+		float x = (swapped ? base.getY(i) : base.getX(i));
+		return (xAxis == null ? x : xAxis.translateValue(x));
 	}
-
-	/* (non-Javadoc)
-	 * @see java.util.LinkedList#addAll(int, java.util.Collection)
-	 */
-	@Override
-	public boolean addAll(int location, Collection<? extends XYDatum> collection) {
-		if(super.addAll(location, collection)) {
-			for(XYDatum object : collection) {
-				processPoint(object);
+	
+	/**
+	 * Get the y-coordinate of a point.
+	 * @param i the position of the point.
+	 * @return the y-coordinate of the point.
+	 */
+	public float getY(int i) {
+		if(base == null) {
+			if(i >= size) {
+				throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
 			}
+			return ys[i];
 		}
-		return false;
+		float y = (swapped ? base.getX(i) : base.getY(i));
+		return (yAxis == null ? y : yAxis.translateValue(y));
 	}
-
-	/* (non-Javadoc)
-	 * @see java.util.LinkedList#addFirst(java.lang.Object)
+	
+	/**
+	 * Check if a point is a break between lines.
+	 * @param i the position of the point.
+	 * @return true if the point is a break, false otherwise.
+	 * @see #addBreak()
 	 */
-	@Override
-	public void addFirst(XYDatum object) {
-		super.addFirst(object);
-		processPoint(object);
+	public boolean isBreak(int i) {
+		return Float.isNaN(getX(i));
 	}
-
-	/* (non-Javadoc)
-	 * @see java.util.LinkedList#addLast(java.lang.Object)
+	
+	/**
+	 * Check if the set is empty.
+	 * @return true if the set holds no points, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+	
+	/**
+	 * Get the number of points in the set.
+	 * @return the number of points.
+	 */
+	public int size() {
+		return (base == null ? size : base.size());
+	}
+	
+	/**
+	 * Translate the data set against a pair of axes.
+	 * @param xAxis the axis to translate x-coordinates against.
+	 * @param yAxis the axis to translate y-coordinates against.
+	 * @return a read-only view of this set, with the coordinates translated.
 	 */
-	@Override
-	public void addLast(XYDatum object) {
-		super.addLast(object);
-		processPoint(object);
+	public XYDataSet translate(XYAxis xAxis, XYAxis yAxis) {
+		return new XYDataSet(this, false, xAxis, yAxis);
 	}
 	
 	/**
@@ -134,7 +361,10 @@ public class XYDataSet extends LinkedList<XYDatum>
 	 * @return the maximum x-coordinate.
 	 */
 	float getMaxX() {
-		return maxX;
+		if(base == null) {
+			return maxX;
+		}
+		return bound(swapped ? base.getMinY() : base.getMinX(), swapped ? base.getMaxY() : base.getMaxX(), xAxis, true);
 	}
 	
 	/**
@@ -142,15 +372,21 @@ public class XYDataSet extends LinkedList<XYDatum>
 	 * @return the maximum y-coordinate.
 	 */
 	float getMaxY() {
-		return maxY;
+		if(base == null) {
+			return maxY;
+		}
+		return bound(swapped ? base.getMinX() : base.getMinY(), swapped ? base.getMaxX() : base.getMaxY(), yAxis, true);
 	}
-
+	
 	/**
 	 * Get the minimum X-coordinate in the set.
 	 * @return the minimum x-coordinate.
 	 */
 	float getMinX() {
-		return minX;
+		if(base == null) {
+			return minX;
+		}
+		return bound(swapped ? base.getMinY() : base.getMinX(), swapped ? base.getMaxY() : base.getMaxX(), xAxis, false);
 	}
 	
 	/**
@@ -158,7 +394,28 @@ public class XYDataSet extends LinkedList<XYDatum>
 	 * @return the minimum y-coordinate.
 	 */
 	float getMinY() {
-		return minY;
+		if(base == null) {
+			return minY;
+		}
+		return bound(swapped ? base.getMinX() : base.getMinY(), swapped ? base.getMaxX() : base.getMaxY(), yAxis, false);
+	}
+	
+	/**
+	 * Get the lowest or highest value of a range once translated against an axis. Axis translations are monotonic, so
+	 * the bounds of the range are translated to the bounds of the translated range, though they may be reversed.
+	 * @param min the lowest value of the range.
+	 * @param max the highest value of the range.
+	 * @param axis the axis to translate against, or null if not translated.
+	 * @param highest true to get the highest translated value, false to get the lowest.
+	 * @return the translated value.
+	 */
+	private static float bound(float min, float max, XYAxis axis, boolean highest) {
+		if(axis == null) {
+			return (highest ? max : min);
+		}
+		float a = axis.translateValue(min);
+		float b = axis.translateValue(max);
+		return (highest ? Math.max(a, b) : Math.min(a, b));
 	}
 	
 	public String getSeriesName() {
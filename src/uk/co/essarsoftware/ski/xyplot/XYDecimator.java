@@ -0,0 +1,178 @@
+package uk.co.essarsoftware.ski.xyplot;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+/**
+ * <p>Reduces a data set to the level of detail that can be seen when it is drawn a given number of pixels wide.</p>
+ * <p>Points in the reduced set are in the same order as in the original set, and each is indexed back to the same
+ * source as in the original set. The first and last points are always kept. A set that is already small enough is
+ * returned unchanged.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class XYDecimator
+{
+	/**
+	 * Reduce a series ordered by x-coordinate by dividing the x range into buckets, one for each pixel, and keeping
+	 * the points with the lowest and highest y-coordinate in each bucket. Peaks and troughs are kept, and the reduced
+	 * set holds at most two points for each pixel.
+	 * @param data the data set to reduce.
+	 * @param pixels the number of pixels the x range is drawn across.
+	 * @return the reduced data set.
+	 */
+	public static XYDataSet minMax(XYDataSet data, int pixels) {
+		int n = data.size();
+		if(pixels < 1 || n <= 2 * pixels + 2) {
+			return data;
+		}
+		XYDataSet out = data.subset(2 * pixels + 2);
+		float minX = data.getMinX();
+		float range = data.getMaxX() - minX;
+		
+		// Always keep the first point
+		out.addFrom(data, 0);
+		int bucket = -1, lo = -1, hi = -1;
+		for(int i = 1; i < n; i ++) {
+			int b = (range > 0.0f ? (int) ((data.getX(i) - minX) / range * pixels) : 0);
+			b = Math.max(0, Math.min(pixels - 1, b));
+			if(b != bucket) {
+				addPair(out, data, lo, hi);
+				lo = i;
+				hi = i;
+				bucket = b;
+			}
+			if(data.getY(i) < data.getY(lo)) {
+				lo = i;
+			}
+			if(data.getY(i) > data.getY(hi)) {
+				hi = i;
+			}
+		}
+		addPair(out, data, lo, hi);
+		
+		// Always keep the last point
+		if(Math.max(lo, hi) != n - 1) {
+			out.addFrom(data, n - 1);
+		}
+		return out;
+	}
+	
+	/**
+	 * Add the lowest and highest points of a bucket to a data set, in their original order.
+	 * @param out the data set to add to.
+	 * @param data the data set holding the points.
+	 * @param lo the position of the lowest point, or -1 if the bucket is empty.
+	 * @param hi the position of the highest point, or -1 if the bucket is empty.
+	 */
+	private static void addPair(XYDataSet out, XYDataSet data, int lo, int hi) {
+		if(lo < 0) {
+			return;
+		}
+		out.addFrom(data, Math.min(lo, hi));
+		if(hi != lo) {
+			out.addFrom(data, Math.max(lo, hi));
+		}
+	}
+	
+	/**
+	 * Reduce a path with the Douglas-Peucker algorithm, dropping points that lie within a pixel of the line between
+	 * the points kept either side of them. The shape of the path is kept, including sharp turns.
+	 * @param data the data set to reduce.
+	 * @param pixels the number of pixels the x range is drawn across.
+	 * @return the reduced data set.
+	 */
+	public static XYDataSet douglasPeucker(XYDataSet data, int pixels) {
+		int n = data.size();
+		if(pixels < 1 || n <= 2 * pixels + 2) {
+			return data;
+		}
+		float range = data.getMaxX() - data.getMinX();
+		if(range <= 0.0f) {
+			return data;
+		}
+		// Distance covered by a single pixel
+		float epsilon = range / pixels;
+		
+		// Copy coordinates into arrays, as each is read many times
+		float[] xs = new float[n];
+		float[] ys = new float[n];
+		for(int i = 0; i < n; i ++) {
+			xs[i] = data.getX(i);
+			ys[i] = data.getY(i);
+		}
+		boolean[] keep = new boolean[n];
+		keep[0] = true;
+		keep[n - 1] = true;
+		
+		// Simplify each span with a stack of start and end indexes, so long paths cannot overflow the call stack
+		int[] stack = new int[64];
+		int sp = 0;
+		stack[sp ++] = 0;
+		stack[sp ++] = n - 1;
+		float limit = epsilon * epsilon;
+		while(sp > 0) {
+			int end = stack[-- sp];
+			int start = stack[-- sp];
+			
+			// Find the point furthest from the line between the ends of the span
+			float dx = xs[end] - xs[start];
+			float dy = ys[end] - ys[start];
+			float len = dx * dx + dy * dy;
+			float furthest = -1.0f;
+			int index = -1;
+			for(int i = start + 1; i < end; i ++) {
+				float px = xs[i] - xs[start];
+				float py = ys[i] - ys[start];
+				float dist;
+				if(len == 0.0f) {
+					dist = px * px + py * py;
+				} else {
+					float t = Math.max(0.0f, Math.min(1.0f, (px * dx + py * dy) / len));
+					float ex = px - t * dx;
+					float ey = py - t * dy;
+					dist = ex * ex + ey * ey;
+				}
+				if(dist > furthest) {
+					furthest = dist;
+					index = i;
+				}
+			}
+			
+			// Keep the point and simplify either side of it, if it is more than a pixel from the line
+			if(index >= 0 && furthest > limit) {
+				keep[index] = true;
+				if(sp + 4 > stack.length) {
+					int[] grown = new int[stack.length * 2];
+					System.arraycopy(stack, 0, grown, 0, sp);
+					stack = grown;
+				}
+				stack[sp ++] = start;
+				stack[sp ++] = index;
+				stack[sp ++] = index;
+				stack[sp ++] = end;
+			}
+		}
+		
+		int kept = 0;
+		for(int i = 0; i < n; i ++) {
+			kept += (keep[i] ? 1 : 0);
+		}
+		XYDataSet out = data.subset(kept);
+		for(int i = 0; i < n; i ++) {
+			if(keep[i]) {
+				out.addFrom(data, i);
+			}
+		}
+		return out;
+	}
+}
@@ -0,0 +1,221 @@
+package uk.co.essarsoftware.ski.xyplot;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.util.Arrays;
+
+/**
+ * <p>Spatial index over the line segments between consecutive points of a data set, so the segments within a
+ * rectangle can be found without reading every point.</p>
+ * <p>The bounds of the data set are divided into a grid of square cells, sized to hold a few segments each, and each
+ * segment listed against every cell its bounding box covers. The lists are held in a single array, so the index
+ * takes one <tt>int</tt> for each listing and one for each cell.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class XYGridIndex
+{
+	// Average number of segments in each cell
+	private static final int SEGMENTS_PER_CELL = 4;
+	// Most cells along each side of the grid
+	private static final int MAX_CELLS = 1024;
+	
+	// Data set indexed
+	private final XYDataSet data;
+	// Origin and size of each cell
+	private final float originX, originY, cellSize;
+	// Number of cells across and down
+	private final int cols, rows;
+	// Position in segments of the first segment of each cell, and one past the last
+	private final int[] cellStart;
+	// Segments listed against each cell, by the position of their first point
+	private final int[] segments;
+	// Marks of segments already found by the current query, and the mark of the current query
+	private final int[] marks;
+	private int mark;
+	
+	/**
+	 * Build the index of a data set.
+	 * @param data the data set to index.
+	 */
+	public XYGridIndex(XYDataSet data) {
+		this.data = data;
+		int n = Math.max(0, data.size() - 1);
+		
+		// Size square cells to hold a few segments each
+		originX = data.getMinX();
+		originY = data.getMinY();
+		float width = Math.max(data.getMaxX() - originX, 1.0f);
+		float height = Math.max(data.getMaxY() - originY, 1.0f);
+		float cells = Math.max(1.0f, (float) n / SEGMENTS_PER_CELL);
+		float size = (float) Math.sqrt(width * height / cells);
+		size = Math.max(size, Math.max(width, height) / MAX_CELLS);
+		cellSize = size;
+		cols = Math.min(MAX_CELLS, (int) (width / size) + 1);
+		rows = Math.min(MAX_CELLS, (int) (height / size) + 1);
+		
+		// Count the segments of each cell, then list them
+		cellStart = new int[cols * rows + 1];
+		for(int s = 0; s < n; s ++) {
+			if(isSegment(s)) {
+				int c0 = col(Math.min(data.getX(s), data.getX(s + 1))), c1 = col(Math.max(data.getX(s), data.getX(s + 1)));
+				int r0 = row(Math.min(data.getY(s), data.getY(s + 1))), r1 = row(Math.max(data.getY(s), data.getY(s + 1)));
+				for(int r = r0; r <= r1; r ++) {
+					for(int c = c0; c <= c1; c ++) {
+						cellStart[r * cols + c + 1] ++;
+					}
+				}
+			}
+		}
+		for(int i = 1; i < cellStart.length; i ++) {
+			cellStart[i] += cellStart[i - 1];
+		}
+		segments = new int[cellStart[cellStart.length - 1]];
+		int[] fill = new int[cols * rows];
+		System.arraycopy(cellStart, 0, fill, 0, fill.length);
+		for(int s = 0; s < n; s ++) {
+			if(isSegment(s)) {
+				int c0 = col(Math.min(data.getX(s), data.getX(s + 1))), c1 = col(Math.max(data.getX(s), data.getX(s + 1)));
+				int r0 = row(Math.min(data.getY(s), data.getY(s + 1))), r1 = row(Math.max(data.getY(s), data.getY(s + 1)));
+				for(int r = r0; r <= r1; r ++) {
+					for(int c = c0; c <= c1; c ++) {
+						segments[fill[r * cols + c] ++] = s;
+					}
+				}
+			}
+		}
+		marks = new int[n];
+	}
+	
+	/**
+	 * Get the column of the grid holding an x-coordinate.
+	 * @param x the x-coordinate.
+	 * @return the column, limited to the grid.
+	 */
+	private int col(float x) {
+		return Math.max(0, Math.min(cols - 1, (int) ((x - originX) / cellSize)));
+	}
+	
+	/**
+	 * Check if a segment joins two points, rather than meeting a break in the line.
+	 * @param s the position of the first point of the segment.
+	 * @return true if both points of the segment are drawn, false otherwise.
+	 */
+	private boolean isSegment(int s) {
+		return ! data.isBreak(s) && ! data.isBreak(s + 1);
+	}
+	
+	/**
+	 * Get the row of the grid holding a y-coordinate.
+	 * @param y the y-coordinate.
+	 * @return the row, limited to the grid.
+	 */
+	private int row(float y) {
+		return Math.max(0, Math.min(rows - 1, (int) ((y - originY) / cellSize)));
+	}
+	
+	/**
+	 * Get the data set indexed.
+	 * @return the data set.
+	 */
+	public XYDataSet getData() {
+		return data;
+	}
+	
+	/**
+	 * Find the point nearest to a position, within a distance of it.
+	 * @param x the x-coordinate of the position.
+	 * @param y the y-coordinate of the position.
+	 * @param radius the furthest distance of the point from the position.
+	 * @return the position of the point in the data set, or -1 if no point is within the distance.
+	 */
+	public synchronized int nearest(float x, float y, float radius) {
+		int c0 = col(x - radius), c1 = col(x + radius);
+		int r0 = row(y - radius), r1 = row(y + radius);
+		int found = -1;
+		float best = radius * radius;
+		for(int r = r0; r <= r1; r ++) {
+			for(int c = c0; c <= c1; c ++) {
+				int cell = r * cols + c;
+				for(int i = cellStart[cell]; i < cellStart[cell + 1]; i ++) {
+					// Check both points of each segment
+					for(int p = segments[i]; p <= segments[i] + 1; p ++) {
+						float dx = data.getX(p) - x;
+						float dy = data.getY(p) - y;
+						float dist = dx * dx + dy * dy;
+						if(dist <= best) {
+							best = dist;
+							found = p;
+						}
+					}
+				}
+			}
+		}
+		return found;
+	}
+	
+	/**
+	 * Find the segments within a rectangle. Segments are found by the cells they cover, so some segments just
+	 * outside the rectangle may also be found.
+	 * @param minX the lowest x-coordinate of the rectangle.
+	 * @param minY the lowest y-coordinate of the rectangle.
+	 * @param maxX the highest x-coordinate of the rectangle.
+	 * @param maxY the highest y-coordinate of the rectangle.
+	 * @return the points of the segments found, in order, with a break wherever consecutive segments were not found.
+	 */
+	public synchronized XYDataSet query(float minX, float minY, float maxX, float maxY) {
+		int c0 = col(minX), c1 = col(maxX);
+		int r0 = row(minY), r1 = row(maxY);
+		
+		// Collect each segment once, using a new mark for each query
+		if(++ mark == 0) {
+			Arrays.fill(marks, 0);
+			mark = 1;
+		}
+		int[] found = new int[64];
+		int n = 0;
+		for(int r = r0; r <= r1; r ++) {
+			for(int c = c0; c <= c1; c ++) {
+				int cell = r * cols + c;
+				for(int i = cellStart[cell]; i < cellStart[cell + 1]; i ++) {
+					int s = segments[i];
+					if(marks[s] != mark) {
+						marks[s] = mark;
+						if(n == found.length) {
+							int[] grown = new int[found.length * 2];
+							System.arraycopy(found, 0, grown, 0, n);
+							found = grown;
+						}
+						found[n ++] = s;
+					}
+				}
+			}
+		}
+		Arrays.sort(found, 0, n);
+		
+		// Join consecutive segments into lines
+		XYDataSet out = data.subset(n * 2);
+		int last = -2;
+		for(int i = 0; i < n; i ++) {
+			int s = found[i];
+			if(s != last + 1) {
+				if(last >= 0) {
+					out.addBreak();
+				}
+				out.addFrom(data, s);
+			}
+			out.addFrom(data, s + 1);
+			last = s;
+		}
+		return out;
+	}
+}
@@ -0,0 +1,303 @@
+package uk.co.essarsoftware.ski.xyplot;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * <p>Image held as an array of ARGB pixels, that lines and rectangles can be drawn into and written out as a PNG
+ * file, without any platform graphics library.</p>
+ * <p>Colours are blended over the pixels already drawn by their alpha value. Lines are one pixel wide and are clipped
+ * to a rectangle, which is the whole image unless set. An image should only be drawn into by one thread at a
+ * time.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class XYImage
+{
+	// Signature at the start of every PNG file
+	private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+	
+	// Size of the image
+	private final int width, height;
+	// Pixels of the image, by row from the top left, as ARGB values
+	private final int[] pixels;
+	// Rectangle lines are clipped to, from the top left, including the left and top and excluding the right and bottom
+	private int clipLeft, clipTop, clipRight, clipBottom;
+	
+	/**
+	 * Create a new, transparent image.
+	 * @param width the width of the image, in pixels.
+	 * @param height the height of the image, in pixels.
+	 */
+	public XYImage(int width, int height) {
+		if(width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Image size must be positive: " + width + "x" + height);
+		}
+		this.width = width;
+		this.height = height;
+		pixels = new int[width * height];
+		setClip(0, 0, width, height);
+	}
+	
+	/**
+	 * Blend a colour over another by its alpha value.
+	 * @param dst the colour underneath, as an ARGB value.
+	 * @param src the colour drawn over it, as an ARGB value.
+	 * @return the blended colour, as an ARGB value.
+	 */
+	private static int blend(int dst, int src) {
+		int sa = src >>> 24;
+		if(sa == 0xFF) {
+			return src;
+		}
+		if(sa == 0) {
+			return dst;
+		}
+		int da = (dst >>> 24) * (0xFF - sa) / 0xFF;
+		int a = sa + da;
+		int r = (((src >> 16) & 0xFF) * sa + ((dst >> 16) & 0xFF) * da) / a;
+		int g = (((src >> 8) & 0xFF) * sa + ((dst >> 8) & 0xFF) * da) / a;
+		int b = ((src & 0xFF) * sa + (dst & 0xFF) * da) / a;
+		return (a << 24) | (r << 16) | (g << 8) | b;
+	}
+	
+	/**
+	 * Write a chunk of a PNG file, with its length and checksum.
+	 * @param out the stream to write to.
+	 * @param type the four letter type of the chunk.
+	 * @param data the data of the chunk.
+	 * @param length the number of bytes of data.
+	 * @throws IOException if the chunk cannot be written.
+	 */
+	private static void writeChunk(DataOutputStream out, String type, byte[] data, int length) throws IOException {
+		byte[] name = type.getBytes("US-ASCII");
+		CRC32 crc = new CRC32();
+		crc.update(name);
+		crc.update(data, 0, length);
+		out.writeInt(length);
+		out.write(name);
+		out.write(data, 0, length);
+		out.writeInt((int) crc.getValue());
+	}
+	
+	/**
+	 * Draw a line between two points, clipped to the clip rectangle.
+	 * @param x0 the x-coordinate of the first point, in pixels from the left.
+	 * @param y0 the y-coordinate of the first point, in pixels from the top.
+	 * @param x1 the x-coordinate of the second point.
+	 * @param y1 the y-coordinate of the second point.
+	 * @param colour the colour of the line, as an ARGB value.
+	 */
+	public void drawLine(float x0, float y0, float x1, float y1, int colour) {
+		// Clip the line to the clip rectangle, so no pixel outside it is visited
+		float dx = x1 - x0, dy = y1 - y0;
+		float t0 = 0.0f, t1 = 1.0f;
+		float[] p = { -dx, dx, -dy, dy };
+		float[] q = { x0 - clipLeft, clipRight - 0.5f - x0, y0 - clipTop, clipBottom - 0.5f - y0 };
+		for(int i = 0; i < 4; i ++) {
+			if(p[i] == 0.0f) {
+				if(q[i] < 0.0f) {
+					return;
+				}
+			} else {
+				float t = q[i] / p[i];
+				if(p[i] < 0.0f) {
+					t0 = Math.max(t0, t);
+				} else {
+					t1 = Math.min(t1, t);
+				}
+			}
+		}
+		if(t0 > t1) {
+			return;
+		}
+		
+		// Step along the longer side one pixel at a time
+		int ax = Math.round(x0 + t0 * dx), ay = Math.round(y0 + t0 * dy);
+		int bx = Math.round(x0 + t1 * dx), by = Math.round(y0 + t1 * dy);
+		int sx = (ax < bx ? 1 : -1), sy = (ay < by ? 1 : -1);
+		int ex = Math.abs(bx - ax), ey = -Math.abs(by - ay);
+		int err = ex + ey;
+		while(true) {
+			plot(ax, ay, colour);
+			if(ax == bx && ay == by) {
+				break;
+			}
+			int e2 = 2 * err;
+			if(e2 >= ey) {
+				err += ey;
+				ax += sx;
+			}
+			if(e2 <= ex) {
+				err += ex;
+				ay += sy;
+			}
+		}
+	}
+	
+	/**
+	 * Fill the whole image with a colour, replacing every pixel.
+	 * @param colour the colour, as an ARGB value.
+	 */
+	public void fill(int colour) {
+		Arrays.fill(pixels, colour);
+	}
+	
+	/**
+	 * Fill a rectangle with a colour, blended over the pixels already drawn. The rectangle is limited to the image.
+	 * @param left the left edge of the rectangle, in pixels, included.
+	 * @param top the top edge of the rectangle, in pixels, included.
+	 * @param right the right edge of the rectangle, in pixels, excluded.
+	 * @param bottom the bottom edge of the rectangle, in pixels, excluded.
+	 * @param colour the colour, as an ARGB value.
+	 */
+	public void fillRect(int left, int top, int right, int bottom, int colour) {
+		left = Math.max(0, left);
+		top = Math.max(0, top);
+		right = Math.min(width, right);
+		bottom = Math.min(height, bottom);
+		for(int y = top; y < bottom; y ++) {
+			int row = y * width;
+			for(int x = left; x < right; x ++) {
+				pixels[row + x] = blend(pixels[row + x], colour);
+			}
+		}
+	}
+	
+	/**
+	 * Get the height of the image.
+	 * @return the height, in pixels.
+	 */
+	public int getHeight() {
+		return height;
+	}
+	
+	/**
+	 * Get the colour of a pixel.
+	 * @param x the column of the pixel, from the left.
+	 * @param y the row of the pixel, from the top.
+	 * @return the colour, as an ARGB value.
+	 */
+	public int getPixel(int x, int y) {
+		return pixels[y * width + x];
+	}
+	
+	/**
+	 * Get the width of the image.
+	 * @return the width, in pixels.
+	 */
+	public int getWidth() {
+		return width;
+	}
+	
+	/**
+	 * Blend a colour over a single pixel, if it is within the clip rectangle.
+	 * @param x the column of the pixel.
+	 * @param y the row of the pixel.
+	 * @param colour the colour, as an ARGB value.
+	 */
+	private void plot(int x, int y, int colour) {
+		if(x >= clipLeft && x < clipRight && y >= clipTop && y < clipBottom) {
+			pixels[y * width + x] = blend(pixels[y * width + x], colour);
+		}
+	}
+	
+	/**
+	 * Set the rectangle lines are clipped to. The rectangle is limited to the image.
+	 * @param left the left edge of the rectangle, in pixels, included.
+	 * @param top the top edge of the rectangle, in pixels, included.
+	 * @param right the right edge of the rectangle, in pixels, excluded.
+	 * @param bottom the bottom edge of the rectangle, in pixels, excluded.
+	 */
+	public void setClip(int left, int top, int right, int bottom) {
+		clipLeft = Math.max(0, left);
+		clipTop = Math.max(0, top);
+		clipRight = Math.min(width, right);
+		clipBottom = Math.min(height, bottom);
+	}
+	
+	/**
+	 * Write the image as a PNG file, with 8-bit RGBA pixels. Each row is stored as the difference from the pixel to
+	 * its left, which compresses well where a plot has large areas of one colour.
+	 * @param out the stream to write to, which is not closed.
+	 * @throws IOException if the image cannot be written.
+	 */
+	public void writePNG(OutputStream out) throws IOException {
+		DataOutputStream dos = new DataOutputStream(out);
+		dos.write(PNG_SIGNATURE);
+		
+		// Header: size, 8 bits per sample, RGBA colour, default compression, filtering and no interlace
+		byte[] header = new byte[13];
+		header[0] = (byte) (width >>> 24);
+		header[1] = (byte) (width >>> 16);
+		header[2] = (byte) (width >>> 8);
+		header[3] = (byte) width;
+		header[4] = (byte) (height >>> 24);
+		header[5] = (byte) (height >>> 16);
+		header[6] = (byte) (height >>> 8);
+		header[7] = (byte) height;
+		header[8] = 8;
+		header[9] = 6;
+		writeChunk(dos, "IHDR", header, header.length);
+		
+		// Filter each row by the pixel to its left, and compress the rows as they are filtered
+		Deflater deflater = new Deflater();
+		try {
+			byte[] row = new byte[1 + width * 4];
+			byte[] buf = new byte[Math.max(8192, row.length)];
+			int n = 0;
+			row[0] = 1;
+			for(int y = 0; y < height; y ++) {
+				int prev = 0;
+				for(int x = 0; x < width; x ++) {
+					int c = pixels[y * width + x];
+					int o = 1 + x * 4;
+					row[o] = (byte) ((c >> 16) - (prev >> 16));
+					row[o + 1] = (byte) ((c >> 8) - (prev >> 8));
+					row[o + 2] = (byte) (c - prev);
+					row[o + 3] = (byte) ((c >>> 24) - (prev >>> 24));
+					prev = c;
+				}
+				deflater.setInput(row);
+				while(! deflater.needsInput()) {
+					n += deflater.deflate(buf, n, buf.length - n);
+					if(n == buf.length) {
+						writeChunk(dos, "IDAT", buf, n);
+						n = 0;
+					}
+				}
+			}
+			deflater.finish();
+			while(! deflater.finished()) {
+				n += deflater.deflate(buf, n, buf.length - n);
+				if(n == buf.length) {
+					writeChunk(dos, "IDAT", buf, n);
+					n = 0;
+				}
+			}
+			if(n > 0) {
+				writeChunk(dos, "IDAT", buf, n);
+			}
+		} finally {
+			deflater.end();
+		}
+		
+		writeChunk(dos, "IEND", new byte[0], 0);
+		dos.flush();
+	}
+}
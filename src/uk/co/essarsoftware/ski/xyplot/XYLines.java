@@ -0,0 +1,166 @@
+package uk.co.essarsoftware.ski.xyplot;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+
+/**
+ * <p>Line segments of one series of a plot, grouped by colour, so each colour can be drawn with a single call.</p>
+ * <p>Each point of the series is translated against the plot axes, then mapped to the coordinates it is drawn in.
+ * The segment ending at each point is coloured with the colour its colour map finds for that point, and segments
+ * that meet a break in the line are left out. A buffer is allocated for each colour used, holding exactly the
+ * segments of that colour.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class XYLines
+{
+	// Colours of the lines of each series drawn without a colour map
+	private static final int[] DEFAULT_LINE_COLOURS = {
+		0xFFFFFFFF, // White
+		0xFFFFFF00, // Yellow
+		0xFF00FFFF, // Cyan
+		0xFFFF00FF, // Magenta
+		0xFF00FF00  // Green
+	};
+	
+	// Segments of each colour, as x0,y0,x1,y1 in mapped coordinates
+	private final float[][] segments;
+	// Colour of each group of segments, as ARGB values
+	private final int[] colours;
+	// Number of segments in all groups
+	private final int count;
+	
+	/**
+	 * Build the line segments of a series.
+	 * @param plot the plot holding the series, whose axes the points are translated against.
+	 * @param series the position of the series in the plot, choosing its colour if it has no colour map.
+	 * @param data the series data, usually reduced to the width it is drawn across.
+	 * @param map the colour map of the series, or <tt>null</tt> to draw the series in a single colour.
+	 * @param mapping the mapping to the coordinates drawn in, or <tt>null</tt> to keep translated plot coordinates.
+	 */
+	public XYLines(XYPlot plot, int series, XYDataSet data, XYColourMap map, Mapping mapping) {
+		XYDataSet drawn = data.translate(plot.getXAxis(), plot.getYAxis());
+		int size = Math.max(0, data.size() - 1);
+		
+		// Colour the segment ending at each point, leaving out segments that meet a break in the line
+		int[] pointColours = (map == null ? null : map.getColours(data.getSource()));
+		int[] palette = (pointColours == null ? null : map.getPalette());
+		int[] segmentColours = new int[size];
+		int[] counts = new int[palette == null ? 1 : palette.length];
+		int total = 0;
+		for(int i = 1; i < data.size(); i ++) {
+			if(data.isBreak(i - 1) || data.isBreak(i)) {
+				segmentColours[i - 1] = -1;
+				continue;
+			}
+			int c = (pointColours == null ? 0 : pointColours[data.getIndex(i)]);
+			segmentColours[i - 1] = c;
+			counts[c] ++;
+			total ++;
+		}
+		count = total;
+		
+		// Allocate a buffer for each colour used and fill it with segments
+		int used = 0;
+		for(int c = 0; c < counts.length; c ++) {
+			used += (counts[c] > 0 ? 1 : 0);
+		}
+		segments = new float[used][];
+		colours = new int[used];
+		int[] groups = new int[counts.length];
+		for(int c = 0, g = 0; c < counts.length; c ++) {
+			if(counts[c] > 0) {
+				segments[g] = new float[counts[c] * 4];
+				colours[g] = (palette == null ? DEFAULT_LINE_COLOURS[series % DEFAULT_LINE_COLOURS.length] : palette[c]);
+				groups[c] = g ++;
+			}
+		}
+		int[] offsets = new int[used];
+		for(int i = 0; i < size; i ++) {
+			if(segmentColours[i] < 0) {
+				continue;
+			}
+			int g = groups[segmentColours[i]];
+			float[] buf = segments[g];
+			int o = offsets[g];
+			if(mapping == null) {
+				buf[o] = drawn.getX(i);
+				buf[o + 1] = drawn.getY(i);
+				buf[o + 2] = drawn.getX(i + 1);
+				buf[o + 3] = drawn.getY(i + 1);
+			} else {
+				buf[o] = mapping.mapX(drawn.getX(i));
+				buf[o + 1] = mapping.mapY(drawn.getY(i));
+				buf[o + 2] = mapping.mapX(drawn.getX(i + 1));
+				buf[o + 3] = mapping.mapY(drawn.getY(i + 1));
+			}
+			offsets[g] = o + 4;
+		}
+	}
+	
+	/**
+	 * Get the colour of a group of segments.
+	 * @param group the position of the group.
+	 * @return the colour, as an ARGB value.
+	 */
+	public int getColour(int group) {
+		return colours[group];
+	}
+	
+	/**
+	 * Get the number of colours the series is drawn in.
+	 * @return the number of groups of segments.
+	 */
+	public int getGroupCount() {
+		return segments.length;
+	}
+	
+	/**
+	 * Get the number of segments drawn, in all groups.
+	 * @return the number of segments.
+	 */
+	public int getSegmentCount() {
+		return count;
+	}
+	
+	/**
+	 * Get the segments of a group, which must not be modified.
+	 * @param group the position of the group.
+	 * @return the segments, as x0,y0,x1,y1 in mapped coordinates.
+	 */
+	public float[] getSegments(int group) {
+		return segments[group];
+	}
+	
+	/**
+	 * <p>Maps translated plot coordinates to the coordinates a plot is drawn in.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	public interface Mapping
+	{
+		/**
+		 * Map a translated plot x-coordinate.
+		 * @param x the x-coordinate.
+		 * @return the mapped x-coordinate.
+		 */
+		public abstract float mapX(float x);
+		
+		/**
+		 * Map a translated plot y-coordinate.
+		 * @param y the y-coordinate.
+		 * @return the mapped y-coordinate.
+		 */
+		public abstract float mapY(float y);
+	}
+}
@@ -14,6 +14,9 @@ package uk.co.essarsoftware.ski.xyplot;
 
 /**
  * <p>Class representing an XY plot, or histogram, of data.</p>
+ * <p>A plot can hold several data series drawn against the same axes, such as the altitude of several days
+ * overlaid. The axes cover every series, and each series is reduced and queried separately, keeping its own reduced
+ * and visible points.</p>
  *
  * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
  * @version 1.0 (17 Dec 2011)
@@ -24,6 +27,8 @@ public class XYPlot
 	private boolean proportional, showScale;
 	private XYDataSet[] data;
 	private XYAxis xAxis, yAxis;
+	// Reduced and visible points of each series
+	private final SeriesCache[] caches;
 	
 	/**
 	 * Create a new plot with a single data series and normal X and Y axis.
@@ -33,13 +38,17 @@ public class XYPlot
 		this(new XYDataSet[] {data}, XYAxis.AXIS_TYPE_NORMAL, XYAxis.AXIS_TYPE_NORMAL);
 	}
 	
-	XYPlot(XYDataSet[] data) {
-		this(data[0]);
+	/**
+	 * Create a new plot with several data series and normal X and Y axis.
+	 * @param data the data series to plot.
+	 */
+	public XYPlot(XYDataSet[] data) {
+		this(data, XYAxis.AXIS_TYPE_NORMAL, XYAxis.AXIS_TYPE_NORMAL);
 	}
 	
 	/**
 	 * Create a new plot with the specified axis types. Axis can be linear (normal) or logarithmic, and can be inverted.
-	 * @param data the data series to plot.
+	 * @param data the data series to plot, at least one.
 	 * @param xMode the X-axis type.
 	 * @param yMode the Y-axis type.
 	 * @see XYAxis#AXIS_TYPE_NORMAL
@@ -49,9 +58,26 @@ public class XYPlot
 	 */
 	public XYPlot(XYDataSet[] data, int xMode, int yMode) {
 		this.data = data;
+		caches = new SeriesCache[data.length];
+		for(int s = 0; s < data.length; s ++) {
+			caches[s] = new SeriesCache();
+		}
 		
-		xAxis = createXAxis(data[0].getMinX(), data[0].getMaxX(), xMode);
-		yAxis = createYAxis(data[0].getMinY(), data[0].getMaxY(), yMode);
+		// Each series keeps its own bounds, so the axes only need one pass over the series
+		float minX = 0.0f, maxX = 0.0f, minY = 0.0f, maxY = 0.0f;
+		boolean bounded = false;
+		for(XYDataSet series : data) {
+			if(series.isEmpty()) {
+				continue;
+			}
+			minX = (bounded ? Math.min(minX, series.getMinX()) : series.getMinX());
+			maxX = (bounded ? Math.max(maxX, series.getMaxX()) : series.getMaxX());
+			minY = (bounded ? Math.min(minY, series.getMinY()) : series.getMinY());
+			maxY = (bounded ? Math.max(maxY, series.getMaxY()) : series.getMaxY());
+			bounded = true;
+		}
+		xAxis = createXAxis(minX, maxX, xMode);
+		yAxis = createYAxis(minY, maxY, yMode);
 	}
 	
 	protected XYAxis createXAxis(float min, float max, int mode) {
@@ -63,13 +89,151 @@ public class XYPlot
 	}
 	
 	/**
-	 * Get the data series plotted on this axis.
+	 * Reduce the data series to the detail that can be seen at a given width. By default the lowest and highest
+	 * points at each pixel are kept; plots that are not a series ordered by x-coordinate should override this.
+	 * @param data the data series to reduce.
+	 * @param pixels the number of pixels the x-axis is drawn across.
+	 * @return the reduced data series.
+	 * @see XYDecimator
+	 */
+	protected XYDataSet decimate(XYDataSet data, int pixels) {
+		return XYDecimator.minMax(data, pixels);
+	}
+	
+	/**
+	 * Find the points of the data series within part of the plot. By default the points within the range of
+	 * x-coordinates are taken from a set of levels of detail built once for the series, and drawn across the full
+	 * range of y-coordinates; plots that are not a series ordered by x-coordinate should override this.
+	 * @param data the data series.
+	 * @param fromX the lowest x-coordinate of the part.
+	 * @param toX the highest x-coordinate of the part.
+	 * @param fromY the lowest y-coordinate of the part.
+	 * @param toY the highest y-coordinate of the part.
+	 * @param pixels the number of pixels the x-coordinates of the part are drawn across.
+	 * @return the points within the part, reduced to the detail that can be seen.
+	 * @see XYPyramid
+	 */
+	protected XYDataSet slice(XYDataSet data, float fromX, float toX, float fromY, float toY, int pixels) {
+		for(int s = 0; s < this.data.length; s ++) {
+			if(this.data[s] == data) {
+				SeriesCache cache = caches[s];
+				if(cache.pyramid == null || cache.pyramid.isStale(data)) {
+					cache.pyramid = new XYPyramid(data);
+				}
+				return cache.pyramid.query(fromX, toX, pixels);
+			}
+		}
+		// Not a series of this plot, so its levels are not kept
+		return new XYPyramid(data).query(fromX, toX, pixels);
+	}
+	
+	/**
+	 * Get the first data series plotted on this axis.
 	 * @return the data series to plot.
 	 */
 	public XYDataSet getData() {
-		return data[0];
+		return getSeries(0);
 	}
-
+	
+	/**
+	 * Get the first data series plotted on this axis, reduced to the detail that can be seen when the x-axis is drawn
+	 * across a number of pixels.
+	 * @param pixels the number of pixels the x-axis is drawn across.
+	 * @return the reduced data series, holding the same points as the full series.
+	 * @see #getSeries(int, int)
+	 */
+	public XYDataSet getData(int pixels) {
+		return getSeries(0, pixels);
+	}
+	
+	/**
+	 * Get the points of the first data series within part of the plot, reduced to the detail that can be seen when
+	 * that part is drawn across a number of pixels.
+	 * @param fromX the lowest translated x-coordinate of the part.
+	 * @param toX the highest translated x-coordinate of the part.
+	 * @param fromY the lowest translated y-coordinate of the part.
+	 * @param toY the highest translated y-coordinate of the part.
+	 * @param pixels the number of pixels the x-axis of the part is drawn across.
+	 * @return the points within the part, indexed back to the same source as the full series.
+	 * @see #getSeries(int, float, float, float, float, int)
+	 */
+	public XYDataSet getData(float fromX, float toX, float fromY, float toY, int pixels) {
+		return getSeries(0, fromX, toX, fromY, toY, pixels);
+	}
+	
+	/**
+	 * Get a data series plotted on this axis.
+	 * @param series the position of the series, from zero.
+	 * @return the data series to plot.
+	 */
+	public XYDataSet getSeries(int series) {
+		return data[series];
+	}
+	
+	/**
+	 * Get a data series plotted on this axis, reduced to the detail that can be seen when the x-axis is drawn across a
+	 * number of pixels. The reduced series is kept, and only rebuilt when the width or the data changes.
+	 * @param series the position of the series, from zero.
+	 * @param pixels the number of pixels the x-axis is drawn across.
+	 * @return the reduced data series, holding the same points as the full series.
+	 */
+	public XYDataSet getSeries(int series, int pixels) {
+		XYDataSet data = this.data[series];
+		SeriesCache cache = caches[series];
+		if(cache.reduced == null || cache.reducedPixels != pixels || cache.reducedFrom != data || cache.reducedSize != data.size()) {
+			cache.reducedFrom = data;
+			cache.reducedSize = data.size();
+			cache.reducedPixels = pixels;
+			cache.reduced = decimate(data, pixels);
+		}
+		return cache.reduced;
+	}
+	
+	/**
+	 * Get the points of a data series within part of the plot, reduced to the detail that can be seen when that part
+	 * is drawn across a number of pixels. The part is given in translated coordinates, as drawn. The points for the
+	 * last part are kept, and only found again when the part, the width or the data changes.
+	 * @param series the position of the series, from zero.
+	 * @param fromX the lowest translated x-coordinate of the part.
+	 * @param toX the highest translated x-coordinate of the part.
+	 * @param fromY the lowest translated y-coordinate of the part.
+	 * @param toY the highest translated y-coordinate of the part.
+	 * @param pixels the number of pixels the x-axis of the part is drawn across.
+	 * @return the points within the part, indexed back to the same source as the full series.
+	 */
+	public XYDataSet getSeries(int series, float fromX, float toX, float fromY, float toY, int pixels) {
+		XYDataSet data = this.data[series];
+		SeriesCache cache = caches[series];
+		
+		// Find the part in the original coordinates of the series
+		float x0 = xAxis.untranslateValue(fromX), x1 = xAxis.untranslateValue(toX);
+		float y0 = yAxis.untranslateValue(fromY), y1 = yAxis.untranslateValue(toY);
+		float minX = Math.min(x0, x1), maxX = Math.max(x0, x1);
+		float minY = Math.min(y0, y1), maxY = Math.max(y0, y1);
+		if(minX <= data.getMinX() && maxX >= data.getMaxX() && minY <= data.getMinY() && maxY >= data.getMaxY()) {
+			return getSeries(series, pixels);
+		}
+		if(cache.visible == null || cache.visibleMinX != minX || cache.visibleMaxX != maxX || cache.visibleMinY != minY || cache.visibleMaxY != maxY || cache.visiblePixels != pixels || cache.visibleFrom != data || cache.visibleSize != data.size()) {
+			cache.visibleFrom = data;
+			cache.visibleSize = data.size();
+			cache.visibleMinX = minX;
+			cache.visibleMaxX = maxX;
+			cache.visibleMinY = minY;
+			cache.visibleMaxY = maxY;
+			cache.visiblePixels = pixels;
+			cache.visible = slice(data, minX, maxX, minY, maxY, pixels);
+		}
+		return cache.visible;
+	}
+	
+	/**
+	 * Get the number of data series plotted on this axis.
+	 * @return the number of series.
+	 */
+	public int getSeriesCount() {
+		return data.length;
+	}
+	
 	/**
 	 * Get the X-axis for this plot.
 	 * @return the X-axis (horizontal).
@@ -116,20 +280,59 @@ public class XYPlot
 	 * @return the translated datum plot.
 	 */
 	public XYDatum translatePoint(XYDatum in) {
-		return new XYDatum(xAxis.translateValue(in.getX()), yAxis.translateValue(in.getY()), in.getV());
+		return new XYDatum(translateX(in.getX()), translateY(in.getY()), in.getV());
+	}
+	
+	/**
+	 * Translate an x-coordinate against the x-axis, without creating a new datum point.
+	 * @param x the original x-coordinate.
+	 * @return the translated x-coordinate.
+	 */
+	public float translateX(float x) {
+		return xAxis.translateValue(x);
+	}
+	
+	/**
+	 * Translate a y-coordinate against the y-axis, without creating a new datum point.
+	 * @param y the original y-coordinate.
+	 * @return the translated y-coordinate.
+	 */
+	public float translateY(float y) {
+		return yAxis.translateValue(y);
 	}
 	
 	/**
 	 * Transpose the plot to make the x-axis the y-axis, and visa versa.
 	 */
 	public void transposePlot() {
-		// Create transposed data set
-		XYDataSet tds = data[0].transpose();
-		data[0] = tds;
-
+		// Create transposed view of each data set
+		for(int s = 0; s < data.length; s ++) {
+			data[s] = data[s].transpose();
+		}
+		
 		// Transpose axis
 		XYAxis temp = xAxis;
 		xAxis = yAxis;
 		yAxis = temp;
 	}
+	
+	/**
+	 * <p>Points of a data series kept between frames: the series reduced to the width of the plot, its levels of
+	 * detail, and the points in the last part of the plot queried.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private static class SeriesCache
+	{
+		// Reduced data set, and the width and data set it was reduced for
+		private XYDataSet reduced, reducedFrom;
+		private int reducedPixels, reducedSize;
+		// Levels of detail of the data set, built on the first query of part of the plot
+		private XYPyramid pyramid;
+		// Points in the last part of the plot queried, and the range, width and data set they were queried for
+		private XYDataSet visible, visibleFrom;
+		private float visibleMinX, visibleMaxX, visibleMinY, visibleMaxY;
+		private int visiblePixels, visibleSize;
+	}
 }
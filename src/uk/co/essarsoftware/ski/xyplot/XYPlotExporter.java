@@ -0,0 +1,350 @@
+package uk.co.essarsoftware.ski.xyplot;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * <p>Draws a whole <tt>XYPlot</tt> as an image, without a display, so plots can be exported as PNG or SVG files by a
+ * batch process.</p>
+ * <p>The plot is laid out as the Android view lays it out: the same padding, room for the axes, proportional scaling
+ * and axis ticks, with the lines of each series coloured by its <tt>XYColourMap</tt> by the end point of each
+ * segment. Each series is first reduced to the width of the image, so the cost of an image depends on its size rather
+ * than the length of the session. PNG images have no text, as there is no font to draw it with; SVG images include
+ * the axis labels.</p>
+ * <p>An exporter holds no state between images, so one exporter can draw many plots on many threads at once, as long
+ * as each plot and its colour maps are only drawn by one thread at a time.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class XYPlotExporter
+{
+	// Colour of the axes and their labels
+	private static final int AXIS_COLOUR = 0xFFFFFFFF;
+	// Size of axis labels, in pixels
+	private static final float TEXT_SIZE = 10.0f;
+	
+	// Size of the images drawn
+	private final int width, height;
+	// Colours of the image and of the plot area
+	private final int background, plotAreaBg;
+	// Space around the plot
+	private final float padding = 2.0f;
+	
+	/**
+	 * Create an exporter drawing images of a given size, on a black background.
+	 * @param width the width of each image, in pixels.
+	 * @param height the height of each image, in pixels.
+	 */
+	public XYPlotExporter(int width, int height) {
+		this(width, height, 0xFF000000);
+	}
+	
+	/**
+	 * Create an exporter drawing images of a given size and background.
+	 * @param width the width of each image, in pixels.
+	 * @param height the height of each image, in pixels.
+	 * @param background the colour of the background, as an ARGB value.
+	 */
+	public XYPlotExporter(int width, int height, int background) {
+		if(width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Image size must be positive: " + width + "x" + height);
+		}
+		this.width = width;
+		this.height = height;
+		this.background = background;
+		this.plotAreaBg = 0x33808080; // Mid-gray with 33% transparency
+	}
+	
+	/**
+	 * Format a colour as SVG attributes.
+	 * @param attr the attribute to set, such as <tt>fill</tt> or <tt>stroke</tt>.
+	 * @param colour the colour, as an ARGB value.
+	 * @return the attribute set to the hex RGB value, with an opacity attribute if not opaque.
+	 */
+	private static String svgColour(String attr, int colour) {
+		String rgb = String.format(Locale.US, "%s=\"#%06X\"", attr, colour & 0x00FFFFFF);
+		int a = colour >>> 24;
+		return (a == 0xFF ? rgb : rgb + String.format(Locale.US, " %s-opacity=\"%.3f\"", attr, a / 255.0f));
+	}
+	
+	/**
+	 * Escape text for an SVG document.
+	 * @param text the text.
+	 * @return the text, with markup characters escaped.
+	 */
+	private static String svgText(String text) {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+	
+	/**
+	 * Find the line segments of each series of a plot, reduced to the width of the image, in image coordinates and
+	 * grouped by colour.
+	 * @param plot the plot to draw.
+	 * @param colours the colour map of each series, or <tt>null</tt> to draw every series in a single colour.
+	 * @param layout the layout of the plot in the image.
+	 * @return the segments of each series.
+	 */
+	private XYLines[] buildLines(XYPlot plot, XYColourMap[] colours, Layout layout) {
+		int series = plot.getSeriesCount();
+		XYLines[] lines = new XYLines[series];
+		int pixels = Math.round(layout.plWidth * layout.scaleX);
+		for(int s = 0; s < series; s ++) {
+			XYColourMap map = (colours != null && s < colours.length ? colours[s] : null);
+			lines[s] = new XYLines(plot, s, plot.getSeries(s, pixels), map, layout);
+		}
+		return lines;
+	}
+	
+	/**
+	 * Get the mapping from translated plot coordinates to the image, as a plot is laid out when it is drawn.
+	 * @param plot the plot to lay out.
+	 * @return the mapping to image coordinates.
+	 */
+	public XYLines.Mapping getMapping(XYPlot plot) {
+		return new Layout(plot);
+	}
+	
+	/**
+	 * Draw a plot into a new image.
+	 * @param plot the plot to draw.
+	 * @param colours the colour map of each series, or <tt>null</tt> to draw every series in a single colour.
+	 * @return the image.
+	 */
+	public XYImage render(XYPlot plot, XYColourMap[] colours) {
+		Layout layout = new Layout(plot);
+		XYImage image = new XYImage(width, height);
+		image.fill(background);
+		
+		// Draw plot area background
+		int left = Math.round(layout.toImageX(layout.plX)), right = Math.round(layout.toImageX(layout.plX + layout.plWidth));
+		int top = Math.round(layout.toImageY(layout.plY + layout.plHeight)), bottom = Math.round(layout.toImageY(layout.plY));
+		image.fillRect(left, top, right, bottom, plotAreaBg);
+		
+		if(plot.isScaleShown()) {
+			// Draw x axis and ticks
+			float xAxisY = layout.toImageY(layout.plY) + 1.0f;
+			image.drawLine(left, xAxisY, right, xAxisY, AXIS_COLOUR);
+			for(float f : plot.getXAxis().getTickValues()) {
+				if(f >= layout.plX && f <= layout.plX + layout.plWidth) {
+					float x = layout.toImageX(f);
+					image.drawLine(x, xAxisY, x, xAxisY + 10.0f, AXIS_COLOUR);
+				}
+			}
+			
+			// Draw y axis and ticks
+			float yAxisX = layout.toImageX(layout.plX) - 1.0f;
+			image.drawLine(yAxisX, top, yAxisX, bottom, AXIS_COLOUR);
+			for(float f : plot.getYAxis().getTickValues()) {
+				if(f >= layout.plY && f <= layout.plY + layout.plHeight) {
+					float y = layout.toImageY(f);
+					image.drawLine(yAxisX, y, yAxisX - 10.0f, y, AXIS_COLOUR);
+				}
+			}
+		}
+		
+		// Draw the segments of each colour of each series, clipped to the plot area
+		XYLines[] lines = buildLines(plot, colours, layout);
+		image.setClip(left, top, right, bottom);
+		for(int s = 0; s < lines.length; s ++) {
+			for(int g = 0; g < lines[s].getGroupCount(); g ++) {
+				float[] buf = lines[s].getSegments(g);
+				int colour = lines[s].getColour(g);
+				for(int o = 0; o < buf.length; o += 4) {
+					image.drawLine(buf[o], buf[o + 1], buf[o + 2], buf[o + 3], colour);
+				}
+			}
+		}
+		image.setClip(0, 0, width, height);
+		return image;
+	}
+	
+	/**
+	 * Draw a plot and write it as a PNG file.
+	 * @param plot the plot to draw.
+	 * @param colours the colour map of each series, or <tt>null</tt> to draw every series in a single colour.
+	 * @param out the stream to write to, which is not closed.
+	 * @throws IOException if the image cannot be written.
+	 */
+	public void writePNG(XYPlot plot, XYColourMap[] colours, OutputStream out) throws IOException {
+		render(plot, colours).writePNG(out);
+	}
+	
+	/**
+	 * Draw a plot and write it as an SVG document, with the segments of each colour as a single path. Numbers are
+	 * always written with a decimal point, whatever the default locale.
+	 * @param plot the plot to draw.
+	 * @param colours the colour map of each series, or <tt>null</tt> to draw every series in a single colour.
+	 * @param out the writer to write to, which is not closed.
+	 * @throws IOException if the document cannot be written.
+	 */
+	public void writeSVG(XYPlot plot, XYColourMap[] colours, Writer out) throws IOException {
+		Layout layout = new Layout(plot);
+		float left = layout.toImageX(layout.plX), right = layout.toImageX(layout.plX + layout.plWidth);
+		float top = layout.toImageY(layout.plY + layout.plHeight), bottom = layout.toImageY(layout.plY);
+		
+		out.write(String.format(Locale.US, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>%n"));
+		out.write(String.format(Locale.US, "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" viewBox=\"0 0 %d %d\">%n", width, height, width, height));
+		out.write(String.format(Locale.US, "<defs><clipPath id=\"plot\"><rect x=\"%.1f\" y=\"%.1f\" width=\"%.1f\" height=\"%.1f\"/></clipPath></defs>%n", left, top, right - left, bottom - top));
+		out.write(String.format(Locale.US, "<rect width=\"100%%\" height=\"100%%\" %s/>%n", svgColour("fill", background)));
+		out.write(String.format(Locale.US, "<rect x=\"%.1f\" y=\"%.1f\" width=\"%.1f\" height=\"%.1f\" %s/>%n", left, top, right - left, bottom - top, svgColour("fill", plotAreaBg)));
+		
+		if(plot.isScaleShown()) {
+			float[] xTicks = plot.getXAxis().getTickValues();
+			float[] yTicks = plot.getYAxis().getTickValues();
+			float xAxisY = bottom + 1.0f;
+			float yAxisX = left - 1.0f;
+			out.write(String.format(Locale.US, "<g %s stroke-width=\"1\" fill=\"none\">%n", svgColour("stroke", AXIS_COLOUR)));
+			out.write(String.format(Locale.US, "<path d=\"M%.1f %.1fH%.1fM%.1f %.1fV%.1f", left, xAxisY, right, yAxisX, top, bottom));
+			for(float f : xTicks) {
+				if(f >= layout.plX && f <= layout.plX + layout.plWidth) {
+					out.write(String.format(Locale.US, "M%.1f %.1fv10", layout.toImageX(f), xAxisY));
+				}
+			}
+			for(float f : yTicks) {
+				if(f >= layout.plY && f <= layout.plY + layout.plHeight) {
+					out.write(String.format(Locale.US, "M%.1f %.1fh-10", yAxisX, layout.toImageY(f)));
+				}
+			}
+			out.write(String.format(Locale.US, "\"/>%n</g>%n"));
+			
+			// Axis labels, placed as the Android view places them
+			out.write(String.format(Locale.US, "<g %s font-family=\"sans-serif\" font-size=\"%.0f\">%n", svgColour("fill", AXIS_COLOUR), TEXT_SIZE));
+			for(int i = 0; i < xTicks.length; i ++) {
+				float f = xTicks[i];
+				if(f < layout.plX || f > layout.plX + layout.plWidth) {
+					continue;
+				}
+				String anchor = (i == 0 ? "start" : (i == xTicks.length - 1 ? "end" : "middle"));
+				out.write(String.format(Locale.US, "<text x=\"%.1f\" y=\"%.1f\" text-anchor=\"%s\">%s</text>%n", layout.toImageX(f), xAxisY + 20.0f, anchor, svgText(plot.getXAxis().getLabel(f))));
+			}
+			if(plot.getXAxis().getAxisName() != null) {
+				out.write(String.format(Locale.US, "<text x=\"%.1f\" y=\"%.1f\" text-anchor=\"end\">%s</text>%n", right, xAxisY + 30.0f, svgText(plot.getXAxis().getAxisName())));
+			}
+			for(int i = 0; i < yTicks.length; i ++) {
+				float f = yTicks[i];
+				if(f < layout.plY || f > layout.plY + layout.plHeight) {
+					continue;
+				}
+				float y = layout.toImageY(f) + (i > 0 ? TEXT_SIZE : 0.0f);
+				out.write(String.format(Locale.US, "<text x=\"%.1f\" y=\"%.1f\" text-anchor=\"end\">%s</text>%n", yAxisX - 12.0f, y, svgText(plot.getYAxis().getLabel(f))));
+			}
+			if(plot.getYAxis().getAxisName() != null) {
+				float x = yAxisX - 25.0f, y = (top + bottom) / 2.0f;
+				out.write(String.format(Locale.US, "<text x=\"%.1f\" y=\"%.1f\" text-anchor=\"middle\" transform=\"rotate(90 %.1f %.1f)\">%s</text>%n", x, y, x, y, svgText(plot.getYAxis().getAxisName())));
+			}
+			out.write(String.format(Locale.US, "</g>%n"));
+		}
+		
+		// Draw the segments of each colour of each series as one path, joining segments that continue the last
+		XYLines[] lines = buildLines(plot, colours, layout);
+		out.write(String.format(Locale.US, "<g clip-path=\"url(#plot)\" stroke-width=\"1\" fill=\"none\" stroke-linecap=\"round\">%n"));
+		StringBuilder d = new StringBuilder();
+		for(int s = 0; s < lines.length; s ++) {
+			for(int g = 0; g < lines[s].getGroupCount(); g ++) {
+				float[] buf = lines[s].getSegments(g);
+				d.setLength(0);
+				for(int o = 0; o < buf.length; o += 4) {
+					if(o == 0 || buf[o] != buf[o - 2] || buf[o + 1] != buf[o - 1]) {
+						d.append(String.format(Locale.US, "M%.1f %.1f", buf[o], buf[o + 1]));
+					}
+					d.append(String.format(Locale.US, "L%.1f %.1f", buf[o + 2], buf[o + 3]));
+				}
+				out.write(String.format(Locale.US, "<path %s d=\"%s\"/>%n", svgColour("stroke", lines[s].getColour(g)), d));
+			}
+		}
+		out.write(String.format(Locale.US, "</g>%n</svg>%n"));
+		out.flush();
+	}
+	
+	/**
+	 * <p>Position and scale of a whole plot within an image, found as the Android view finds them.</p>
+	 *
+	 * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+	 * @version 1.0 (19 Oct 2026)
+	 */
+	private class Layout implements XYLines.Mapping
+	{
+		// Lowest coordinates and size of the plot, in translated plot coordinates
+		private final float plX, plY, plWidth, plHeight;
+		// Scale and translation from plot coordinates to the image
+		private final float scaleX, scaleY, transX, transY;
+		
+		/**
+		 * Lay out a plot within the image.
+		 * @param plot the plot to lay out.
+		 */
+		private Layout(XYPlot plot) {
+			float axisPaddingX = (plot.isScaleShown() ? 50.0f : 0.0f);
+			float axisPaddingY = (plot.isScaleShown() ? 50.0f : 0.0f);
+			
+			// Calculate draw area
+			float dwWidth = (float) width - (2.0f * padding) - axisPaddingX;
+			float dwHeight = (float) height - (2.0f * padding) - axisPaddingY;
+			
+			// Get raw plot size
+			plX = plot.getXAxis().getMinValue();
+			plY = plot.getYAxis().getMinValue();
+			plWidth = plot.getXAxis().getLength();
+			plHeight = plot.getYAxis().getLength();
+			
+			// Adjust scaling to fit plot to draw area, keeping it proportional if the plot requires
+			float sx = dwWidth / plWidth;
+			float sy = dwHeight / plHeight;
+			if(plot.isProportional()) {
+				sx = Math.min(sx, sy);
+				sy = sx;
+			}
+			scaleX = sx;
+			scaleY = sy;
+			
+			// Move plot area - origin at the bottom left of the image
+			transX = -1.0f * (plX - ((padding + axisPaddingX) / scaleX));
+			transY = -1.0f * (plY + plHeight + ((2 * padding) / scaleY));
+		}
+		
+		/**
+		 * Convert a translated plot x-coordinate to a column of the image.
+		 * @param x the x-coordinate.
+		 * @return the column, in pixels from the left.
+		 */
+		private float toImageX(float x) {
+			return (x + transX) * scaleX;
+		}
+		
+		/**
+		 * Convert a translated plot y-coordinate to a row of the image.
+		 * @param y the y-coordinate.
+		 * @return the row, in pixels from the top.
+		 */
+		private float toImageY(float y) {
+			return (y + transY) * -scaleY;
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.xyplot.XYLines.Mapping#mapX(float)
+		 */
+		public float mapX(float x) {
+			return toImageX(x);
+		}
+		
+		/* (non-Javadoc)
+		 * @see uk.co.essarsoftware.ski.xyplot.XYLines.Mapping#mapY(float)
+		 */
+		public float mapY(float y) {
+			return toImageY(y);
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package uk.co.essarsoftware.ski.xyplot;
+/*
+ * Essar Software Ski Data
+ * http://github.com/essar/skidata
+ * 
+ * -----------+----------+-----------------------------------------------------
+ *  Date      | Version  | Comments
+ * -----------+----------+-----------------------------------------------------
+ *  19-Oct-26 | 1.0      | Initial version
+ * -----------+----------+-----------------------------------------------------
+ * 
+ */
+import java.util.ArrayList;
+
+/**
+ * <p>Set of levels of a data series ordered by x-coordinate, each with half the points of the level below, so the
+ * part of the series within a range of x-coordinates can be found at the detail needed for any zoom.</p>
+ * <p>The first level holds every point. Each level above holds the lowest and highest point of each group of four
+ * points in the level below, so peaks and troughs are kept at every level. Each level holds the positions of its
+ * points in the series, so the levels together take about twice as many positions as the series has points, and are
+ * built once. Points found are indexed back to the same source as in the series.</p>
+ *
+ * @author Steve Roberts <steve.roberts@essarsoftware.co.uk>
+ * @version 1.0 (19 Oct 2026)
+ */
+public class XYPyramid
+{
+	// Fewest points held by the top level
+	private static final int MIN_LEVEL_SIZE = 64;
+	
+	// Data series the levels were built from, and its size when built
+	private final XYDataSet data;
+	private final int size;
+	// Positions in the data series of the points of each level, and their x-coordinates
+	private final int[][] levels;
+	private final float[][] levelXs;
+	
+	/**
+	 * Build the levels of a data series.
+	 * @param data a data series, ordered by x-coordinate.
+	 */
+	public XYPyramid(XYDataSet data) {
+		this.data = data;
+		this.size = data.size();
+		
+		ArrayList<int[]> list = new ArrayList<int[]>();
+		int[] level = new int[size];
+		for(int i = 0; i < size; i ++) {
+			level[i] = i;
+		}
+		list.add(level);
+		while(level.length > MIN_LEVEL_SIZE) {
+			level = reduce(data, level);
+			list.add(level);
+		}
+		
+		levels = list.toArray(new int[list.size()][]);
+		levelXs = new float[levels.length][];
+		for(int l = 0; l < levels.length; l ++) {
+			float[] xs = new float[levels[l].length];
+			for(int i = 0; i < xs.length; i ++) {
+				xs[i] = data.getX(levels[l][i]);
+			}
+			levelXs[l] = xs;
+		}
+	}
+	
+	/**
+	 * Build a level from the level below, keeping the lowest and highest point of each group of four points, in their
+	 * original order. The first and last points are always kept.
+	 * @param data the data series.
+	 * @param below the positions of the points of the level below.
+	 * @return the positions of the points of the new level.
+	 */
+	private static int[] reduce(XYDataSet data, int[] below) {
+		int[] level = new int[below.length / 2 + 4];
+		int n = 0;
+		level[n ++] = below[0];
+		for(int g = 0; g < below.length; g += 4) {
+			int lo = g, hi = g;
+			int end = Math.min(below.length, g + 4);
+			for(int i = g + 1; i < end; i ++) {
+				float y = data.getY(below[i]);
+				if(y < data.getY(below[lo])) {
+					lo = i;
+				}
+				if(y > data.getY(below[hi])) {
+					hi = i;
+				}
+			}
+			int a = Math.min(lo, hi), b = Math.max(lo, hi);
+			if(a > 0) {
+				level[n ++] = below[a];
+			}
+			if(b != a) {
+				level[n ++] = below[b];
+			}
+		}
+		if(level[n - 1] != below[below.length - 1]) {
+			level[n ++] = below[below.length - 1];
+		}
+		
+		int[] trimmed = new int[n];
+		System.arraycopy(level, 0, trimmed, 0, n);
+		return trimmed;
+	}
+	
+	/**
+	 * Find the position of the first point with an x-coordinate not less than a value.
+	 * @param xs the x-coordinates of a level, in ascending order.
+	 * @param x the value to find.
+	 * @return the position of the point, or the length of the level if every point is less than the value.
+	 */
+	private static int search(float[] xs, float x) {
+		int lo = 0, hi = xs.length;
+		while(lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if(xs[mid] < x) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+	
+	/**
+	 * Get the data series the levels were built from.
+	 * @return the data series.
+	 */
+	public XYDataSet getData() {
+		return data;
+	}
+	
+	/**
+	 * Get the number of levels.
+	 * @return the number of levels, including the level holding every point.
+	 */
+	public int getLevels() {
+		return levels.length;
+	}
+	
+	/**
+	 * Check if the levels are out of date, because points have been added to the series since they were built.
+	 * @param data the data series to check against.
+	 * @return true if the levels were not built from the series as it is now, false otherwise.
+	 */
+	public boolean isStale(XYDataSet data) {
+		return this.data != data || size != data.size();
+	}
+	
+	/**
+	 * Get the points within a range of x-coordinates, from the most detailed level that has no more than two points
+	 * for each pixel in the range. The point either side of the range is included, so lines can be drawn to its edges.
+	 * @param fromX the lowest x-coordinate in the range.
+	 * @param toX the highest x-coordinate in the range.
+	 * @param pixels the number of pixels the range is drawn across.
+	 * @return the points within the range, in order.
+	 */
+	public XYDataSet query(float fromX, float toX, int pixels) {
+		int limit = 2 * Math.max(1, pixels);
+		int l = 0, from = 0, to = 0;
+		for(; l < levels.length; l ++) {
+			float[] xs = levelXs[l];
+			from = Math.max(0, search(xs, fromX) - 1);
+			to = Math.min(xs.length, search(xs, toX) + 1);
+			if(to - from <= limit) {
+				break;
+			}
+		}
+		l = Math.min(l, levels.length - 1);
+		
+		int[] level = levels[l];
+		XYDataSet out = data.subset(to - from);
+		for(int i = from; i < to; i ++) {
+			out.addFrom(data, level[i]);
+		}
+		return out;
+	}
+}